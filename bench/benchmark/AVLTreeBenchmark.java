@@ -0,0 +1,153 @@
+package benchmark;
+
+import adt.AVLTree;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * AVLTree against java.util.TreeMap on the same keys. Point operations
+ * cycle through the keys in a shuffled order; bulk operations cover the
+ * whole tree. Run with -prof gc to get gc.alloc.rate.norm (bytes/op).
+ *
+ * @author Group 3
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@SuppressWarnings({"rawtypes", "unchecked"}) // Integer and String keys share one harness
+public class AVLTreeBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    int size;
+
+    @Param({"RANDOM", "SEQUENTIAL", "ID"})
+    KeyShape keys;
+
+    private Comparable[] data;
+    private Comparable[] probes;
+    private AVLTree tree;
+    private TreeMap<Comparable, Comparable> map;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        data = Keys.generate(keys, size);
+        probes = Keys.shuffled(data);
+        tree = new AVLTree();
+        map = new TreeMap<>();
+        for (Comparable k : data) {
+            tree.insert(k);
+            map.put(k, k);
+        }
+    }
+
+    private Comparable nextProbe() {
+        Comparable k = probes[cursor];
+        cursor = (cursor + 1 == probes.length) ? 0 : cursor + 1;
+        return k;
+    }
+
+    /* ---------- Point Operations ---------- */
+
+    @Benchmark
+    public Object avlFind() {
+        return tree.find(nextProbe());
+    }
+
+    @Benchmark
+    public Object treeMapGet() {
+        return map.get(nextProbe());
+    }
+
+    @Benchmark
+    public boolean avlContains() {
+        return tree.contains(nextProbe());
+    }
+
+    @Benchmark
+    public boolean treeMapContainsKey() {
+        return map.containsKey(nextProbe());
+    }
+
+    // delete + re-insert keeps the size fixed across iterations
+    @Benchmark
+    @OperationsPerInvocation(2)
+    public boolean avlDeleteInsert() {
+        Comparable k = nextProbe();
+        tree.delete(k);
+        return tree.insert(k);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(2)
+    public Object treeMapRemovePut() {
+        Comparable k = nextProbe();
+        map.remove(k);
+        return map.put(k, k);
+    }
+
+    @Benchmark
+    public int avlSize() {
+        return tree.size();
+    }
+
+    @Benchmark
+    public int treeMapSize() {
+        return map.size();
+    }
+
+    /* ---------- Whole-Tree Operations ---------- */
+
+    @Benchmark
+    public void avlIterate(Blackhole bh) {
+        for (Object k : tree) {
+            bh.consume(k);
+        }
+    }
+
+    @Benchmark
+    public void treeMapIterate(Blackhole bh) {
+        for (Map.Entry<Comparable, Comparable> e : map.entrySet()) {
+            bh.consume(e.getKey());
+        }
+    }
+
+    @Benchmark
+    public Object[] avlToArrayInorder() {
+        return tree.toArrayInorder(new Comparable[size]);
+    }
+
+    @Benchmark
+    public Object[] treeMapToArray() {
+        return map.keySet().toArray(new Comparable[size]);
+    }
+
+    // Building from empty; one invocation inserts every key
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Object avlInsertAllSingly() {
+        AVLTree t = new AVLTree();
+        for (Comparable k : data) {
+            t.insert(k);
+        }
+        return t;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Object treeMapPutAll() {
+        TreeMap<Comparable, Comparable> m = new TreeMap<>();
+        for (Comparable k : data) {
+            m.put(k, k);
+        }
+        return m;
+    }
+}
@@ -0,0 +1,179 @@
+package benchmark;
+
+import adt.IndexedTable;
+import control.StockMaintenance;
+import entity.MedicineName;
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * The locking the modules run, with 1, 4, 16 and 64 threads sharing one
+ * structure: IndexedTable (StampedLock, optimistic primary-key reads) against
+ * java.util.concurrent.ConcurrentSkipListMap, plus StockMaintenance (one
+ * monitor over its batch indexes). Every operation picks a random key;
+ * writePercent of them remove and re-insert it (so the size stays fixed), the
+ * rest are lookups. Stock writes merge one more unit into an existing batch.
+ *
+ * @author Group 3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@SuppressWarnings({"rawtypes", "unchecked"}) // Integer and String keys share one harness
+public class ConcurrentIndexBenchmark {
+    private static final MedicineName[] MEDICINES = MedicineName.values();
+
+    @Param({"10000", "1000000"})
+    int size;
+
+    @Param({"RANDOM", "ID"})
+    KeyShape keys;
+
+    @Param({"0", "20", "100"})
+    int writePercent;
+
+    private Comparable[] data;
+    private IndexedTable table;
+    private ConcurrentSkipListMap<Comparable, Comparable> map;
+    private StockMaintenance stock;
+    private String[] batchIDs;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        data = Keys.generate(keys, size);
+        Function<Comparable, Comparable> self = k -> k; // the key is the row
+        table = new IndexedTable(self);
+        table.insertAll(data.clone());
+        map = new ConcurrentSkipListMap<>();
+        for (Comparable k : data) {
+            map.put(k, k);
+        }
+
+        stock = new StockMaintenance(); // no journal open, so it starts empty
+        batchIDs = new String[size];
+        LocalDate received = LocalDate.now();
+        for (int i = 0; i < size; i++) {
+            batchIDs[i] = "B" + data[i];
+            stock.addBatch(MEDICINES[i % MEDICINES.length], batchIDs[i], 100, received, received.plusYears(1));
+        }
+    }
+
+    private Object tableOp() {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        Comparable k = data[rnd.nextInt(data.length)];
+        if (rnd.nextInt(100) < writePercent) {
+            table.remove(k);
+            return table.insert(k);
+        }
+        return table.get(k);
+    }
+
+    private Object skipListOp() {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        Comparable k = data[rnd.nextInt(data.length)];
+        if (rnd.nextInt(100) < writePercent) {
+            map.remove(k);
+            return map.put(k, k);
+        }
+        return map.get(k);
+    }
+
+    private Object stockOp() {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        int i = rnd.nextInt(batchIDs.length);
+        MedicineName name = MEDICINES[i % MEDICINES.length];
+        if (rnd.nextInt(100) < writePercent) {
+            // merges into the existing batch (deduct would scan every batch)
+            LocalDate received = LocalDate.now();
+            return stock.addBatch(name, batchIDs[i], 1, received, received.plusYears(1));
+        }
+        return stock.findBatchByID(batchIDs[i]);
+    }
+
+    /* ---------- 1 thread ---------- */
+
+    @Benchmark
+    @Threads(1)
+    public Object table1() {
+        return tableOp();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object skipList1() {
+        return skipListOp();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object stock1() {
+        return stockOp();
+    }
+
+    /* ---------- 4 threads ---------- */
+
+    @Benchmark
+    @Threads(4)
+    public Object table4() {
+        return tableOp();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object skipList4() {
+        return skipListOp();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object stock4() {
+        return stockOp();
+    }
+
+    /* ---------- 16 threads ---------- */
+
+    @Benchmark
+    @Threads(16)
+    public Object table16() {
+        return tableOp();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Object skipList16() {
+        return skipListOp();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Object stock16() {
+        return stockOp();
+    }
+
+    /* ---------- 64 threads ---------- */
+
+    @Benchmark
+    @Threads(64)
+    public Object table64() {
+        return tableOp();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Object skipList64() {
+        return skipListOp();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Object stock64() {
+        return stockOp();
+    }
+}
@@ -0,0 +1,296 @@
+package benchmark;
+
+import adt.IndexedTable;
+import control.StockMaintenance;
+import entity.MedicineName;
+import entity.StockBatch;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Multi-threaded stress check for the locking the modules actually run:
+ * IndexedTable (StampedLock, optimistic ID reads) as used for patients and
+ * consultations, and StockMaintenance (one monitor over both stock indexes).
+ * IndexedTable also gets a rough throughput comparison against
+ * ConcurrentSkipListMap on the same operation mix.
+ *
+ * IndexedTable: each thread owns every slot congruent to its number, so it
+ * knows exactly which of its rows must be present and under which name; the
+ * others only read. While running, threads check that optimistic reads never
+ * return another key's row and that the ordered index iterates in key order.
+ * Afterwards every index is checked against what the threads recorded.
+ *
+ * StockMaintenance: threads add batches and deduct single units concurrently;
+ * afterwards each medicine's balance must equal what was added minus what was
+ * deducted, and every batch must be findable by both keys.
+ *
+ *     java -cp build/classes:build/bench/classes benchmark.ConcurrentIndexStress [slots] [opsPerThread]
+ *
+ * Exits with status 1 on the first inconsistency. Use ConcurrentIndexBenchmark
+ * (JMH) for numbers worth comparing; these timings are a smoke test.
+ *
+ * @author Group 3
+ */
+public final class ConcurrentIndexStress {
+    private static final int[] THREADS = {1, 4, 16, 64};
+    private static final int WRITE_PERCENT = 20;
+    private static final int STOCK_WRITE_PERCENT = 80;
+    private static final int STOCK_OPS = 4_000; // shared by the threads: every stock call scans all batches
+    // few medicines, so threads keep deducting from the same nearly empty batches
+    private static final MedicineName[] MEDICINES = {MedicineName.PARACETAMOL, MedicineName.INSULIN};
+
+    private ConcurrentIndexStress() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int slots = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int ops = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+
+        for (int threads : THREADS) {
+            long table = runTable(threads, slots, ops);
+            long skip = runSkipList(threads, slots, ops);
+            long stock = runStock(threads, Math.max(1, STOCK_OPS / threads));
+            System.out.printf("%2d threads: IndexedTable %,12d ops/s   ConcurrentSkipListMap %,12d ops/s"
+                    + "   StockMaintenance %,10d ops/s%n", threads, table, skip, stock);
+        }
+        System.out.println("OK");
+    }
+
+    // Scrambled but distinct, so the ordered index is not fed in key order
+    private static long key(int slot) {
+        return (slot * 0x9E3779B1L) & 0xFFFF_FFFFL;
+    }
+
+    private static final class Row {
+        final long id;
+        final String name;
+
+        Row(long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    /* ---------- IndexedTable ---------- */
+
+    private static long runTable(int threads, int slots, int ops) throws Exception {
+        IndexedTable<Long, Row> table = IndexedTable.longKeyed(r -> r.id);
+        IndexedTable<Long, Row>.LongOrderedIndex byID = table.addLongOrderedIndex(r -> r.id);
+        IndexedTable<Long, Row>.UniqueIndex<String> byName = table.addUniqueIndex(r -> r.name);
+        String[] names = new String[slots]; // null when the slot is absent
+
+        // even slots start present, loaded in one batch
+        Row[] initial = new Row[(slots + 1) / 2];
+        for (int s = 0; s < slots; s += 2) {
+            names[s] = "r" + s;
+            initial[s / 2] = new Row(key(s), names[s]);
+        }
+        table.insertAll(initial);
+
+        AtomicReference<String> failure = new AtomicReference<>();
+        long elapsed = race(threads, t -> {
+            Random rnd = new Random(t);
+            int version = 0;
+            for (int i = 0; i < ops && failure.get() == null; i++) {
+                int slot = rnd.nextInt(slots);
+                long k = key(slot);
+                boolean mine = slot % threads == t;
+
+                if (mine && rnd.nextInt(100) < WRITE_PERCENT) {
+                    // names[] entries are only touched by their owner
+                    if (names[slot] == null) {
+                        String name = "r" + slot + "." + version++;
+                        if (!table.insert(new Row(k, name))) failure.compareAndSet(null, "insert lost " + k);
+                        names[slot] = name;
+                    } else if (rnd.nextBoolean()) {
+                        String name = "r" + slot + "." + version++;
+                        if (!table.update(new Row(k, name))) failure.compareAndSet(null, "update lost " + k);
+                        names[slot] = name;
+                    } else {
+                        if (table.remove(k) == null) failure.compareAndSet(null, "remove lost " + k);
+                        names[slot] = null;
+                    }
+                } else {
+                    Row r = table.get(k);
+                    if (r != null && r.id != k) failure.compareAndSet(null, "get(" + k + ") returned row " + r.id);
+                    if (mine && (r == null ? names[slot] != null : !r.name.equals(names[slot])))
+                        failure.compareAndSet(null, "get disagrees on own key " + k);
+                }
+
+                if (i % 4096 == 0 && !ascending(byID.iterator()))
+                    failure.compareAndSet(null, "ordered index out of order");
+            }
+        });
+        if (failure.get() != null) fail(threads, failure.get());
+
+        checkTable(threads, table, byID, byName, names);
+        return (long) threads * ops * 1_000_000_000L / Math.max(1, elapsed);
+    }
+
+    private static boolean ascending(Iterator<Row> it) {
+        long prev = -1;
+        while (it.hasNext()) {
+            long k = it.next().id;
+            if (prev >= k) return false;
+            prev = k;
+        }
+        return true;
+    }
+
+    private static void checkTable(int threads, IndexedTable<Long, Row> table,
+            IndexedTable<Long, Row>.LongOrderedIndex byID,
+            IndexedTable<Long, Row>.UniqueIndex<String> byName, String[] names) {
+        int expected = 0;
+        for (int s = 0; s < names.length; s++) {
+            Row r = table.get(key(s));
+            if (names[s] == null) {
+                if (r != null) fail(threads, "slot " + s + " present after remove");
+                continue;
+            }
+            expected++;
+            if (r == null || !r.name.equals(names[s])) fail(threads, "slot " + s + " wrong after run");
+            if (byName.get(names[s]) != r) fail(threads, "name index wrong for slot " + s);
+            if (byID.get(key(s)) != r) fail(threads, "ordered index wrong for slot " + s);
+        }
+        if (table.size() != expected) fail(threads, "size " + table.size() + " != " + expected);
+        if (byID.size() != expected) fail(threads, "ordered index size " + byID.size() + " != " + expected);
+
+        Row[] all = byID.toArray(new Row[0]);
+        if (all.length != expected) fail(threads, "toArray returned " + all.length);
+        for (int i = 0; i < all.length; i++) {
+            if (i > 0 && all[i - 1].id >= all[i].id) fail(threads, "toArray out of order at " + i);
+            if (byID.select(i) != all[i] || byID.rankOf(all[i].id) != i) fail(threads, "rank/select wrong at " + i);
+        }
+    }
+
+    /* ---------- ConcurrentSkipListMap, same mix ---------- */
+
+    private static long runSkipList(int threads, int slots, int ops) throws Exception {
+        ConcurrentSkipListMap<Long, Row> map = new ConcurrentSkipListMap<>();
+        for (int s = 0; s < slots; s += 2) {
+            map.put(key(s), new Row(key(s), "r" + s));
+        }
+
+        long elapsed = race(threads, t -> {
+            Random rnd = new Random(t);
+            for (int i = 0; i < ops; i++) {
+                int slot = rnd.nextInt(slots);
+                long k = key(slot);
+                if (slot % threads == t && rnd.nextInt(100) < WRITE_PERCENT) {
+                    if (map.remove(k) == null) map.put(k, new Row(k, "r" + slot));
+                } else {
+                    map.get(k);
+                }
+                if (i % 4096 == 0) map.values().iterator();
+            }
+        });
+        return (long) threads * ops * 1_000_000_000L / Math.max(1, elapsed);
+    }
+
+    /* ---------- StockMaintenance ---------- */
+
+    private static long runStock(int threads, int ops) throws Exception {
+        StockMaintenance stock = new StockMaintenance(); // no journal open, so it starts empty
+        AtomicInteger[] added = new AtomicInteger[MEDICINES.length];
+        AtomicInteger[] deducted = new AtomicInteger[MEDICINES.length];
+        for (int m = 0; m < MEDICINES.length; m++) {
+            added[m] = new AtomicInteger();
+            deducted[m] = new AtomicInteger();
+        }
+        LocalDate received = LocalDate.now();
+        LocalDate expiry = received.plusYears(1);
+        int[] batches = new int[threads];
+
+        AtomicReference<String> failure = new AtomicReference<>();
+        long elapsed = race(threads, t -> {
+            Random rnd = new Random(t);
+            for (int i = 0; i < ops && failure.get() == null; i++) {
+                int m = rnd.nextInt(MEDICINES.length);
+                MedicineName name = MEDICINES[m];
+                int roll = rnd.nextInt(100);
+
+                if (roll < STOCK_WRITE_PERCENT / 2) {
+                    // batch IDs are unique per thread, so a new batch is never a merge
+                    String id = "T" + t + "B" + batches[t]++;
+                    int qty = 1 + rnd.nextInt(2);
+                    if (!stock.addBatch(name, id, qty, received, expiry)) failure.compareAndSet(null, "add lost " + id);
+                    else added[m].addAndGet(qty);
+                    StockBatch b = stock.findBatchByID(id);
+                    if (b == null || stock.findBatch(name, id) != b)
+                        failure.compareAndSet(null, "batch " + id + " not found right after adding");
+                } else if (roll < STOCK_WRITE_PERCENT) {
+                    // one unit either comes off in full or not at all
+                    if (stock.deduct(name, 1)) deducted[m].incrementAndGet();
+                } else {
+                    if (stock.totalBalance(name) < 0) failure.compareAndSet(null, "negative balance for " + name);
+                    stock.earliestBatchNonExpired(name);
+                }
+            }
+        });
+        if (failure.get() != null) fail(threads, failure.get());
+
+        for (int m = 0; m < MEDICINES.length; m++) {
+            int expected = added[m].get() - deducted[m].get();
+            int balance = stock.totalBalance(MEDICINES[m]);
+            if (balance != expected) fail(threads, MEDICINES[m] + " balance " + balance + " != " + expected);
+        }
+        int total = 0;
+        for (int t = 0; t < threads; t++) {
+            for (int b = 0; b < batches[t]; b++) {
+                if (!stock.batchIDExists("T" + t + "B" + b)) fail(threads, "batch T" + t + "B" + b + " missing");
+            }
+            total += batches[t];
+        }
+        if (stock.listAll().length != total) fail(threads, "listAll has " + stock.listAll().length + " != " + total);
+        return (long) threads * ops * 1_000_000_000L / Math.max(1, elapsed);
+    }
+
+    /* ---------- Harness ---------- */
+
+    private interface Worker {
+        void run(int thread);
+    }
+
+    // Starts every thread together and returns the wall time in nanoseconds
+    private static long race(int threads, Worker worker) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] pool = new Thread[threads];
+        AtomicReference<Throwable> crash = new AtomicReference<>();
+
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            pool[t] = new Thread(() -> {
+                try {
+                    start.await();
+                    worker.run(id);
+                } catch (Throwable e) {
+                    crash.compareAndSet(null, e);
+                }
+            }, "stress-" + t);
+            pool[t].start();
+        }
+
+        long t0 = System.nanoTime();
+        start.countDown();
+        for (Thread th : pool) {
+            th.join();
+        }
+        long elapsed = System.nanoTime() - t0;
+
+        if (crash.get() != null) {
+            crash.get().printStackTrace();
+            fail(threads, "worker threw " + crash.get());
+        }
+        return elapsed;
+    }
+
+    private static void fail(int threads, String message) {
+        System.out.println("FAILED with " + threads + " threads: " + message);
+        System.exit(1);
+    }
+}
@@ -0,0 +1,206 @@
+package benchmark;
+
+import dao.Journal;
+import entity.Gender;
+import entity.Patient;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import utility.IDGenerator;
+import utility.IDType;
+
+/**
+ * Crash-recovery check for the journal. It writes patients through a live
+ * journal and copies the directory at chosen points (after sync, so the copy
+ * is exactly what a crash would leave on disk). Each copy is then damaged or
+ * mixed with files from another point in time, reopened, and the rows read
+ * back are compared with what should have survived:
+ *
+ *   - a torn record at the end of the newest segment is cut off;
+ *   - garbage after the last record is cut off;
+ *   - a crash after the log rotated but before the snapshot was written
+ *     replays both segments;
+ *   - a damaged record in an older segment fails the open;
+ *   - a crash after the snapshot was written but before the segments it
+ *     covers were deleted does not replay them over newer rows;
+ *   - with two snapshots left behind, the newer one wins.
+ *
+ *     java -cp build/classes:build/bench/classes benchmark.JournalRecoveryCheck
+ *
+ * Exits with status 1 on the first wrong result.
+ *
+ * @author Group 3
+ */
+public final class JournalRecoveryCheck {
+    private static final int FIRST_BATCH = 10;
+
+    private JournalRecoveryCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path root = Files.createTempDirectory("journal-recovery");
+        try {
+            run(root);
+        } finally {
+            deleteTree(root);
+        }
+        System.out.println("OK");
+    }
+
+    private static void run(Path root) throws Exception {
+        Path live = root.resolve("live");
+        TreeMap<String, String> first = new TreeMap<>();
+        TreeMap<String, String> second;
+        String[] ids = new String[FIRST_BATCH];
+
+        // segment 1: ten new patients
+        Journal.open(live);
+        for (int i = 0; i < FIRST_BATCH; i++) {
+            ids[i] = IDGenerator.next(IDType.PATIENT);
+            put(first, ids[i], "Patient " + i);
+        }
+        Journal.sync();
+        Path afterFirst = copy(live, root.resolve("after-first"));
+
+        // snapshot-1 covers segment 1; segment 2 renames, deletes and adds
+        Journal.checkpoint();
+        second = new TreeMap<>(first);
+        for (int i = 0; i < 4; i++) {
+            put(second, ids[i], "Renamed " + i);
+        }
+        for (int i = 4; i < 6; i++) {
+            Journal.delete(Journal.Table.PATIENT, patient(ids[i], second.remove(ids[i])));
+        }
+        for (int i = 0; i < 5; i++) {
+            put(second, IDGenerator.next(IDType.PATIENT), "Later " + i);
+        }
+        Journal.sync();
+        Path afterSecond = copy(live, root.resolve("after-second"));
+
+        // snapshot-2 covers segment 2
+        Journal.checkpoint();
+        Path afterThird = copy(live, root.resolve("after-third"));
+        Journal.close();
+
+        Path wal1 = afterFirst.resolve("wal-1.log");
+        Path wal2 = afterSecond.resolve("wal-2.log");
+
+        Path torn = copy(afterFirst, root.resolve("torn"));
+        truncate(torn.resolve("wal-1.log"), 3);
+        TreeMap<String, String> lostLast = new TreeMap<>(first);
+        lostLast.remove(ids[FIRST_BATCH - 1]);
+        expectRows("torn tail", torn, lostLast);
+        expectRows("torn tail, second open", torn, lostLast);
+
+        Path junk = copy(afterFirst, root.resolve("junk"));
+        Files.write(junk.resolve("wal-1.log"), new byte[] {0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+        expectRows("garbage tail", junk, first);
+
+        Path rotated = Files.createDirectories(root.resolve("rotated"));
+        Files.copy(wal1, rotated.resolve("wal-1.log"));
+        Files.copy(wal2, rotated.resolve("wal-2.log"));
+        expectRows("crash before snapshot", rotated, second);
+
+        Path corrupt = Files.createDirectories(root.resolve("corrupt"));
+        Files.copy(wal1, corrupt.resolve("wal-1.log"));
+        Files.copy(wal2, corrupt.resolve("wal-2.log"));
+        flipByte(corrupt.resolve("wal-1.log"), 20);
+        expectOpenFails("corrupt older segment", corrupt);
+
+        Path undeleted = copy(afterSecond, root.resolve("undeleted"));
+        Files.copy(wal1, undeleted.resolve("wal-1.log"));
+        expectRows("crash before segments deleted", undeleted, second, undeleted.resolve("wal-1.log"));
+
+        Path twoSnapshots = copy(afterThird, root.resolve("two-snapshots"));
+        Files.copy(afterSecond.resolve("snapshot-1.dat"), twoSnapshots.resolve("snapshot-1.dat"));
+        Files.copy(wal1, twoSnapshots.resolve("wal-1.log"));
+        expectRows("two snapshots", twoSnapshots, second, twoSnapshots.resolve("snapshot-1.dat"));
+    }
+
+    /* ---------- Checks ---------- */
+
+    // Files in stale must already be gone once open returns (close cleans up anyway)
+    private static void expectRows(String scenario, Path dir, Map<String, String> expected, Path... stale)
+            throws IOException {
+        Journal.open(dir);
+        try {
+            for (Path file : stale) {
+                if (Files.exists(file)) fail(scenario, file.getFileName() + " was not deleted on open");
+            }
+            Patient[] rows = Journal.rows(Journal.Table.PATIENT, Patient.class);
+            TreeMap<String, String> actual = new TreeMap<>();
+            for (Patient p : rows) {
+                actual.put(p.getPatientID(), p.getPatientName());
+            }
+            if (!actual.equals(expected)) {
+                fail(scenario, "expected " + expected + " but read " + actual);
+            }
+        } finally {
+            Journal.close();
+        }
+    }
+
+    private static void expectOpenFails(String scenario, Path dir) throws IOException {
+        try {
+            Journal.open(dir);
+        } catch (IOException e) {
+            if (Journal.isOpen()) fail(scenario, "journal left open after a failed open");
+            return;
+        }
+        Journal.close();
+        fail(scenario, "open accepted a damaged segment");
+    }
+
+    /* ---------- Harness ---------- */
+
+    private static void put(Map<String, String> expected, String id, String name) {
+        Journal.put(Journal.Table.PATIENT, patient(id, name));
+        expected.put(id, name);
+    }
+
+    private static Patient patient(String id, String name) {
+        return new Patient(id, name, "0123456789", id + "@example.com", Gender.FEMALE, 40);
+    }
+
+    private static Path copy(Path from, Path to) throws IOException {
+        Files.createDirectories(to);
+        try (Stream<Path> files = Files.list(from)) {
+            for (Path f : (Iterable<Path>) files::iterator) {
+                Files.copy(f, to.resolve(f.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        return to;
+    }
+
+    private static void truncate(Path file, int bytes) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ch.truncate(ch.size() - bytes);
+        }
+    }
+
+    private static void flipByte(Path file, int at) throws IOException {
+        byte[] data = Files.readAllBytes(file);
+        data[at] ^= 0x5A;
+        Files.write(file, data);
+    }
+
+    private static void deleteTree(Path root) throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path f : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(f);
+            }
+        }
+    }
+
+    private static void fail(String scenario, String message) {
+        System.out.println("FAILED (" + scenario + "): " + message);
+        System.exit(1);
+    }
+}
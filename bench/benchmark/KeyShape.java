@@ -0,0 +1,12 @@
+package benchmark;
+
+/**
+ * Key distributions the ADT benchmarks are run against.
+ *
+ * @author Group 3
+ */
+public enum KeyShape {
+    RANDOM,      // distinct ints in scrambled order
+    SEQUENTIAL,  // 0, 1, 2, ... inserted in ascending order
+    ID           // "P" + yyyyMMdd + 4-digit seq, like IDGenerator output
+}
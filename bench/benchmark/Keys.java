@@ -0,0 +1,60 @@
+package benchmark;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+/**
+ * Deterministic key sets for the benchmarks, so every run and every
+ * implementation sees exactly the same data.
+ *
+ * @author Group 3
+ */
+@SuppressWarnings("rawtypes") // Integer or String, depending on the shape
+final class Keys {
+    private static final long SEED = 42L;
+    private static final int IDS_PER_DAY = 10_000; // 4-digit daily sequence
+
+    private Keys() {
+    }
+
+    // n distinct keys, in the order they would be inserted
+    static Comparable[] generate(KeyShape shape, int n) {
+        Comparable[] keys = new Comparable[n];
+        switch (shape) {
+            case RANDOM -> {
+                // multiplying by an odd constant is a bijection on int, so keys stay distinct
+                for (int i = 0; i < n; i++) {
+                    keys[i] = i * 0x9E3779B1;
+                }
+            }
+            case SEQUENTIAL -> {
+                for (int i = 0; i < n; i++) {
+                    keys[i] = i;
+                }
+            }
+            case ID -> {
+                LocalDate day = LocalDate.of(2025, 1, 1);
+                DateTimeFormatter ymd = DateTimeFormatter.BASIC_ISO_DATE;
+                for (int i = 0; i < n; i++) {
+                    LocalDate d = day.plusDays(i / IDS_PER_DAY);
+                    keys[i] = "P" + d.format(ymd) + String.format("%04d", i % IDS_PER_DAY + 1);
+                }
+            }
+        }
+        return keys;
+    }
+
+    // Copy of keys in a fixed random order, used for lookups
+    static Comparable[] shuffled(Comparable[] keys) {
+        Comparable[] copy = keys.clone();
+        Random rnd = new Random(SEED);
+        for (int i = copy.length - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            Comparable t = copy[i];
+            copy[i] = copy[j];
+            copy[j] = t;
+        }
+        return copy;
+    }
+}
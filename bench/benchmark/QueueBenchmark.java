@@ -0,0 +1,161 @@
+package benchmark;
+
+import adt.ArrayQueue;
+import adt.LinkedQueue;
+import adt.LinkedStack;
+import adt.QueueInterface;
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * LinkedQueue and ArrayQueue against java.util.ArrayDeque, plus LinkedStack
+ * against ArrayDeque used as a stack. The steady-state benchmarks keep the
+ * collection at the requested size; fill/drain covers growth from empty.
+ *
+ * @author Group 3
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class QueueBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    int size;
+
+    private Integer[] items;
+    private QueueInterface<Integer> linked;
+    private QueueInterface<Integer> array;
+    private ArrayDeque<Integer> deque;
+    private LinkedStack<Integer> stack;
+    private ArrayDeque<Integer> dequeStack;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        items = new Integer[size];
+        linked = new LinkedQueue<>();
+        array = new ArrayQueue<>();
+        deque = new ArrayDeque<>();
+        stack = new LinkedStack<>();
+        dequeStack = new ArrayDeque<>();
+        for (int i = 0; i < size; i++) {
+            items[i] = i; // boxed once here so the benchmarks measure the collections only
+            linked.enqueue(items[i]);
+            array.enqueue(items[i]);
+            deque.addLast(items[i]);
+            stack.push(items[i]);
+            dequeStack.push(items[i]);
+        }
+    }
+
+    /* ---------- Steady State ---------- */
+
+    @Benchmark
+    @OperationsPerInvocation(2)
+    public Integer linkedQueueEnqueueDequeue() {
+        Integer x = linked.dequeue();
+        linked.enqueue(x);
+        return x;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(2)
+    public Integer arrayQueueEnqueueDequeue() {
+        Integer x = array.dequeue();
+        array.enqueue(x);
+        return x;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(2)
+    public Integer arrayDequeOfferPoll() {
+        Integer x = deque.pollFirst();
+        deque.addLast(x);
+        return x;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(2)
+    public Integer linkedStackPopPush() {
+        Integer x = stack.pop();
+        stack.push(x);
+        return x;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(2)
+    public Integer arrayDequePopPush() {
+        Integer x = dequeStack.pop();
+        dequeStack.push(x);
+        return x;
+    }
+
+    /* ---------- Iteration ---------- */
+
+    @Benchmark
+    public void linkedQueueIterate(Blackhole bh) {
+        for (Integer x : linked) {
+            bh.consume(x);
+        }
+    }
+
+    @Benchmark
+    public void arrayQueueIterate(Blackhole bh) {
+        for (Integer x : array) {
+            bh.consume(x);
+        }
+    }
+
+    @Benchmark
+    public void arrayDequeIterate(Blackhole bh) {
+        for (Integer x : deque) {
+            bh.consume(x);
+        }
+    }
+
+    /* ---------- Fill / Drain ---------- */
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int linkedQueueFillDrain() {
+        return fillDrain(new LinkedQueue<>());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int arrayQueueFillDrain() {
+        return fillDrain(new ArrayQueue<>());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int arrayDequeFillDrain() {
+        ArrayDeque<Integer> q = new ArrayDeque<>();
+        for (Integer x : items) {
+            q.addLast(x);
+        }
+        int sum = 0;
+        while (!q.isEmpty()) {
+            sum += q.pollFirst();
+        }
+        return sum;
+    }
+
+    private int fillDrain(QueueInterface<Integer> q) {
+        for (Integer x : items) {
+            q.enqueue(x);
+        }
+        int sum = 0;
+        while (!q.isEmpty()) {
+            sum += q.dequeue();
+        }
+        return sum;
+    }
+}
@@ -4,20 +4,30 @@ import java.util.Iterator;
 import java.util.NoSuchElementException;
 
 /**
+ * In-order (or reverse in-order) iterator. The path is kept in an array
+ * stack sized from the tree height, so nothing is allocated per element.
  *
  * @author Group 3
  */
 public class AVLInOrderIterator<T extends Comparable<T>> implements Iterator<T> {
-    private LinkedStack<AVLNode<T>> stack = new LinkedStack<>();
+    private final AVLPathStack<T> stack;
+    private final boolean descending;
 
     public AVLInOrderIterator(AVLNode<T> root) {
-        pushLeftPath(root);
+        this(root, false);
     }
 
-    private void pushLeftPath(AVLNode<T> node) {
+    public AVLInOrderIterator(AVLNode<T> root, boolean descending) {
+        this.stack = new AVLPathStack<>(root);
+        this.descending = descending;
+        pushEdgePath(root);
+    }
+
+    // left spine going forwards, right spine going backwards
+    private void pushEdgePath(AVLNode<T> node) {
         while (node != null) {
             stack.push(node);
-            node = node.getLeft();
+            node = descending ? node.getRight() : node.getLeft();
         }
     }
 
@@ -31,12 +41,7 @@ public class AVLInOrderIterator<T extends Comparable<T>> implements Iterator<T>
         if (!hasNext()) throw new NoSuchElementException();
 
         AVLNode<T> node = stack.pop();
-        T data = node.getData();
-
-        if (node.getRight() != null) {
-            pushLeftPath(node.getRight());
-        }
-
-        return data;
+        pushEdgePath(descending ? node.getLeft() : node.getRight());
+        return node.getData();
     }
 }
@@ -1,12 +1,21 @@
 package adt;
 
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 /**
  *
  * @author Group 3
  */
 public interface AVLInterface<T extends Comparable<T>> extends Iterable<T>{
     boolean insert(T data);
+    int insertAll(T[] batch);   // returns how many elements were new
     boolean delete(T data);
+    T upsert(T data);       // insert or replace; returns the replaced element, null if newly added
+    T putIfAbsent(T data);  // returns the element already present, null if data was added
+    T computeIfAbsent(T probe, Function<? super T, ? extends T> factory);
     T find(T data);
     void traverse();
     T getMax();
@@ -14,8 +23,23 @@ public interface AVLInterface<T extends Comparable<T>> extends Iterable<T>{
     boolean isEmpty();
     boolean contains(T data);
     int size();
+    int rank(T data);   // number of elements smaller than data
+    T select(int k);    // k-th smallest element (0-based), null if out of range
     int height();
     void clear();
     T[] toArrayInorder(T[] arr);
+    Iterable<T> range(T lo, boolean loInclusive, T hi, boolean hiInclusive);
+    Iterable<T> tailFrom(T lo, boolean inclusive);
+    Iterable<T> headUntil(T hi, boolean inclusive);
+    Iterator<T> descendingIterator();  // largest to smallest
+    Iterator<T> iteratorFrom(T key);   // ascending, starting at the first element >= key
     boolean isValidAVL();
+
+    default Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    default Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
 }
@@ -7,6 +7,7 @@ package adt;
 public class AVLNode<T extends Comparable<T>> {
     private T key;
     private int height = 1;
+    private int size = 1; // number of nodes in this subtree
     private AVLNode<T> left;
     private AVLNode<T> right;
     
@@ -14,6 +15,17 @@ public class AVLNode<T extends Comparable<T>> {
         this.key = key;
     }
     
+    // Fully initialised node, used by path-copying trees that never mutate a published node
+    AVLNode(T key, AVLNode<T> left, AVLNode<T> right) {
+        this.key = key;
+        this.left = left;
+        this.right = right;
+        int hl = (left == null) ? 0 : left.height;
+        int hr = (right == null) ? 0 : right.height;
+        this.height = Math.max(hl, hr) + 1;
+        this.size = ((left == null) ? 0 : left.size) + ((right == null) ? 0 : right.size) + 1;
+    }
+    
     public void setKey(T key){
         this.key = key;
     }
@@ -22,6 +34,10 @@ public class AVLNode<T extends Comparable<T>> {
         this.height = height;
     }
     
+    public void setSize(int size){
+        this.size = size;
+    }
+    
     public void setLeft(AVLNode<T> left){
         this.left = left;
     }
@@ -38,6 +54,10 @@ public class AVLNode<T extends Comparable<T>> {
         return height;
     }
     
+    public int getSize(){
+        return size;
+    }
+    
     public AVLNode<T> getLeft(){
         return left;
     }
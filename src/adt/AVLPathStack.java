@@ -0,0 +1,40 @@
+package adt;
+
+/**
+ * Fixed array stack for the iterators. An in-order walk never holds more
+ * nodes than the tree is high, so it is sized once from the root's height
+ * and pushes allocate nothing. It still grows if the tree gets taller while
+ * an iterator is open.
+ *
+ * @author Group 3
+ */
+final class AVLPathStack<T extends Comparable<T>> {
+    private AVLNode<T>[] nodes;
+    private int top;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    AVLPathStack(AVLNode<T> root) {
+        nodes = (AVLNode<T>[]) new AVLNode[root == null ? 0 : root.getHeight()];
+    }
+
+    void push(AVLNode<T> node) {
+        if (top == nodes.length) {
+            nodes = java.util.Arrays.copyOf(nodes, Math.max(4, nodes.length * 2));
+        }
+        nodes[top++] = node;
+    }
+
+    AVLNode<T> pop() {
+        AVLNode<T> node = nodes[--top];
+        nodes[top] = null;
+        return node;
+    }
+
+    AVLNode<T> peek() {
+        return nodes[top - 1];
+    }
+
+    boolean isEmpty() {
+        return top == 0;
+    }
+}
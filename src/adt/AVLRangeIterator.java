@@ -0,0 +1,72 @@
+package adt;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * In-order iterator restricted to [lo, hi]. Seeks to the lower bound in
+ * O(log n) and stops as soon as the upper bound is passed.
+ * A null bound means the range is open on that side. Uses the same
+ * height-sized array stack as AVLInOrderIterator.
+ *
+ * @author Group 3
+ */
+public class AVLRangeIterator<T extends Comparable<T>> implements Iterator<T> {
+    private final AVLPathStack<T> stack;
+    private final T hi;
+    private final boolean hiInclusive;
+
+    public AVLRangeIterator(AVLNode<T> root, T lo, boolean loInclusive, T hi, boolean hiInclusive) {
+        this.hi = hi;
+        this.hiInclusive = hiInclusive;
+        this.stack = new AVLPathStack<>(root);
+        seek(root, lo, loInclusive);
+    }
+
+    // Push only the nodes on the search path that are inside the lower bound
+    private void seek(AVLNode<T> node, T lo, boolean loInclusive) {
+        while (node != null) {
+            if (lo == null) {
+                stack.push(node);
+                node = node.getLeft();
+                continue;
+            }
+
+            int c = node.getKey().compareTo(lo);
+            if (c > 0 || (c == 0 && loInclusive)) {
+                stack.push(node);
+                node = (c == 0) ? null : node.getLeft();
+            } else {
+                node = node.getRight();
+            }
+        }
+    }
+
+    private void pushLeftPath(AVLNode<T> node) {
+        while (node != null) {
+            stack.push(node);
+            node = node.getLeft();
+        }
+    }
+
+    private boolean belowUpper(T key) {
+        if (hi == null) return true;
+
+        int c = key.compareTo(hi);
+        return c < 0 || (c == 0 && hiInclusive);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !stack.isEmpty() && belowUpper(stack.peek().getKey());
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) throw new NoSuchElementException();
+
+        AVLNode<T> node = stack.pop();
+        pushLeftPath(node.getRight());
+        return node.getKey();
+    }
+}
@@ -0,0 +1,109 @@
+package adt;
+
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over the in-order positions [index, fence) of a tree.
+ * Splitting just halves the position range; the subtree sizes let each
+ * half seek to its first element in O(log n), so both halves report exact
+ * sizes (SIZED | SUBSIZED) and a parallel stream can keep splitting all the
+ * way down. The tree must not be modified while the spliterator is in use.
+ *
+ * @author Group 3
+ */
+public class AVLSpliterator<T extends Comparable<T>> implements Spliterator<T> {
+    private static final int MIN_SPLIT = 64; // below this, splitting costs more than it saves
+
+    private final AVLNode<T> root;
+    private int index;
+    private final int fence;
+    private AVLPathStack<T> stack; // created on the first advance
+
+    public AVLSpliterator(AVLNode<T> root) {
+        this(root, 0, root == null ? 0 : root.getSize());
+    }
+
+    private AVLSpliterator(AVLNode<T> root, int index, int fence) {
+        this.root = root;
+        this.index = index;
+        this.fence = fence;
+    }
+
+    // Leaves the stack holding the k-th node on top, followed by its in-order successors
+    private void seek(int k) {
+        stack = new AVLPathStack<>(root);
+        AVLNode<T> node = root;
+
+        while (node != null) {
+            int leftSize = node.getLeft() == null ? 0 : node.getLeft().getSize();
+            if (k < leftSize) {
+                stack.push(node);
+                node = node.getLeft();
+            } else if (k == leftSize) {
+                stack.push(node);
+                return;
+            } else {
+                k -= leftSize + 1;
+                node = node.getRight();
+            }
+        }
+    }
+
+    private T nextData() {
+        AVLNode<T> node = stack.pop();
+        for (AVLNode<T> n = node.getRight(); n != null; n = n.getLeft()) {
+            stack.push(n);
+        }
+        index++;
+        return node.getData();
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (index >= fence) return false;
+        if (stack == null) seek(index);
+
+        action.accept(nextData());
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        if (index >= fence) return;
+        if (stack == null) seek(index);
+
+        while (index < fence) {
+            action.accept(nextData());
+        }
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        int remaining = fence - index;
+        if (remaining < MIN_SPLIT) return null;
+
+        // hand out the first half; this one re-seeks to the middle when next used
+        int mid = index + remaining / 2;
+        AVLSpliterator<T> prefix = new AVLSpliterator<>(root, index, mid);
+        index = mid;
+        stack = null;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return fence - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return SIZED | SUBSIZED | SORTED | ORDERED | DISTINCT | NONNULL;
+    }
+
+    @Override
+    public Comparator<? super T> getComparator() {
+        return null; // natural ordering
+    }
+}
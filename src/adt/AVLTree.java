@@ -5,65 +5,298 @@ package adt;
  * @author Group 3
  */
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.Function;
 
 public class AVLTree<T extends Comparable<T>> implements AVLInterface<T>{
     private AVLNode<T> root;
-    private boolean insertionSuccess;
-    private boolean deletionSuccess;
     
     @Override
     public boolean insert(T data) {
-        insertionSuccess = false;
-        root = insert(data, root);
-        return insertionSuccess;
+        return put(data, false) == null;
     }
-
-    private AVLNode<T> insert(T data, AVLNode<T> node) {
-        if (node == null) {
-            insertionSuccess = true;
-            return new AVLNode<>(data);
+    
+    @Override
+    public T upsert(T data) {
+        return put(data, true);
+    }
+    
+    @Override
+    public T putIfAbsent(T data) {
+        return put(data, false);
+    }
+    
+    @Override
+    public T computeIfAbsent(T probe, Function<? super T, ? extends T> factory) {
+        AVLNode<T>[] path = newPath();
+        int depth = 0;
+        int c = 0;
+        AVLNode<T> cur = root;
+        
+        while (cur != null) {
+            c = probe.compareTo(cur.getKey());
+            if (c == 0)
+                return cur.getKey();
+            
+            path[depth++] = cur;
+            cur = (c < 0) ? cur.getLeft() : cur.getRight();
         }
-
-        if (data.compareTo(node.getKey()) < 0)
-            node.setLeft(insert(data, node.getLeft()));
-        else if (data.compareTo(node.getKey()) > 0)
-            node.setRight(insert(data, node.getRight()));
-        else
-            return node;
-
-        updateHeight(node);
-        return applyRotation(node);
+        
+        T created = factory.apply(probe);
+        if (created == null)
+            return null;
+        if (created.compareTo(probe) != 0)
+            throw new IllegalArgumentException("Factory result does not match the probe key.");
+        
+        attach(path, depth, c, new AVLNode<>(created));
+        return created;
     }
     
+    // Single descent; returns the element already stored under the same key, or null if data was added
+    private T put(T data, boolean replace) {
+        AVLNode<T>[] path = newPath();
+        int depth = 0;
+        int c = 0;
+        AVLNode<T> cur = root;
+        
+        while (cur != null) {
+            c = data.compareTo(cur.getKey());
+            if (c == 0) {
+                T existing = cur.getKey();
+                if (replace)
+                    cur.setKey(data);
+                return existing;
+            }
+            
+            path[depth++] = cur;
+            cur = (c < 0) ? cur.getLeft() : cur.getRight();
+        }
+        
+        attach(path, depth, c, new AVLNode<>(data));
+        return null;
+    }
+    
+    /* ---------- Bulk loading ---------- */
+    
+    // Builds a perfectly balanced tree in O(n); input must be strictly ascending
+    public static <T extends Comparable<T>> AVLTree<T> buildFromSorted(T[] sorted) {
+        checkAscending(sorted, sorted.length);
+        AVLTree<T> tree = new AVLTree<>();
+        tree.root = buildBalanced(sorted, 0, sorted.length - 1);
+        return tree;
+    }
+    
+    public static <T extends Comparable<T>> AVLTree<T> buildFromSorted(Iterator<T> sorted, int size) {
+        AVLTree<T> tree = new AVLTree<>();
+        tree.root = buildBalanced(sorted, size, new Object[1]);
+        return tree;
+    }
+    
+    // Sorts and de-duplicates the batch, then either inserts it element by element
+    // (small batch, large tree) or merges it with the in-order contents and rebuilds in O(n + m)
     @Override
-    public boolean delete(T data){
-        deletionSuccess = false;
-        root = delete(data, root);
-        return deletionSuccess;
+    public int insertAll(T[] batch) {
+        T[] sorted = sortDistinct(batch);
+        int n = size();
+        
+        if (n > 0 && (long) sorted.length * log2(n) < n) {
+            int added = 0;
+            for (T item : sorted) {
+                if (insert(item)) added++;
+            }
+            return added;
+        }
+        
+        T[] merged = mergeSorted(toArrayInorder(newArray(n)), sorted);
+        root = buildBalanced(merged, 0, merged.length - 1);
+        return merged.length - n;
+    }
+    
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static <T extends Comparable<T>> T[] newArray(int n) {
+        return (T[]) new Comparable[n];
+    }
+    
+    static int log2(int n) {
+        return 32 - Integer.numberOfLeadingZeros(n);
     }
     
-    private AVLNode<T> delete(T data, AVLNode<T> node){
-        if (node == null)
+    static <T extends Comparable<T>> AVLNode<T> buildBalanced(T[] sorted, int lo, int hi) {
+        if (lo > hi)
             return null;
-
-        if (data.compareTo(node.getKey()) < 0)
-            node.setLeft(delete(data, node.getLeft()));
-        else if (data.compareTo(node.getKey()) > 0)
-            node.setRight(delete(data, node.getRight()));
-        else {
-            deletionSuccess = true;  // mark as success only when node is matched
-
-            if (node.getLeft() == null)
-                return node.getRight();
-            else if (node.getRight() == null)
-                return node.getLeft();
-
-            node.setKey(getMax(node.getLeft()));
-            node.setLeft(delete(node.getKey(), node.getLeft()));
+        
+        int mid = (lo + hi) >>> 1;
+        return new AVLNode<>(sorted[mid], buildBalanced(sorted, lo, mid - 1), buildBalanced(sorted, mid + 1, hi));
+    }
+    
+    // In-order construction straight from the iterator; prev[0] holds the last key for the order check
+    @SuppressWarnings("unchecked")
+    private static <T extends Comparable<T>> AVLNode<T> buildBalanced(Iterator<T> it, int n, Object[] prev) {
+        if (n <= 0)
+            return null;
+        
+        int leftCount = (n - 1) / 2;
+        AVLNode<T> left = buildBalanced(it, leftCount, prev);
+        
+        T key = it.next();
+        if (prev[0] != null && ((T) prev[0]).compareTo(key) >= 0)
+            throw new IllegalArgumentException("Input is not strictly ascending.");
+        prev[0] = key;
+        
+        AVLNode<T> right = buildBalanced(it, n - 1 - leftCount, prev);
+        return new AVLNode<>(key, left, right);
+    }
+    
+    private static <T extends Comparable<T>> void checkAscending(T[] a, int n) {
+        for (int i = 1; i < n; i++) {
+            if (a[i - 1].compareTo(a[i]) >= 0)
+                throw new IllegalArgumentException("Input is not strictly ascending.");
+        }
+    }
+    
+    // Copy of the batch in ascending order with duplicates dropped (first occurrence kept)
+    static <T extends Comparable<T>> T[] sortDistinct(T[] batch) {
+        T[] a = newArray(batch.length);
+        System.arraycopy(batch, 0, a, 0, batch.length);
+        mergeSort(a, newArray(a.length), 0, a.length - 1);
+        
+        int n = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (n == 0 || a[n - 1].compareTo(a[i]) != 0)
+                a[n++] = a[i];
+        }
+        
+        T[] out = newArray(n);
+        System.arraycopy(a, 0, out, 0, n);
+        return out;
+    }
+    
+    // Stable, so equal keys keep their batch order
+    private static <T extends Comparable<T>> void mergeSort(T[] a, T[] tmp, int lo, int hi) {
+        if (lo >= hi)
+            return;
+        
+        int mid = (lo + hi) >>> 1;
+        mergeSort(a, tmp, lo, mid);
+        mergeSort(a, tmp, mid + 1, hi);
+        if (a[mid].compareTo(a[mid + 1]) <= 0)
+            return;
+        
+        System.arraycopy(a, lo, tmp, lo, hi - lo + 1);
+        int i = lo, j = mid + 1, k = lo;
+        while (i <= mid && j <= hi) {
+            a[k++] = (tmp[j].compareTo(tmp[i]) < 0) ? tmp[j++] : tmp[i++];
+        }
+        while (i <= mid) a[k++] = tmp[i++];
+        while (j <= hi) a[k++] = tmp[j++];
+    }
+    
+    // Union of two ascending arrays; on equal keys the element from existing wins
+    static <T extends Comparable<T>> T[] mergeSorted(T[] existing, T[] added) {
+        T[] out = newArray(existing.length + added.length);
+        int i = 0, j = 0, k = 0;
+        
+        while (i < existing.length && j < added.length) {
+            int c = existing[i].compareTo(added[j]);
+            if (c < 0) {
+                out[k++] = existing[i++];
+            } else if (c > 0) {
+                out[k++] = added[j++];
+            } else {
+                out[k++] = existing[i++];
+                j++;
+            }
+        }
+        while (i < existing.length) out[k++] = existing[i++];
+        while (j < added.length) out[k++] = added[j++];
+        
+        if (k == out.length)
+            return out;
+        
+        T[] trimmed = newArray(k);
+        System.arraycopy(out, 0, trimmed, 0, k);
+        return trimmed;
+    }
+    
+    @Override
+    public boolean delete(T data){
+        AVLNode<T>[] path = newPath();
+        int depth = 0;
+        AVLNode<T> cur = root;
+        
+        while (cur != null) {
+            int c = data.compareTo(cur.getKey());
+            if (c == 0)
+                break;
+            
+            path[depth++] = cur;
+            cur = (c < 0) ? cur.getLeft() : cur.getRight();
+        }
+        
+        if (cur == null)
+            return false;
+        
+        if (cur.getLeft() == null || cur.getRight() == null) {
+            AVLNode<T> child = (cur.getLeft() != null) ? cur.getLeft() : cur.getRight();
+            replaceChild(path, depth, cur, child);
+        } else {
+            // Two children: pull up the in-order predecessor and unlink it instead
+            path[depth++] = cur;
+            AVLNode<T> pred = cur.getLeft();
+            while (pred.getRight() != null) {
+                path[depth++] = pred;
+                pred = pred.getRight();
+            }
+            cur.setKey(pred.getKey());
+            replaceChild(path, depth, pred, pred.getLeft());
+        }
+        
+        rebalancePath(path, depth);
+        return true;
+    }
+    
+    /* ---------- Iterative update helpers ---------- */
+    
+    // Ancestors of any node number at most height(root), so the path never overflows
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private AVLNode<T>[] newPath() {
+        return (AVLNode<T>[]) new AVLNode[height(root) + 1];
+    }
+    
+    private void attach(AVLNode<T>[] path, int depth, int side, AVLNode<T> node) {
+        if (depth == 0) {
+            root = node;
+            return;
+        }
+        
+        if (side < 0)
+            path[depth - 1].setLeft(node);
+        else
+            path[depth - 1].setRight(node);
+        
+        rebalancePath(path, depth);
+    }
+    
+    private void replaceChild(AVLNode<T>[] path, int depth, AVLNode<T> oldChild, AVLNode<T> newChild) {
+        if (depth == 0) {
+            root = newChild;
+            return;
+        }
+        
+        AVLNode<T> parent = path[depth - 1];
+        if (parent.getLeft() == oldChild)
+            parent.setLeft(newChild);
+        else
+            parent.setRight(newChild);
+    }
+    
+    // Walk back up the recorded path, refreshing height/size and rotating where needed
+    private void rebalancePath(AVLNode<T>[] path, int depth) {
+        for (int i = depth - 1; i >= 0; i--) {
+            AVLNode<T> node = path[i];
+            updateHeight(node);
+            replaceChild(path, i, node, applyRotation(node));
         }
-
-        updateHeight(node);
-        return applyRotation(node);
     }
     
     @Override
@@ -82,6 +315,7 @@ public class AVLTree<T extends Comparable<T>> implements AVLInterface<T>{
     private void updateHeight(AVLNode<T> node){
         int maxHeight = Math.max(height(node.getLeft()), height(node.getRight()));
         node.setHeight(maxHeight + 1);
+        node.setSize(size(node.getLeft()) + size(node.getRight()) + 1);
     }
     
     @Override
@@ -99,7 +333,44 @@ public class AVLTree<T extends Comparable<T>> implements AVLInterface<T>{
     }
     
     private int size(AVLNode<T> n){
-        return n == null ? 0 : 1 + size(n.getLeft()) + size(n.getRight());
+        return n == null ? 0 : n.getSize();
+    }
+    
+    @Override
+    public int rank(T data) {
+        int rank = 0;
+        AVLNode<T> cur = root;
+        while (cur != null) {
+            int c = data.compareTo(cur.getKey());
+            if (c < 0) {
+                cur = cur.getLeft();
+            } else {
+                rank += size(cur.getLeft());
+                if (c == 0) return rank;
+                rank++;
+                cur = cur.getRight();
+            }
+        }
+        return rank;
+    }
+    
+    @Override
+    public T select(int k) {
+        if (k < 0 || k >= size()) return null;
+        
+        AVLNode<T> cur = root;
+        while (cur != null) {
+            int leftSize = size(cur.getLeft());
+            if (k < leftSize) {
+                cur = cur.getLeft();
+            } else if (k == leftSize) {
+                return cur.getKey();
+            } else {
+                k -= leftSize + 1;
+                cur = cur.getRight();
+            }
+        }
+        return null;
     }
     
     private int balance(AVLNode<T> node){
@@ -189,12 +460,6 @@ public class AVLTree<T extends Comparable<T>> implements AVLInterface<T>{
     }
 
     // ---- Helpers used internally ----
-    private T getMax(AVLNode<T> node){
-        AVLNode<T> cur = node;
-        while (cur.getRight() != null) cur = cur.getRight();
-        return cur.getKey();
-    }
-
     @SuppressWarnings("unused")
     private T getMin(AVLNode<T> node){
         AVLNode<T> cur = node;
@@ -207,11 +472,48 @@ public class AVLTree<T extends Comparable<T>> implements AVLInterface<T>{
         root = null;
     }
     
+    // Package access for wrappers that walk the nodes themselves (e.g. optimistic readers)
+    AVLNode<T> root() {
+        return root;
+    }
+    
     @Override
     public Iterator<T> iterator() {
         return new AVLInOrderIterator<>(root); // root must be accessible
     }
 
+    // Splits by position using the subtree sizes; see AVLSpliterator
+    @Override
+    public Spliterator<T> spliterator() {
+        return new AVLSpliterator<>(root);
+    }
+
+    @Override
+    public Iterator<T> descendingIterator() {
+        return new AVLInOrderIterator<>(root, true);
+    }
+
+    @Override
+    public Iterator<T> iteratorFrom(T key) {
+        return new AVLRangeIterator<>(root, key, true, null, false);
+    }
+
+    // Range views are evaluated lazily, so they always reflect the current tree
+    @Override
+    public Iterable<T> range(T lo, boolean loInclusive, T hi, boolean hiInclusive) {
+        return () -> new AVLRangeIterator<>(root, lo, loInclusive, hi, hiInclusive);
+    }
+
+    @Override
+    public Iterable<T> tailFrom(T lo, boolean inclusive) {
+        return () -> new AVLRangeIterator<>(root, lo, inclusive, null, false);
+    }
+
+    @Override
+    public Iterable<T> headUntil(T hi, boolean inclusive) {
+        return () -> new AVLRangeIterator<>(root, null, false, hi, inclusive);
+    }
+
     @Override
     public T[] toArrayInorder(T[] arr) {
         fillInorder(root, arr, new int[]{0});
@@ -235,28 +537,31 @@ public class AVLTree<T extends Comparable<T>> implements AVLInterface<T>{
     private static class AvlCheck {
         final boolean ok;
         final int height;
-        AvlCheck(boolean ok, int height){ this.ok = ok; this.height = height; }
+        final int size;
+        AvlCheck(boolean ok, int height, int size){ this.ok = ok; this.height = height; this.size = size; }
     }
 
     private AvlCheck checkAVL(AVLNode<T> n){
-        if (n == null) return new AvlCheck(true, 0);
+        if (n == null) return new AvlCheck(true, 0, 0);
 
         AvlCheck L = checkAVL(n.getLeft());
         AvlCheck R = checkAVL(n.getRight());
-        if (!L.ok || !R.ok) return new AvlCheck(false, 0);
+        if (!L.ok || !R.ok) return new AvlCheck(false, 0, 0);
 
         // BST ordering relative to children
         boolean orderedLeft  = (n.getLeft()  == null) || (n.getLeft().getKey().compareTo(n.getKey())  < 0);
         boolean orderedRight = (n.getRight() == null) || (n.getRight().getKey().compareTo(n.getKey()) > 0);
-        if (!orderedLeft || !orderedRight) return new AvlCheck(false, 0);
+        if (!orderedLeft || !orderedRight) return new AvlCheck(false, 0, 0);
 
         int h = Math.max(L.height, R.height) + 1;
+        int sz = L.size + R.size + 1;
         boolean balanced = Math.abs(L.height - R.height) <= 1;
 
-        // also check stored height equals computed height
+        // also check stored height and subtree size equal computed values
         boolean heightMatches = (n.getHeight() == h);
+        boolean sizeMatches = (n.getSize() == sz);
 
-        return new AvlCheck(balanced && heightMatches, h);
+        return new AvlCheck(balanced && heightMatches && sizeMatches, h, sz);
     }
     
 }
\ No newline at end of file
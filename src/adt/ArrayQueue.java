@@ -0,0 +1,261 @@
+package adt;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Growable circular-array queue. Entries sit in one contiguous buffer, so
+ * enqueue/dequeue allocate nothing (apart from the occasional doubling) and
+ * removal by predicate is done in place by shifting, not by rebuilding.
+ *
+ * @author Group 3
+ */
+public class ArrayQueue<T> implements QueueInterface<T> {
+    private static final int DEFAULT_CAPACITY = 16; // always a power of two
+
+    private T[] elements;
+    private int head;
+    private int size;
+
+    public ArrayQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    @SuppressWarnings("unchecked")
+    public ArrayQueue(int initialCapacity) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity < initialCapacity) {
+            capacity <<= 1;
+        }
+        elements = (T[]) new Object[capacity];
+    }
+
+    // physical slot of logical position i
+    private int slot(int i) {
+        return (head + i) & (elements.length - 1);
+    }
+
+    @Override
+    public void enqueue(T newEntry) {
+        if (size == elements.length) {
+            grow();
+        }
+        elements[slot(size)] = newEntry;
+        size++;
+    }
+
+    @Override
+    public T dequeue() {
+        if (isEmpty()) {
+            throw new IllegalStateException("Queue is empty.");
+        }
+        T frontData = elements[head];
+        elements[head] = null;
+        head = (head + 1) & (elements.length - 1);
+        size--;
+        return frontData;
+    }
+
+    @Override
+    public T getFront() {
+        if (isEmpty()) {
+            throw new IllegalStateException("Queue is empty.");
+        }
+        return elements[head];
+    }
+
+    public T peek() {
+        return isEmpty() ? null : elements[head];
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            elements[slot(i)] = null;
+        }
+        head = 0;
+        size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return elements[slot(index)];
+    }
+
+    @Override
+    public T removeFirstMatch(Predicate<? super T> filter) {
+        for (int i = 0; i < size; i++) {
+            T item = elements[slot(i)];
+            if (filter.test(item)) {
+                removeAt(i);
+                return item;
+            }
+        }
+        return null;
+    }
+
+    // Single compaction pass: survivors slide forward over removed entries
+    @Override
+    public int removeIf(Predicate<? super T> filter) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            T item = elements[slot(i)];
+            if (!filter.test(item)) {
+                elements[slot(kept++)] = item;
+            }
+        }
+
+        int removed = size - kept;
+        for (int i = kept; i < size; i++) {
+            elements[slot(i)] = null;
+        }
+        size = kept;
+        return removed;
+    }
+
+    @Override
+    public void replaceAll(UnaryOperator<T> operator) {
+        for (int i = 0; i < size; i++) {
+            int s = slot(i);
+            elements[s] = operator.apply(elements[s]);
+        }
+    }
+
+    // Shifts whichever side of index is shorter
+    private void removeAt(int index) {
+        if (index < size / 2) {
+            for (int i = index; i > 0; i--) {
+                elements[slot(i)] = elements[slot(i - 1)];
+            }
+            elements[head] = null;
+            head = (head + 1) & (elements.length - 1);
+        } else {
+            for (int i = index; i < size - 1; i++) {
+                elements[slot(i)] = elements[slot(i + 1)];
+            }
+            elements[slot(size - 1)] = null;
+        }
+        size--;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void grow() {
+        T[] bigger = (T[]) new Object[elements.length << 1];
+        for (int i = 0; i < size; i++) {
+            bigger[i] = elements[slot(i)];
+        }
+        elements = bigger;
+        head = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T[] toArray(T[] a) {
+        if (a.length < size) {
+            a = (T[]) java.lang.reflect.Array.newInstance(a.getClass().getComponentType(), size);
+        }
+        for (int i = 0; i < size; i++) {
+            a[i] = elements[slot(i)];
+        }
+        if (a.length > size) {
+            a[size] = null;
+        }
+        return a;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return getIterator();
+    }
+
+    @Override
+    public QueueIterator<T> getIterator() {
+        return new ArrayQueueIterator();
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return new ArrayQueueSpliterator(0, size);
+    }
+
+    // Splits the logical range in half, like an array spliterator over the ring
+    private class ArrayQueueSpliterator implements Spliterator<T> {
+        private int index;
+        private final int fence;
+
+        ArrayQueueSpliterator(int index, int fence) {
+            this.index = index;
+            this.fence = fence;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (index >= fence) return false;
+            action.accept(elements[slot(index++)]);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            while (index < fence) {
+                action.accept(elements[slot(index++)]);
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            int mid = (index + fence) >>> 1;
+            if (mid <= index) return null;
+            ArrayQueueSpliterator prefix = new ArrayQueueSpliterator(index, mid);
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED;
+        }
+    }
+
+    private class ArrayQueueIterator implements QueueIterator<T> {
+        private int index;
+
+        @Override
+        public boolean hasNext() {
+            return index < size;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new IllegalStateException("No more elements.");
+            }
+            return elements[slot(index++)];
+        }
+
+        @Override
+        public T getNext() {
+            return next();
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package adt;
+
+import java.util.Iterator;
+import java.util.function.BiConsumer;
+
+/**
+ * Hash map with open addressing (linear probing) over parallel key/value
+ * arrays, so there are no per-entry node objects.
+ *
+ * Growing is incremental: when the table fills up a larger one is allocated
+ * and the old one is kept, read-only. New entries always go to the new
+ * table, and every write moves a few old slots across, so no single put pays
+ * for rehashing the whole map. Lookups check both tables until the old one
+ * is drained. Slots leaving the old table become tombstones so the probe
+ * chains that are still in it stay intact.
+ *
+ * Keys and values may not be null. Not thread-safe.
+ *
+ * @author Group 3
+ */
+public class HashMapADT<K, V> {
+    private static final int DEFAULT_CAPACITY = 16;   // always a power of two
+    private static final int MIGRATE_PER_WRITE = 8;   // old slots moved per write
+    private static final Object TOMBSTONE = new Object();
+
+    // live table
+    private Object[] keys;
+    private Object[] vals;
+    private int used;          // live entries + tombstones in the live table
+
+    // table being drained (null when no resize is in progress)
+    private Object[] oldKeys;
+    private Object[] oldVals;
+    private int migrateCursor;
+
+    private int size;
+
+    public HashMapADT() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public HashMapADT(int expectedSize) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity * 3 / 4 < expectedSize) {
+            capacity <<= 1;
+        }
+        keys = new Object[capacity];
+        vals = new Object[capacity];
+    }
+
+    /* ---------- Lookup ---------- */
+
+    public V get(K key) {
+        checkKey(key);
+        int i = indexOf(keys, key);
+        if (i >= 0) {
+            return value(vals[i]);
+        }
+        if (oldKeys != null) {
+            i = indexOf(oldKeys, key);
+            if (i >= 0) {
+                return value(oldVals[i]);
+            }
+        }
+        return null;
+    }
+
+    public boolean containsKey(K key) {
+        return get(key) != null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /* ---------- Update ---------- */
+
+    // Returns the previous value, or null if the key was new
+    public V put(K key, V value) {
+        return put(key, value, true);
+    }
+
+    // Returns the value already mapped (and leaves it), or null if value was added
+    public V putIfAbsent(K key, V value) {
+        return put(key, value, false);
+    }
+
+    private V put(K key, V value, boolean replace) {
+        checkKey(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Value must not be null.");
+        }
+        migrateSome();
+
+        int i = indexOf(keys, key);
+        if (i >= 0) {
+            V old = value(vals[i]);
+            if (replace) {
+                vals[i] = value;
+            }
+            return old;
+        }
+
+        // still sitting in the old table: move it over as part of this write
+        V old = null;
+        if (oldKeys != null) {
+            int j = indexOf(oldKeys, key);
+            if (j >= 0) {
+                old = value(oldVals[j]);
+                oldKeys[j] = TOMBSTONE;
+                oldVals[j] = null;
+                size--;
+                if (!replace) {
+                    value = old;
+                }
+            }
+        }
+
+        if ((used + 1) * 4 > keys.length * 3) {
+            startResize();
+        }
+        insertNew(key, value);
+        size++;
+        return old;
+    }
+
+    // Returns the removed value, or null if the key was not present
+    public V remove(K key) {
+        checkKey(key);
+        migrateSome();
+
+        int i = indexOf(keys, key);
+        if (i >= 0) {
+            V old = value(vals[i]);
+            keys[i] = TOMBSTONE;
+            vals[i] = null;
+            size--;
+            return old;
+        }
+        if (oldKeys != null) {
+            i = indexOf(oldKeys, key);
+            if (i >= 0) {
+                V old = value(oldVals[i]);
+                oldKeys[i] = TOMBSTONE;
+                oldVals[i] = null;
+                size--;
+                return old;
+            }
+        }
+        return null;
+    }
+
+    // Sizes the table for expectedSize entries in one rehash, so a bulk load
+    // does no incremental resizing along the way
+    public void ensureCapacity(int expectedSize) {
+        int capacity = keys.length;
+        while (capacity * 3 / 4 < expectedSize) {
+            capacity <<= 1;
+        }
+        if (capacity == keys.length) {
+            return;
+        }
+        while (oldKeys != null) {
+            migrateSome();
+        }
+        Object[] ks = keys;
+        Object[] vs = vals;
+        keys = new Object[capacity];
+        vals = new Object[capacity];
+        used = 0;
+        for (int i = 0; i < ks.length; i++) {
+            if (ks[i] != null && ks[i] != TOMBSTONE) {
+                insertNew(ks[i], vs[i]);
+            }
+        }
+    }
+
+    public void clear() {
+        keys = new Object[DEFAULT_CAPACITY];
+        vals = new Object[DEFAULT_CAPACITY];
+        oldKeys = null;
+        oldVals = null;
+        used = 0;
+        size = 0;
+    }
+
+    /* ---------- Iteration ---------- */
+
+    // Visits every entry once, in no particular order. Do not modify the map meanwhile.
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        if (oldKeys != null) {
+            forEachIn(oldKeys, oldVals, action);
+        }
+        forEachIn(keys, vals, action);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void forEachIn(Object[] ks, Object[] vs, BiConsumer<? super K, ? super V> action) {
+        for (int i = 0; i < ks.length; i++) {
+            Object k = ks[i];
+            if (k != null && k != TOMBSTONE) {
+                action.accept((K) k, (V) vs[i]);
+            }
+        }
+    }
+
+    public Iterable<K> keys() {
+        return () -> new SlotIterator<>(true);
+    }
+
+    public Iterable<V> values() {
+        return () -> new SlotIterator<>(false);
+    }
+
+    // Walks the old table (if any) and then the live one, reading straight from the arrays
+    private class SlotIterator<E> implements Iterator<E> {
+        private final boolean wantKeys;
+        private Object[] ks;
+        private Object[] vs;
+        private boolean onOld;
+        private int index = -1;
+
+        SlotIterator(boolean wantKeys) {
+            this.wantKeys = wantKeys;
+            onOld = oldKeys != null;
+            ks = onOld ? oldKeys : keys;
+            vs = onOld ? oldVals : vals;
+            advance();
+        }
+
+        private void advance() {
+            while (true) {
+                index++;
+                while (index < ks.length && (ks[index] == null || ks[index] == TOMBSTONE)) {
+                    index++;
+                }
+                if (index < ks.length || !onOld) {
+                    return;
+                }
+                onOld = false;
+                ks = keys;
+                vs = vals;
+                index = -1;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < ks.length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (!hasNext()) {
+                throw new IllegalStateException("No more elements.");
+            }
+            E e = (E) (wantKeys ? ks[index] : vs[index]);
+            advance();
+            return e;
+        }
+    }
+
+    /* ---------- Table Helpers ---------- */
+
+    // Full avalanche (murmur3 finalizer): IDs that differ only in the last digit
+    // have neighbouring hashCodes, which linear probing would pile into one cluster
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        return h ^ (h >>> 16);
+    }
+
+    // Slot holding key in table ks, or -1
+    private static int indexOf(Object[] ks, Object key) {
+        int mask = ks.length - 1;
+        int i = hash(key) & mask;
+        while (true) {
+            Object k = ks[i];
+            if (k == null) {
+                return -1;
+            }
+            if (k != TOMBSTONE && k.equals(key)) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    // Caller has checked the key is absent from both tables; reuses the first tombstone on the chain
+    private void insertNew(Object key, Object value) {
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (keys[i] != null && keys[i] != TOMBSTONE) {
+            i = (i + 1) & mask;
+        }
+        if (keys[i] == null) {
+            used++;
+        }
+        keys[i] = key;
+        vals[i] = value;
+    }
+
+    private void startResize() {
+        // a previous resize that has not finished yet is completed first
+        while (oldKeys != null) {
+            migrateSome();
+        }
+
+        // mostly tombstones: rebuild at the same size, otherwise double
+        int live = size;
+        int capacity = keys.length;
+        if ((live + 1) * 2 > capacity) {
+            capacity <<= 1;
+        }
+
+        oldKeys = keys;
+        oldVals = vals;
+        migrateCursor = 0;
+        keys = new Object[capacity];
+        vals = new Object[capacity];
+        used = 0;
+    }
+
+    private void migrateSome() {
+        if (oldKeys == null) {
+            return;
+        }
+        int end = Math.min(migrateCursor + MIGRATE_PER_WRITE, oldKeys.length);
+        for (int i = migrateCursor; i < end; i++) {
+            Object k = oldKeys[i];
+            if (k != null && k != TOMBSTONE) {
+                insertNew(k, oldVals[i]);
+                oldKeys[i] = TOMBSTONE;
+                oldVals[i] = null;
+            }
+        }
+        migrateCursor = end;
+        if (migrateCursor == oldKeys.length) {
+            oldKeys = null;
+            oldVals = null;
+        }
+    }
+
+    private static void checkKey(Object key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key must not be null.");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private V value(Object v) {
+        return (V) v;
+    }
+}
@@ -0,0 +1,346 @@
+package adt;
+
+import java.util.Comparator;
+import java.util.Iterator;
+
+/**
+ * Binary min-heap with a position map, so an entry can be looked up, removed
+ * or re-sifted by its key in O(log n) instead of scanning the whole queue.
+ * The map is an AVL tree of the heap slots ordered by key; each slot keeps
+ * its current heap index up to date as it moves.
+ *
+ * @author Group 3
+ */
+public class IndexedPriorityQueue<K extends Comparable<K>, T> implements Iterable<T> {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final Comparator<? super T> priority;
+    private final AVLTree<Slot<K, T>> positions = new AVLTree<>();
+    private Slot<K, T>[] heap;
+    private int size;
+
+    public IndexedPriorityQueue(Comparator<? super T> priority) {
+        this(priority, DEFAULT_CAPACITY);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public IndexedPriorityQueue(Comparator<? super T> priority, int initialCapacity) {
+        if (priority == null) {
+            throw new IllegalArgumentException("Priority comparator is required.");
+        }
+        this.priority = priority;
+        this.heap = (Slot<K, T>[]) new Slot[Math.max(initialCapacity, 1)];
+    }
+
+    /* ---------- Slot ---------- */
+
+    private static final class Slot<K extends Comparable<K>, T> implements Comparable<Slot<K, T>> {
+        final K key;
+        T item;
+        int pos;
+
+        Slot(K key, T item) {
+            this.key = key;
+            this.item = item;
+        }
+
+        @Override
+        public int compareTo(Slot<K, T> other) {
+            return key.compareTo(other.key);
+        }
+    }
+
+    private Slot<K, T> slotOf(K key) {
+        return key == null ? null : positions.find(new Slot<>(key, null));
+    }
+
+    /* ---------- Queue Operations ---------- */
+
+    // Returns false (and leaves the queue unchanged) if the key is already queued
+    public boolean enqueue(K key, T item) {
+        if (key == null || item == null) {
+            throw new IllegalArgumentException("Key and item must not be null.");
+        }
+        Slot<K, T> slot = new Slot<>(key, item);
+        if (positions.putIfAbsent(slot) != null) {
+            return false;
+        }
+        if (size == heap.length) {
+            grow();
+        }
+        place(slot, size);
+        size++;
+        siftUp(slot.pos);
+        return true;
+    }
+
+    public T dequeue() {
+        if (isEmpty()) {
+            throw new IllegalStateException("Queue is empty.");
+        }
+        Slot<K, T> top = heap[0];
+        removeAt(0);
+        return top.item;
+    }
+
+    public T peek() {
+        return isEmpty() ? null : heap[0].item;
+    }
+
+    // Removes the entry for key; returns its item, or null if not queued
+    public T remove(K key) {
+        Slot<K, T> slot = slotOf(key);
+        if (slot == null) {
+            return null;
+        }
+        removeAt(slot.pos);
+        return slot.item;
+    }
+
+    // Restores heap order after the queued item's priority has changed in place
+    public boolean reprioritize(K key) {
+        Slot<K, T> slot = slotOf(key);
+        if (slot == null) {
+            return false;
+        }
+        resift(slot.pos);
+        return true;
+    }
+
+    // Swaps in a new item for key and moves it to its new place
+    public T replace(K key, T item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Item must not be null.");
+        }
+        Slot<K, T> slot = slotOf(key);
+        if (slot == null) {
+            return null;
+        }
+        T old = slot.item;
+        slot.item = item;
+        resift(slot.pos);
+        return old;
+    }
+
+    public T get(K key) {
+        Slot<K, T> slot = slotOf(key);
+        return slot == null ? null : slot.item;
+    }
+
+    public boolean containsKey(K key) {
+        return slotOf(key) != null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            heap[i] = null;
+        }
+        size = 0;
+        positions.clear();
+    }
+
+    // 1-based position key would be served at, or -1 if not queued. O(n)
+    public int positionOf(K key) {
+        Slot<K, T> slot = slotOf(key);
+        if (slot == null) {
+            return -1;
+        }
+        // count everything that would be dequeued before it
+        int ahead = 0;
+        for (int i = 0; i < size; i++) {
+            if (heap[i] != slot && before(heap[i], slot)) {
+                ahead++;
+            }
+        }
+        return ahead + 1;
+    }
+
+    // Items in the order they would be dequeued; fills a if it is large enough
+    public T[] toArrayInPriorityOrder(T[] a) {
+        return firstN(size, a);
+    }
+
+    // The first n items in dequeue order without disturbing the queue. O(n + k log n)
+    @SuppressWarnings("unchecked")
+    public T[] firstN(int n, T[] a) {
+        int k = Math.max(0, Math.min(n, size));
+        T[] result = a.length >= k ? a
+                : (T[]) java.lang.reflect.Array.newInstance(a.getClass().getComponentType(), k);
+
+        // small side heap of heap indexes, seeded with the root
+        int[] frontier = new int[k + 1];
+        int count = 0;
+        if (k > 0) {
+            frontier[count++] = 0;
+        }
+        for (int out = 0; out < k; out++) {
+            int best = frontier[0];
+            result[out] = heap[best].item;
+            frontier[0] = frontier[--count];
+            siftDownIndexes(frontier, count, 0);
+
+            int left = 2 * best + 1;
+            for (int child = left; child <= left + 1 && child < size; child++) {
+                frontier[count] = child;
+                siftUpIndexes(frontier, count++);
+            }
+        }
+        if (result.length > k) {
+            result[k] = null;
+        }
+        return result;
+    }
+
+    /* ---------- Heap Helpers ---------- */
+
+    // Priority first, then key, so equal priorities are served in a stable order
+    private boolean before(Slot<K, T> a, Slot<K, T> b) {
+        int c = priority.compare(a.item, b.item);
+        return c < 0 || (c == 0 && a.key.compareTo(b.key) < 0);
+    }
+
+    private void place(Slot<K, T> slot, int i) {
+        heap[i] = slot;
+        slot.pos = i;
+    }
+
+    private void removeAt(int i) {
+        Slot<K, T> gone = heap[i];
+        positions.delete(gone);
+        size--;
+        if (i != size) {
+            place(heap[size], i);
+            heap[size] = null;
+            resift(i);
+        } else {
+            heap[size] = null;
+        }
+    }
+
+    private void resift(int i) {
+        if (i > 0 && before(heap[i], heap[(i - 1) / 2])) {
+            siftUp(i);
+        } else {
+            siftDown(i);
+        }
+    }
+
+    private void siftUp(int i) {
+        Slot<K, T> moving = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (!before(moving, heap[parent])) {
+                break;
+            }
+            place(heap[parent], i);
+            i = parent;
+        }
+        place(moving, i);
+    }
+
+    private void siftDown(int i) {
+        Slot<K, T> moving = heap[i];
+        int half = size / 2;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && before(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!before(heap[child], moving)) {
+                break;
+            }
+            place(heap[child], i);
+            i = child;
+        }
+        place(moving, i);
+    }
+
+    private void siftUpIndexes(int[] h, int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (!before(heap[h[i]], heap[h[parent]])) {
+                break;
+            }
+            int t = h[i]; h[i] = h[parent]; h[parent] = t;
+            i = parent;
+        }
+    }
+
+    private void siftDownIndexes(int[] h, int n, int i) {
+        while (2 * i + 1 < n) {
+            int child = 2 * i + 1;
+            if (child + 1 < n && before(heap[h[child + 1]], heap[h[child]])) {
+                child++;
+            }
+            if (!before(heap[h[child]], heap[h[i]])) {
+                break;
+            }
+            int t = h[i]; h[i] = h[child]; h[child] = t;
+            i = child;
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void grow() {
+        Slot<K, T>[] bigger = (Slot<K, T>[]) new Slot[heap.length * 2];
+        System.arraycopy(heap, 0, bigger, 0, size);
+        heap = bigger;
+    }
+
+    /* ---------- Iteration ---------- */
+
+    // Heap order, not dequeue order; use toArrayInPriorityOrder when order matters
+    @Override
+    public Iterator<T> iterator() {
+        return getIterator();
+    }
+
+    public QueueIterator<T> getIterator() {
+        return new QueueIterator<T>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public T next() {
+                return getNext();
+            }
+
+            @Override
+            public T getNext() {
+                if (!hasNext()) {
+                    throw new IllegalStateException("No more elements.");
+                }
+                return heap[next++].item;
+            }
+        };
+    }
+
+    /* ---------- Debug ---------- */
+
+    public boolean isValidHeap() {
+        if (positions.size() != size) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (heap[i].pos != i || positions.find(heap[i]) != heap[i]) {
+                return false;
+            }
+            if (i > 0 && before(heap[i], heap[(i - 1) / 2])) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
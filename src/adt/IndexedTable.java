@@ -0,0 +1,1382 @@
+package adt;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * A set of rows with one primary key and any number of declared secondary
+ * indexes, kept in step by the table instead of by hand.
+ *
+ *  - primary key and unique indexes are HashMapADTs (exact match, O(1)); a
+ *    table made with longKeyed() keeps its rows in a LongHashMap instead, so
+ *    there is no key object per row and lookups hash a primitive
+ *  - ordered indexes are KeyedAVLTrees; duplicate keys are allowed and are
+ *    ordered by primary key
+ *  - long indexes hold a primitive key per row (e.g. an IDCodec key) in a
+ *    LongHashMap or LongAVLMap; keys must be unique and a negative key means
+ *    the row is not indexed
+ *  - trigram indexes file each row under the three-letter pieces of a text
+ *    key, for typo-tolerant search ranked by how many pieces match
+ *  - versioned indexes keep an immutable entry per row in a
+ *    PersistentAVLTree, so snapshot() is O(1) and later writes never show
+ *    through it
+ *
+ * insert/update check every uniqueness constraint before touching any index,
+ * so a rejected row leaves the table exactly as it was; if a key extractor or
+ * comparator throws half way through, the indexes already changed are put
+ * back. Each index's add/replace is all-or-nothing, so the one that threw
+ * has nothing to undo. update only touches the indexes whose key actually changed (the
+ * others just swap the row reference in place).
+ *
+ * Rows are treated as values: to change an indexed field, pass a new object
+ * to update() rather than mutating the stored one, or the old keys are lost.
+ *
+ * The table can be shared between terminals. Writes take a StampedLock's
+ * write lock; ordered reads share its read lock, so readers never wait for
+ * each other. Exact-match lookups (primary key, unique and long unique
+ * indexes) first read without locking and only take the read lock if a
+ * writer got in between. The iterators work on a copy taken under the lock.
+ *
+ * @author Group 3
+ */
+public class IndexedTable<K extends Comparable<? super K>, E> {
+    private final RowStore rows;
+    private final StampedLock lock = new StampedLock();
+    private SecondaryIndex[] indexes = newIndexes(0);
+
+    public IndexedTable(Function<? super E, ? extends K> primaryKey) {
+        if (primaryKey == null) {
+            throw new IllegalArgumentException("Primary key extractor is required.");
+        }
+        this.rows = new ObjectKeys(primaryKey);
+    }
+
+    private IndexedTable(ToLongFunction<? super E> primaryKey) {
+        if (primaryKey == null) {
+            throw new IllegalArgumentException("Primary key extractor is required.");
+        }
+        this.rows = new LongKeys(primaryKey);
+    }
+
+    // Table keyed by a primitive key (e.g. an IDCodec key); look rows up with
+    // get(long) and remove(long). A row whose key is negative is rejected.
+    public static <E> IndexedTable<Long, E> longKeyed(ToLongFunction<? super E> primaryKey) {
+        return new IndexedTable<>(primaryKey);
+    }
+
+    /* ---------- Declaring Indexes ---------- */
+
+    // Exact-match index whose keys must be unique; rows with a null key are not indexed
+    public <S> UniqueIndex<S> addUniqueIndex(Function<? super E, ? extends S> key) {
+        long stamp = lock.writeLock();
+        try {
+            return register(new UniqueIndex<>(key));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Ordered index; rows sharing a key are kept in primary-key order
+    public <S> OrderedIndex<S> addOrderedIndex(Function<? super E, ? extends S> key,
+                                               Comparator<? super S> order) {
+        long stamp = lock.writeLock();
+        try {
+            return register(new OrderedIndex<>(key, order));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Unique primitive-key index for exact match
+    public LongUniqueIndex addLongUniqueIndex(ToLongFunction<? super E> key) {
+        long stamp = lock.writeLock();
+        try {
+            return register(new LongUniqueIndex(key));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Unique primitive-key index kept in key order, with rank/select
+    public LongOrderedIndex addLongOrderedIndex(ToLongFunction<? super E> key) {
+        long stamp = lock.writeLock();
+        try {
+            return register(new LongOrderedIndex(key));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Persistent index of one immutable entry per row (entries must compare by
+    // primary key); a row's entry is rebuilt on every update, so it can carry
+    // fields such as a status that change while the primary key does not
+    public <S extends Comparable<S>> VersionedIndex<S> addVersionedIndex(Function<? super E, ? extends S> entry) {
+        long stamp = lock.writeLock();
+        try {
+            return register(new VersionedIndex<>(entry));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Fuzzy text index; it is built from the table on its first search, so
+    // declaring one costs nothing at load time
+    public TrigramIndex addTrigramIndex(Function<? super E, String> text) {
+        long stamp = lock.writeLock();
+        try {
+            return register(new TrigramIndex(text));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private <I extends SecondaryIndex> I register(I index) {
+        if (!rows.isEmpty()) {
+            throw new IllegalStateException("Indexes must be declared before rows are added.");
+        }
+        SecondaryIndex[] grown = newIndexes(indexes.length + 1);
+        System.arraycopy(indexes, 0, grown, 0, indexes.length);
+        grown[indexes.length] = index;
+        indexes = grown;
+        return index;
+    }
+
+    // No generic array creation in Java; the element type is the same class either way
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private SecondaryIndex[] newIndexes(int n) {
+        return (SecondaryIndex[]) new IndexedTable.SecondaryIndex[n];
+    }
+
+    /* ---------- Row Operations ---------- */
+
+    // Returns false (and changes nothing) if the primary key or a unique key is taken
+    public boolean insert(E row) {
+        long stamp = lock.writeLock();
+        try {
+            if (!rows.accepts(row) || rows.find(row) != null || !uniqueKeysFree(row, null)) {
+                return false;
+            }
+
+            rows.put(row);
+            int applied = 0;
+            try {
+                for (; applied < indexes.length; applied++) {
+                    indexes[applied].add(row);
+                }
+            } catch (RuntimeException e) {
+                // undo whatever got in before the failure
+                for (int i = 0; i < applied; i++) {
+                    indexes[i].remove(row);
+                }
+                rows.delete(row);
+                throw e;
+            }
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Bulk load: rows are checked one by one as insert() would, then each index
+    // that can take the batch whole (ordered indexes, or a long index that gets
+    // its keys in order) is built or merged in one pass at the end.
+    // Returns how many rows were added. If an index throws, none of the batch stays.
+    @SuppressWarnings("unchecked")
+    public int insertAll(E[] batch) {
+        long stamp = lock.writeLock();
+        try {
+            rows.ensureCapacity(rows.size() + batch.length);
+            boolean[] bulk = new boolean[indexes.length];
+            for (int i = 0; i < indexes.length; i++) {
+                indexes[i].ensureCapacity(batch.length);
+                bulk[i] = indexes[i].bulkLoads(batch);
+            }
+
+            E[] accepted = (E[]) new Object[batch.length];
+            int n = 0;
+            int applied = 0; // indexes the newest accepted row got in the per-row pass
+            int loaded = 0;  // bulk indexes before this one have the whole batch
+
+            try {
+                for (E row : batch) {
+                    if (!rows.accepts(row) || rows.find(row) != null || !uniqueKeysFree(row, null)) {
+                        continue;
+                    }
+                    rows.put(row);
+                    accepted[n++] = row;
+                    for (applied = 0; applied < indexes.length; applied++) {
+                        if (!bulk[applied]) indexes[applied].add(row);
+                    }
+                }
+
+                E[] added = (E[]) new Object[n];
+                System.arraycopy(accepted, 0, added, 0, n);
+                for (; loaded < indexes.length; loaded++) {
+                    if (bulk[loaded]) indexes[loaded].addAll(added);
+                }
+                return n;
+            } catch (RuntimeException e) {
+                // undo the whole batch, as insert() does for one row; the add or
+                // addAll that threw changed nothing, so only what came before it is undone
+                for (int r = 0; r < n; r++) {
+                    for (int i = 0; i < indexes.length; i++) {
+                        boolean got = bulk[i] ? i < loaded : r < n - 1 || i < applied;
+                        if (got) indexes[i].remove(accepted[r]);
+                    }
+                    rows.delete(accepted[r]);
+                }
+                throw e;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Replaces the row with the same primary key. Returns false (and changes nothing)
+    // if there is no such row or a changed unique key is already taken.
+    public boolean update(E row) {
+        long stamp = lock.writeLock();
+        try {
+            E old = rows.find(row);
+            if (old == null || !uniqueKeysFree(row, old)) {
+                return false;
+            }
+
+            int applied = 0;
+            try {
+                for (; applied < indexes.length; applied++) {
+                    indexes[applied].replace(old, row);
+                }
+            } catch (RuntimeException e) {
+                for (int i = 0; i < applied; i++) {
+                    indexes[i].replace(row, old);
+                }
+                throw e;
+            }
+            rows.put(row);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Removes and returns the row with this primary key, or null
+    public E remove(K key) {
+        long stamp = lock.writeLock();
+        try {
+            return key == null ? null : removeIndexed(rows.remove(key));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // remove() without boxing, for a longKeyed() table (a negative key finds nothing)
+    public E remove(long key) {
+        long stamp = lock.writeLock();
+        try {
+            return removeIndexed(rows.remove(key));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private E removeIndexed(E row) {
+        if (row != null) {
+            for (SecondaryIndex index : indexes) {
+                index.remove(row);
+            }
+        }
+        return row;
+    }
+
+    public E get(K key) {
+        return key == null ? null : optimisticRead(() -> rows.get(key));
+    }
+
+    // get() without boxing, for a longKeyed() table (a negative key finds nothing)
+    public E get(long key) {
+        return optimisticRead(() -> rows.get(key));
+    }
+
+    public boolean containsKey(K key) {
+        return get(key) != null;
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return rows.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public boolean isEmpty() {
+        long stamp = lock.readLock();
+        try {
+            return rows.isEmpty();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            rows.clear();
+            for (SecondaryIndex index : indexes) {
+                index.clear();
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /* ---------- Helpers ---------- */
+
+    // Runs an exact-match lookup without locking, then checks no write started
+    // meanwhile. If one did (or the lookup tripped over a half-done write and
+    // threw), it runs again under the read lock.
+    private <T> T optimisticRead(Supplier<T> lookup) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                T found = lookup.get();
+                if (lock.validate(stamp)) {
+                    return found;
+                }
+            } catch (RuntimeException e) {
+                // torn read; retried under the lock below
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return lookup.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /* ---------- Primary Key ---------- */
+
+    // Where the rows live, by primary key. Methods taking a row use that row's key.
+    private abstract class RowStore {
+        abstract boolean accepts(E row);  // false if the row's key cannot be stored
+        abstract E find(E row);           // the stored row with this row's key, or null
+        abstract void put(E row);
+        abstract void delete(E row);
+        abstract E get(K key);
+        abstract E remove(K key);
+        abstract int compare(E a, E b);   // primary-key order
+        abstract Object keyObject(E row); // for short-lived maps keyed by row
+        abstract int size();
+        abstract void ensureCapacity(int expectedSize);
+        abstract void clear();
+        abstract void forEach(Consumer<? super E> action);
+        abstract E get(long key);
+        abstract E remove(long key);
+
+        boolean isEmpty() {
+            return size() == 0;
+        }
+    }
+
+    private final class ObjectKeys extends RowStore {
+        private final Function<? super E, ? extends K> primaryKey;
+        private final HashMapADT<K, E> map = new HashMapADT<>();
+
+        ObjectKeys(Function<? super E, ? extends K> primaryKey) {
+            this.primaryKey = primaryKey;
+        }
+
+        private K keyOf(E row) {
+            if (row == null) {
+                throw new IllegalArgumentException("Row must not be null.");
+            }
+            K pk = primaryKey.apply(row);
+            if (pk == null) {
+                throw new IllegalArgumentException("Primary key must not be null.");
+            }
+            return pk;
+        }
+
+        @Override
+        boolean accepts(E row) {
+            keyOf(row); // a null row or key is a caller bug, so it still throws
+            return true;
+        }
+
+        @Override
+        E find(E row) {
+            return map.get(keyOf(row));
+        }
+
+        @Override
+        void put(E row) {
+            map.put(keyOf(row), row);
+        }
+
+        @Override
+        void delete(E row) {
+            map.remove(keyOf(row));
+        }
+
+        @Override
+        E get(K key) {
+            return map.get(key);
+        }
+
+        @Override
+        E remove(K key) {
+            return map.remove(key);
+        }
+
+        // A Long key boxed; any other key type simply has no row under it
+        @Override
+        @SuppressWarnings("unchecked")
+        E get(long key) {
+            return map.get((K) Long.valueOf(key));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        E remove(long key) {
+            return map.remove((K) Long.valueOf(key));
+        }
+
+        @Override
+        int compare(E a, E b) {
+            return keyOf(a).compareTo(keyOf(b));
+        }
+
+        @Override
+        Object keyObject(E row) {
+            return keyOf(row);
+        }
+
+        @Override
+        int size() {
+            return map.size();
+        }
+
+        @Override
+        void ensureCapacity(int expectedSize) {
+            map.ensureCapacity(expectedSize);
+        }
+
+        @Override
+        void clear() {
+            map.clear();
+        }
+
+        @Override
+        void forEach(Consumer<? super E> action) {
+            for (E row : map.values()) action.accept(row);
+        }
+    }
+
+    private final class LongKeys extends RowStore {
+        private final ToLongFunction<? super E> primaryKey;
+        private final LongHashMap<E> map = new LongHashMap<>();
+
+        LongKeys(ToLongFunction<? super E> primaryKey) {
+            this.primaryKey = primaryKey;
+        }
+
+        private long keyOf(E row) {
+            if (row == null) {
+                throw new IllegalArgumentException("Row must not be null.");
+            }
+            long pk = primaryKey.applyAsLong(row);
+            if (pk < 0) {
+                throw new IllegalArgumentException("Primary key must not be negative.");
+            }
+            return pk;
+        }
+
+        // A negative key (IDCodec.INVALID) cannot be stored: insert refuses the
+        // row and update finds nothing to replace
+        @Override
+        boolean accepts(E row) {
+            if (row == null) {
+                throw new IllegalArgumentException("Row must not be null.");
+            }
+            return primaryKey.applyAsLong(row) >= 0;
+        }
+
+        @Override
+        E find(E row) {
+            return accepts(row) ? map.get(keyOf(row)) : null;
+        }
+
+        @Override
+        void put(E row) {
+            map.put(keyOf(row), row);
+        }
+
+        @Override
+        void delete(E row) {
+            map.remove(keyOf(row));
+        }
+
+        @Override
+        E get(K key) {
+            return get(((Long) key).longValue());
+        }
+
+        @Override
+        E remove(K key) {
+            return remove(((Long) key).longValue());
+        }
+
+        @Override
+        E get(long key) {
+            return key < 0 ? null : map.get(key);
+        }
+
+        @Override
+        E remove(long key) {
+            return key < 0 ? null : map.remove(key);
+        }
+
+        @Override
+        int compare(E a, E b) {
+            return Long.compare(keyOf(a), keyOf(b));
+        }
+
+        @Override
+        Object keyObject(E row) {
+            return keyOf(row);
+        }
+
+        @Override
+        int size() {
+            return map.size();
+        }
+
+        @Override
+        void ensureCapacity(int expectedSize) {
+            map.ensureCapacity(expectedSize);
+        }
+
+        @Override
+        void clear() {
+            map.clear();
+        }
+
+        @Override
+        void forEach(Consumer<? super E> action) {
+            map.forEach((k, row) -> action.accept(row));
+        }
+    }
+
+    // Every unique key of row is either unused or already belongs to `replacing`
+    private boolean uniqueKeysFree(E row, E replacing) {
+        for (SecondaryIndex index : indexes) {
+            if (!index.accepts(row, replacing)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Copy of the elements so callers can iterate without holding the lock
+    private static <T> Iterator<T> arrayIterator(Object[] items, boolean descending) {
+        return new Iterator<T>() {
+            private int next = descending ? items.length - 1 : 0;
+
+            @Override
+            public boolean hasNext() {
+                return descending ? next >= 0 : next < items.length;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (!hasNext()) {
+                    throw new IllegalStateException("No more elements.");
+                }
+                return (T) items[descending ? next-- : next++];
+            }
+        };
+    }
+
+    /* ---------- Secondary Indexes ---------- */
+
+    // add, addAll and replace either finish or throw before changing anything: keys
+    // are computed first, and a two-step replace restores the old row if its second step fails
+    private abstract class SecondaryIndex {
+        abstract boolean accepts(E row, E replacing);
+        abstract void add(E row);
+
+        // Room for this many more rows, for hash-based indexes
+        void ensureCapacity(int extra) {
+        }
+
+        // True if insertAll should hand this index the accepted rows in one addAll()
+        boolean bulkLoads(E[] batch) {
+            return false;
+        }
+
+        void addAll(E[] batch) {
+            for (E row : batch) add(row);
+        }
+
+        abstract void remove(E row);
+        abstract void replace(E old, E row);
+        abstract void clear();
+    }
+
+    public final class UniqueIndex<S> extends SecondaryIndex {
+        private final Function<? super E, ? extends S> key;
+        private final HashMapADT<S, E> map = new HashMapADT<>();
+
+        private UniqueIndex(Function<? super E, ? extends S> key) {
+            this.key = Objects.requireNonNull(key);
+        }
+
+        @Override
+        void ensureCapacity(int extra) {
+            map.ensureCapacity(map.size() + extra);
+        }
+
+        public E get(S k) {
+            return k == null ? null : optimisticRead(() -> map.get(k));
+        }
+
+        public boolean containsKey(S k) {
+            return get(k) != null;
+        }
+
+        // Sets found[i] for each of the first n keys that is taken. A hash has no
+        // order to walk, so this is one probe per key, under one lock for the batch.
+        public void containsAll(S[] keys, int n, boolean[] found) {
+            long stamp = lock.readLock();
+            try {
+                for (int i = 0; i < n; i++) {
+                    found[i] = keys[i] != null && map.get(keys[i]) != null;
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        @Override
+        boolean accepts(E row, E replacing) {
+            S k = key.apply(row);
+            if (k == null) return true;
+            E holder = map.get(k);
+            return holder == null || holder == replacing;
+        }
+
+        @Override
+        void add(E row) {
+            S k = key.apply(row);
+            if (k != null) map.put(k, row);
+        }
+
+        @Override
+        void remove(E row) {
+            S k = key.apply(row);
+            if (k != null && map.get(k) == row) map.remove(k);
+        }
+
+        @Override
+        void replace(E old, E row) {
+            S oldKey = key.apply(old);
+            S newKey = key.apply(row);
+            if (Objects.equals(oldKey, newKey)) {
+                if (newKey != null) map.put(newKey, row); // same slot, new reference
+                return;
+            }
+            if (oldKey != null && map.get(oldKey) == old) map.remove(oldKey);
+            if (newKey != null) map.put(newKey, row);
+        }
+
+        @Override
+        void clear() {
+            map.clear();
+        }
+    }
+
+    public final class OrderedIndex<S> extends SecondaryIndex {
+        private final Function<? super E, ? extends S> key;
+        private final Comparator<? super S> order;
+        private final KeyedAVLTree<S, E> tree;
+
+        private OrderedIndex(Function<? super E, ? extends S> key, Comparator<? super S> order) {
+            this.key = Objects.requireNonNull(key);
+            this.order = Objects.requireNonNull(order);
+            this.tree = new KeyedAVLTree<>(key, order, rows::compare);
+        }
+
+        // First row (by primary key) with this key, or null
+        public E get(S k) {
+            long stamp = lock.readLock();
+            try {
+                return tree.get(k);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        public int countKey(S k) {
+            long stamp = lock.readLock();
+            try {
+                return tree.countKey(k);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        // Sets found[i] for each of the first n keys (ascending in this index's
+        // order, no repeats) that some row has, in one walk of the tree
+        public void containsAllSorted(S[] keys, int n, boolean[] found) {
+            long stamp = lock.readLock();
+            try {
+                tree.containsAllSorted(keys, n, found);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        public int rankOf(S k) {
+            long stamp = lock.readLock();
+            try {
+                return tree.rankOf(k);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        public E select(int i) {
+            long stamp = lock.readLock();
+            try {
+                return tree.select(i);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        public int size() {
+            long stamp = lock.readLock();
+            try {
+                return tree.size();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        // Rows with exactly this key, in primary-key order
+        public E[] findAll(S k, E[] arr) {
+            long stamp = lock.readLock();
+            try {
+                return copy(tree.equalRange(k), tree.countKey(k), arr);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        // Rows from the first key >= start onward, for as long as their key
+        // passes stillMatches (e.g. a prefix test), at most limit (0 = no limit)
+        public E[] findFrom(S start, Predicate<? super S> stillMatches, int limit, E[] arr) {
+            long stamp = lock.readLock();
+            try {
+                Object[] found = new Object[limit > 0 ? Math.min(limit, 16) : 16];
+                int n = 0;
+                for (E row : tree.range(start, true, null, false)) {
+                    if (!stillMatches.test(key.apply(row))) break;
+                    if (n == found.length) found = java.util.Arrays.copyOf(found, n * 2);
+                    found[n++] = row;
+                    if (n == limit) break;
+                }
+                Object[] hits = java.util.Arrays.copyOf(found, n);
+                return copy(() -> arrayIterator(hits, false), n, arr);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        public Iterable<E> equalRange(S k) {
+            Object[] matches;
+            long stamp = lock.readLock();
+            try {
+                matches = copy(tree.equalRange(k), tree.countKey(k), new Object[tree.countKey(k)]);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+            return () -> arrayIterator(matches, false);
+        }
+
+        public E[] toArray(E[] arr) {
+            long stamp = lock.readLock();
+            try {
+                return copy(tree, tree.size(), arr);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        public Iterator<E> iterator() {
+            return arrayIterator(snapshot(), false);
+        }
+
+        public Iterator<E> descendingIterator() {
+            return arrayIterator(snapshot(), true);
+        }
+
+        private Object[] snapshot() {
+            long stamp = lock.readLock();
+            try {
+                return copy(tree, tree.size(), new Object[tree.size()]);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> T[] copy(Iterable<E> source, int n, T[] arr) {
+            T[] out = arr.length >= n ? arr
+                    : (T[]) java.lang.reflect.Array.newInstance(arr.getClass().getComponentType(), n);
+            int i = 0;
+            for (E row : source) {
+                out[i++] = (T) row;
+            }
+            if (out.length > n) {
+                out[n] = null; // marks the end, as in ArrayQueue.toArray
+            }
+            return out;
+        }
+
+        @Override
+        boolean bulkLoads(E[] batch) {
+            return true;
+        }
+
+        @Override
+        void addAll(E[] batch) {
+            // small batches go into the tree one at a time, so a key that throws
+            // must do it here, before the first one lands
+            for (E row : batch) {
+                key.apply(row);
+            }
+            tree.insertAll(batch);
+        }
+
+        @Override
+        boolean accepts(E row, E replacing) {
+            return true; // duplicates allowed
+        }
+
+        @Override
+        void add(E row) {
+            tree.insert(row);
+        }
+
+        @Override
+        void remove(E row) {
+            tree.delete(row);
+        }
+
+        @Override
+        void replace(E old, E row) {
+            if (order.compare(key.apply(old), key.apply(row)) == 0) {
+                tree.upsert(row); // same position, new reference
+                return;
+            }
+            tree.delete(old);
+            try {
+                tree.insert(row);
+            } catch (RuntimeException e) {
+                tree.insert(old); // its key compared fine a moment ago
+                throw e;
+            }
+        }
+
+        @Override
+        void clear() {
+            tree.clear();
+        }
+    }
+
+    public final class LongUniqueIndex extends SecondaryIndex {
+        private final ToLongFunction<? super E> key;
+        private final LongHashMap<E> map = new LongHashMap<>();
+
+        private LongUniqueIndex(ToLongFunction<? super E> key) {
+            this.key = Objects.requireNonNull(key);
+        }
+
+        @Override
+        void ensureCapacity(int extra) {
+            map.ensureCapacity(map.size() + extra);
+        }
+
+        public E get(long k) {
+            return k < 0 ? null : optimisticRead(() -> map.get(k));
+        }
+
+        public boolean containsKey(long k) {
+            return get(k) != null;
+        }
+
+        @Override
+        boolean accepts(E row, E replacing) {
+            long k = key.applyAsLong(row);
+            if (k < 0) return true;
+            E holder = map.get(k);
+            return holder == null || holder == replacing;
+        }
+
+        @Override
+        void add(E row) {
+            long k = key.applyAsLong(row);
+            if (k >= 0) map.put(k, row);
+        }
+
+        @Override
+        void remove(E row) {
+            long k = key.applyAsLong(row);
+            if (k >= 0 && map.get(k) == row) map.remove(k);
+        }
+
+        @Override
+        void replace(E old, E row) {
+            long oldKey = key.applyAsLong(old);
+            long newKey = key.applyAsLong(row);
+            if (oldKey == newKey) {
+                if (newKey >= 0) map.put(newKey, row);
+                return;
+            }
+            if (oldKey >= 0 && map.get(oldKey) == old) map.remove(oldKey);
+            if (newKey >= 0) map.put(newKey, row);
+        }
+
+        @Override
+        void clear() {
+            map.clear();
+        }
+    }
+
+    public final class LongOrderedIndex extends SecondaryIndex {
+        private final ToLongFunction<? super E> key;
+        private final LongAVLMap<E> tree = new LongAVLMap<>();
+
+        private LongOrderedIndex(ToLongFunction<? super E> key) {
+            this.key = Objects.requireNonNull(key);
+        }
+
+        public E get(long k) {
+            long stamp = lock.readLock();
+            try {
+                return k < 0 ? null : tree.get(k);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        public boolean containsKey(long k) {
+            return get(k) != null;
+        }
+
+        // Sets found[i] for each of the first n keys (strictly ascending) that
+        // some row has, in one walk of the tree
+        public void containsAllSorted(long[] keys, int n, boolean[] found) {
+            long stamp = lock.readLock();
+            try {
+                tree.containsAllSorted(keys, n, found);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        // Number of indexed rows with a smaller key
+        public int rankOf(long k) {
+            long stamp = lock.readLock();
+            try {
+                return tree.rank(k);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        public E select(int i) {
+            long stamp = lock.readLock();
+            try {
+                return tree.select(i);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        public int size() {
+            long stamp = lock.readLock();
+            try {
+                return tree.size();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        public E[] toArray(E[] arr) {
+            long stamp = lock.readLock();
+            try {
+                return tree.toArray(arr);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        public Iterator<E> iterator() {
+            return arrayIterator(snapshot(), false);
+        }
+
+        public Iterator<E> descendingIterator() {
+            return arrayIterator(snapshot(), true);
+        }
+
+        @SuppressWarnings("unchecked")
+        private Object[] snapshot() {
+            long stamp = lock.readLock();
+            try {
+                return tree.toArray((E[]) new Object[tree.size()]);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        @Override
+        boolean accepts(E row, E replacing) {
+            long k = key.applyAsLong(row);
+            if (k < 0) return true;
+            E holder = tree.get(k);
+            return holder == null || holder == replacing;
+        }
+
+        @Override
+        void add(E row) {
+            long k = key.applyAsLong(row);
+            if (k >= 0) tree.put(k, row);
+        }
+
+        // A batch with ascending keys (e.g. rows reloaded or imported in ID order)
+        // is merged in and the tree rebuilt in O(size + n); ascending also means
+        // the batch has no duplicate keys. A few rows into a big index are just put.
+        @Override
+        boolean bulkLoads(E[] batch) {
+            if (batch.length < tree.size() / 8) return false;
+            long prev = -1;
+            for (E row : batch) {
+                long k = key.applyAsLong(row);
+                if (k < 0) continue;
+                if (k <= prev) return false;
+                prev = k;
+            }
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void addAll(E[] batch) {
+            long[] keys = new long[batch.length];
+            E[] values = (E[]) new Object[batch.length];
+            int n = 0;
+            for (E row : batch) {
+                long k = key.applyAsLong(row);
+                if (k < 0) continue;
+                keys[n] = k;
+                values[n++] = row;
+            }
+            tree.putAllSorted(keys, values, n); // rows with taken keys never get this far
+        }
+
+        @Override
+        void remove(E row) {
+            long k = key.applyAsLong(row);
+            if (k >= 0 && tree.get(k) == row) tree.remove(k);
+        }
+
+        @Override
+        void replace(E old, E row) {
+            long oldKey = key.applyAsLong(old);
+            long newKey = key.applyAsLong(row);
+            if (oldKey == newKey) {
+                if (newKey >= 0) tree.put(newKey, row); // same node, new reference
+                return;
+            }
+            if (oldKey >= 0 && tree.get(oldKey) == old) tree.remove(oldKey);
+            if (newKey >= 0) tree.put(newKey, row);
+        }
+
+        @Override
+        void clear() {
+            tree.clear();
+        }
+    }
+
+    public final class VersionedIndex<S extends Comparable<S>> extends SecondaryIndex {
+        private final Function<? super E, ? extends S> entry;
+        private final PersistentAVLTree<S> tree = new PersistentAVLTree<>();
+
+        private VersionedIndex(Function<? super E, ? extends S> entry) {
+            this.entry = Objects.requireNonNull(entry);
+        }
+
+        // Frozen version of the entries as of the last completed table write
+        public PersistentAVLTree<S> snapshot() {
+            long stamp = lock.readLock();
+            try {
+                return tree.snapshot();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        public int size() {
+            return tree.size();
+        }
+
+        @Override
+        boolean bulkLoads(E[] batch) {
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        void addAll(E[] batch) {
+            S[] entries = (S[]) new Comparable[batch.length];
+            for (int i = 0; i < batch.length; i++) {
+                entries[i] = entry.apply(batch[i]);
+            }
+            tree.insertAll(entries);
+        }
+
+        @Override
+        boolean accepts(E row, E replacing) {
+            return true; // the primary key already makes entries unique
+        }
+
+        @Override
+        void add(E row) {
+            tree.insert(entry.apply(row));
+        }
+
+        @Override
+        void remove(E row) {
+            tree.delete(entry.apply(row));
+        }
+
+        @Override
+        void replace(E old, E row) {
+            tree.upsert(entry.apply(row)); // same primary key, so same position
+        }
+
+        @Override
+        void clear() {
+            tree.clear();
+        }
+    }
+
+    public final class TrigramIndex extends SecondaryIndex {
+        private final Function<? super E, String> text;
+        // trigram (three chars packed into a long) -> rows containing it
+        private final LongHashMap<Posting> postings = new LongHashMap<>();
+        private volatile boolean built; // only ever set under the write lock
+
+        private TrigramIndex(Function<? super E, String> text) {
+            this.text = Objects.requireNonNull(text);
+        }
+
+        // Rows sharing at least a third of the query's trigrams (two swapped
+        // letters already break about four), best match first:
+        // ranked by Dice similarity 2*shared / (query grams + row grams), ties by
+        // primary key. limit 0 returns every candidate.
+        @SuppressWarnings("unchecked")
+        public E[] search(String query, int limit, E[] arr) {
+            if (!built) {
+                build();
+            }
+            long stamp = lock.readLock();
+            try {
+                long[] grams = grams(query);
+                HashMapADT<Object, Candidate> hits = new HashMapADT<>();
+                for (long g : grams) {
+                    Posting p = postings.get(g);
+                    if (p == null) continue;
+                    for (int i = 0; i < p.size; i++) {
+                        E row = (E) p.rows[i];
+                        Object pk = rows.keyObject(row);
+                        Candidate c = hits.get(pk);
+                        if (c == null) hits.put(pk, c = new Candidate(row));
+                        c.shared++;
+                    }
+                }
+
+                int need = Math.max(1, grams.length / 3);
+                Candidate[] ranked = newCandidates(hits.size());
+                int n = 0;
+                for (Candidate c : hits.values()) {
+                    if (c.shared < need) continue;
+                    c.score = 2.0 * c.shared / (grams.length + grams(text.apply(c.row)).length);
+                    ranked[n++] = c;
+                }
+                java.util.Arrays.sort(ranked, 0, n, (a, b) -> a.score != b.score
+                        ? Double.compare(b.score, a.score) : rows.compare(a.row, b.row));
+
+                int take = limit > 0 ? Math.min(limit, n) : n;
+                E[] out = arr.length >= take ? arr
+                        : (E[]) java.lang.reflect.Array.newInstance(arr.getClass().getComponentType(), take);
+                for (int i = 0; i < take; i++) {
+                    out[i] = ranked[i].row;
+                }
+                if (out.length > take) {
+                    out[take] = null;
+                }
+                return out;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        // The first search files every row; it writes, so it takes the write lock
+        private void build() {
+            long stamp = lock.writeLock();
+            try {
+                if (!built) {
+                    rows.forEach(row -> add(row, true));
+                    built = true;
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        @Override
+        boolean accepts(E row, E replacing) {
+            return true;
+        }
+
+        // Nothing is filed until the first search builds the index
+        @Override
+        void add(E row) {
+            add(row, built);
+        }
+
+        private void add(E row, boolean filing) {
+            if (!filing) return;
+            for (long g : grams(text.apply(row))) {
+                postings.computeIfAbsent(g, k -> new Posting()).add(row);
+            }
+        }
+
+        @Override
+        void remove(E row) {
+            if (!built) return;
+            for (long g : grams(text.apply(row))) {
+                Posting p = postings.get(g);
+                if (p != null && p.remove(row) && p.size == 0) postings.remove(g);
+            }
+        }
+
+        @Override
+        void replace(E old, E row) {
+            if (!built) return;
+            String oldText = text.apply(old);
+            String newText = text.apply(row);
+            if (Objects.equals(oldText, newText)) {
+                for (long g : grams(oldText)) {
+                    postings.get(g).swap(old, row); // same postings, new reference
+                }
+                return;
+            }
+            for (long g : grams(oldText)) {
+                Posting p = postings.get(g);
+                if (p != null && p.remove(old) && p.size == 0) postings.remove(g);
+            }
+            for (long g : grams(newText)) {
+                postings.computeIfAbsent(g, k -> new Posting()).add(row);
+            }
+        }
+
+        @Override
+        void clear() {
+            postings.clear();
+        }
+    }
+
+    // Distinct trigrams of s, upper-cased and padded ("  JO", " JOH", ...) so the
+    // start of the text counts; sorted, no duplicates. null or blank gives none.
+    static long[] grams(String s) {
+        if (s == null || s.isBlank()) return new long[0];
+        String padded = "  " + s.trim().toUpperCase(Locale.ROOT) + " ";
+        long[] out = new long[padded.length() - 2];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+        }
+        java.util.Arrays.sort(out);
+        int n = 0;
+        for (int i = 0; i < out.length; i++) {
+            if (n == 0 || out[n - 1] != out[i]) out[n++] = out[i];
+        }
+        return java.util.Arrays.copyOf(out, n);
+    }
+
+    // Rows filed under one trigram, unordered; removal swaps in the last row
+    private static final class Posting {
+        Object[] rows = new Object[4];
+        int size;
+
+        void add(Object row) {
+            if (size == rows.length) rows = java.util.Arrays.copyOf(rows, size * 2);
+            rows[size++] = row;
+        }
+
+        boolean remove(Object row) {
+            for (int i = size - 1; i >= 0; i--) {
+                if (rows[i] == row) {
+                    rows[i] = rows[--size];
+                    rows[size] = null;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void swap(Object old, Object row) {
+            for (int i = size - 1; i >= 0; i--) {
+                if (rows[i] == old) {
+                    rows[i] = row;
+                    return;
+                }
+            }
+        }
+    }
+
+    // One row's tally during a trigram search
+    private final class Candidate {
+        final E row;
+        int shared;
+        double score;
+
+        Candidate(E row) {
+            this.row = row;
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Candidate[] newCandidates(int n) {
+        return (Candidate[]) new IndexedTable.Candidate[n];
+    }
+}
@@ -0,0 +1,599 @@
+package adt;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Ordered index that stores the entities themselves and orders them by a key
+ * pulled out with keyOf, so there is no wrapper object per entity and no
+ * probe object per lookup: get/containsKey/equalRange take the raw key.
+ *
+ * Keys do not have to be unique if a tie-breaker is given (e.g. name index
+ * with the ID as tie-breaker); elements that compare equal on both are
+ * treated as duplicates and rejected by insert.
+ *
+ * Subtree sizes are kept for rank/select, same as AVLTree.
+ *
+ * @author Group 3
+ */
+public class KeyedAVLTree<K, E> implements Iterable<E> {
+    private final Function<? super E, ? extends K> keyOf;
+    private final Comparator<? super K> keyOrder;
+    private final Comparator<? super E> tieBreaker; // null when keys are unique
+    private Node<E> root;
+
+    public KeyedAVLTree(Function<? super E, ? extends K> keyOf, Comparator<? super K> keyOrder) {
+        this(keyOf, keyOrder, null);
+    }
+
+    public KeyedAVLTree(Function<? super E, ? extends K> keyOf, Comparator<? super K> keyOrder,
+                        Comparator<? super E> tieBreaker) {
+        if (keyOf == null || keyOrder == null) {
+            throw new IllegalArgumentException("Key extractor and key order are required.");
+        }
+        this.keyOf = keyOf;
+        this.keyOrder = keyOrder;
+        this.tieBreaker = tieBreaker;
+    }
+
+    // Natural key order, e.g. KeyedAVLTree.naturalOrder(Patient::getPatientID)
+    public static <K extends Comparable<? super K>, E> KeyedAVLTree<K, E> naturalOrder(Function<? super E, ? extends K> keyOf) {
+        return new KeyedAVLTree<>(keyOf, Comparator.<K>naturalOrder());
+    }
+
+    /* ---------- Node ---------- */
+
+    private static final class Node<E> {
+        E item;
+        Node<E> left, right;
+        int height = 1;
+        int size = 1;
+
+        Node(E item) {
+            this.item = item;
+        }
+    }
+
+    /* ---------- Comparisons ---------- */
+
+    private int compareKey(K key, E item) {
+        return keyOrder.compare(key, keyOf.apply(item));
+    }
+
+    private int compareItems(E a, E b) {
+        int c = keyOrder.compare(keyOf.apply(a), keyOf.apply(b));
+        if (c == 0 && tieBreaker != null) {
+            c = tieBreaker.compare(a, b);
+        }
+        return c;
+    }
+
+    /* ---------- Insert / Delete ---------- */
+
+    // Returns false if an equal element (same key, same tie-break) is already present
+    public boolean insert(E item) {
+        checkItem(item);
+        return put(item, false) == null;
+    }
+
+    // Inserts or replaces; returns the replaced element, null if newly added
+    public E upsert(E item) {
+        checkItem(item);
+        return put(item, true);
+    }
+
+    // Single descent along a path array, like AVLTree.put; returns the element
+    // already stored under the same key and tie-break, or null if item was added
+    private E put(E item, boolean replace) {
+        Node<E>[] path = newPath();
+        int depth = 0;
+        int c = 0;
+        Node<E> node = root;
+
+        while (node != null) {
+            c = compareItems(item, node.item);
+            if (c == 0) {
+                E existing = node.item;
+                if (replace) {
+                    node.item = item;
+                }
+                return existing;
+            }
+            path[depth++] = node;
+            node = c < 0 ? node.left : node.right;
+        }
+
+        Node<E> added = new Node<>(item);
+        if (depth == 0) {
+            root = added;
+        } else if (c < 0) {
+            path[depth - 1].left = added;
+        } else {
+            path[depth - 1].right = added;
+        }
+        rebalancePath(path, depth);
+        return null;
+    }
+
+    // Bulk load. The batch is sorted, merged with the current contents and the
+    // tree rebuilt balanced in O(n log n + size) with no rotations; a batch much
+    // smaller than the tree is cheaper inserted one by one. Elements already
+    // present (and repeats within the batch) are skipped. Returns how many were new.
+    @SuppressWarnings("unchecked")
+    public int insertAll(E[] batch) {
+        int size = size();
+        if (size > 0 && batch.length < size / 8) {
+            int added = 0;
+            for (E item : batch) {
+                if (insert(item)) added++;
+            }
+            return added;
+        }
+
+        E[] sorted = (E[]) new Object[batch.length];
+        int n = 0;
+        for (E item : batch) {
+            checkItem(item);
+            sorted[n++] = item;
+        }
+        mergeSort(sorted, (E[]) new Object[n], 0, n);
+
+        E[] existing = toArray((E[]) new Object[size]);
+        E[] merged = (E[]) new Object[size + n];
+        int i = 0, j = 0, m = 0;
+        while (i < size || j < n) {
+            // on a tie the element already in the tree is taken first, so it is the one kept
+            E next = j == n || (i < size && compareItems(existing[i], sorted[j]) <= 0)
+                    ? existing[i++] : sorted[j++];
+            if (m == 0 || compareItems(merged[m - 1], next) != 0) {
+                merged[m++] = next;
+            }
+        }
+        root = buildBalanced(merged, 0, m - 1);
+        return m - size;
+    }
+
+    // Stable, so equal elements keep their batch order
+    private void mergeSort(E[] a, E[] tmp, int lo, int hi) {
+        if (hi - lo < 2) return;
+        int mid = (lo + hi) >>> 1;
+        mergeSort(a, tmp, lo, mid);
+        mergeSort(a, tmp, mid, hi);
+        if (compareItems(a[mid - 1], a[mid]) <= 0) return; // halves already in order: O(n) on sorted input
+
+        int i = lo, j = mid, k = lo;
+        while (i < mid && j < hi) {
+            tmp[k++] = compareItems(a[j], a[i]) < 0 ? a[j++] : a[i++];
+        }
+        while (i < mid) tmp[k++] = a[i++];
+        while (j < hi) tmp[k++] = a[j++];
+        System.arraycopy(tmp, lo, a, lo, hi - lo);
+    }
+
+    private Node<E> buildBalanced(E[] sorted, int lo, int hi) {
+        if (lo > hi) return null;
+        int mid = (lo + hi) >>> 1;
+        Node<E> node = new Node<>(sorted[mid]);
+        node.left = buildBalanced(sorted, lo, mid - 1);
+        node.right = buildBalanced(sorted, mid + 1, hi);
+        update(node);
+        return node;
+    }
+
+    // Removes the element equal to item (key + tie-break)
+    public boolean delete(E item) {
+        checkItem(item);
+        return remove(item) != null;
+    }
+
+    // Removes the first element with this key; returns it, or null
+    public E removeKey(K key) {
+        E first = get(key);
+        if (first != null) {
+            delete(first);
+        }
+        return first;
+    }
+
+    // Unlinks the element equal to item and returns it, or null if absent
+    private E remove(E item) {
+        Node<E>[] path = newPath();
+        int depth = 0;
+        Node<E> node = root;
+
+        while (node != null) {
+            int c = compareItems(item, node.item);
+            if (c == 0) break;
+            path[depth++] = node;
+            node = c < 0 ? node.left : node.right;
+        }
+        if (node == null) {
+            return null;
+        }
+
+        E removed = node.item;
+        if (node.left == null || node.right == null) {
+            replaceChild(path, depth, node, node.left != null ? node.left : node.right);
+        } else {
+            // take the successor's element and unlink that node instead
+            path[depth++] = node;
+            Node<E> succ = node.right;
+            while (succ.left != null) {
+                path[depth++] = succ;
+                succ = succ.left;
+            }
+            node.item = succ.item;
+            replaceChild(path, depth, succ, succ.right);
+        }
+        rebalancePath(path, depth);
+        return removed;
+    }
+
+    public void clear() {
+        root = null;
+    }
+
+    private void checkItem(E item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Element must not be null.");
+        }
+    }
+
+    /* ---------- Lookup by Raw Key ---------- */
+
+    // First (in tie-break order) element with this key, or null
+    public E get(K key) {
+        Node<E> node = root;
+        E found = null;
+        while (node != null) {
+            int c = compareKey(key, node.item);
+            if (c < 0) {
+                node = node.left;
+            } else if (c > 0) {
+                node = node.right;
+            } else {
+                found = node.item;
+                if (tieBreaker == null) break;
+                node = node.left; // keep looking for an earlier one
+            }
+        }
+        return found;
+    }
+
+    // Element with this key whose tie-break part matches: tie compares the
+    // wanted element with the one given, like the tie-breaker would. Looks up a
+    // composite key (e.g. doctor, then date and shift) from its parts.
+    public E get(K key, ToIntFunction<? super E> tie) {
+        Node<E> node = root;
+        while (node != null) {
+            int c = compareKey(key, node.item);
+            if (c == 0) {
+                c = tie.applyAsInt(node.item);
+            }
+            if (c < 0) {
+                node = node.left;
+            } else if (c > 0) {
+                node = node.right;
+            } else {
+                return node.item;
+            }
+        }
+        return null;
+    }
+
+    public boolean containsKey(K key) {
+        return get(key) != null;
+    }
+
+    // Number of elements whose key is smaller than key
+    public int rankOf(K key) {
+        int rank = 0;
+        Node<E> node = root;
+        while (node != null) {
+            if (compareKey(key, node.item) <= 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return rank;
+    }
+
+    // Sets found[i] for each of the first n keys that some element has. Keys
+    // must be ascending in key order without repeats. One descent serves the
+    // whole batch: each node splits the keys between its subtrees, and a subtree
+    // gets no visit once no key is left for it, so a sorted batch costs less
+    // than n separate lookups and never a full scan.
+    public void containsAllSorted(K[] keys, int n, boolean[] found) {
+        markSorted(root, keys, 0, n, found);
+    }
+
+    private void markSorted(Node<E> node, K[] keys, int lo, int hi, boolean[] found) {
+        if (node == null || lo >= hi) return;
+
+        // first of keys[lo..hi) not below this node's key
+        int split = lo, top = hi;
+        while (split < top) {
+            int mid = (split + top) >>> 1;
+            if (compareKey(keys[mid], node.item) < 0) split = mid + 1;
+            else top = mid;
+        }
+        int right = split;
+        if (split < hi && compareKey(keys[split], node.item) == 0) {
+            found[split] = true;
+            right++; // equal keys in either subtree add nothing
+        }
+        markSorted(node.left, keys, lo, split, found);
+        markSorted(node.right, keys, right, hi, found);
+    }
+
+    // Number of elements with exactly this key
+    public int countKey(K key) {
+        int before = rankOf(key);
+        int upTo = 0;
+        Node<E> node = root;
+        while (node != null) {
+            if (compareKey(key, node.item) < 0) {
+                node = node.left;
+            } else {
+                upTo += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return upTo - before;
+    }
+
+    // k-th smallest element (0-based), null if out of range
+    public E select(int k) {
+        if (k < 0 || k >= size()) return null;
+
+        Node<E> node = root;
+        while (node != null) {
+            int leftSize = size(node.left);
+            if (k < leftSize) {
+                node = node.left;
+            } else if (k == leftSize) {
+                return node.item;
+            } else {
+                k -= leftSize + 1;
+                node = node.right;
+            }
+        }
+        return null;
+    }
+
+    public E getMin() {
+        Node<E> node = root;
+        if (node == null) return null;
+        while (node.left != null) node = node.left;
+        return node.item;
+    }
+
+    public E getMax() {
+        Node<E> node = root;
+        if (node == null) return null;
+        while (node.right != null) node = node.right;
+        return node.item;
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    public int height() {
+        return height(root);
+    }
+
+    public E[] toArray(E[] arr) {
+        int i = 0;
+        for (E item : this) {
+            if (i >= arr.length) break;
+            arr[i++] = item;
+        }
+        return arr;
+    }
+
+    /* ---------- Iteration ---------- */
+
+    @Override
+    public Iterator<E> iterator() {
+        return new KeyIterator(null, false, null, false, false);
+    }
+
+    public Iterator<E> descendingIterator() {
+        return new KeyIterator(null, false, null, false, true);
+    }
+
+    // All elements with this key, in tie-break order
+    public Iterable<E> equalRange(K key) {
+        return () -> new KeyIterator(key, true, key, true, false);
+    }
+
+    // Elements with keys between lo and hi; a null bound is open
+    public Iterable<E> range(K lo, boolean loInclusive, K hi, boolean hiInclusive) {
+        return () -> new KeyIterator(lo, loInclusive, hi, hiInclusive, false);
+    }
+
+    /*
+     * In-order walk between two key bounds. The path lives in an array stack
+     * sized from the height, so nothing is allocated per element.
+     */
+    private class KeyIterator implements Iterator<E> {
+        private Node<E>[] stack;
+        private int top;
+        private final K end;
+        private final boolean endInclusive;
+        private final boolean descending;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        KeyIterator(K lo, boolean loInclusive, K hi, boolean hiInclusive, boolean descending) {
+            this.stack = (Node<E>[]) new Node[height(root)];
+            this.descending = descending;
+            this.end = descending ? lo : hi;
+            this.endInclusive = descending ? loInclusive : hiInclusive;
+
+            K start = descending ? hi : lo;
+            boolean startInclusive = descending ? hiInclusive : loInclusive;
+            seek(start, startInclusive);
+        }
+
+        // push the nodes on the search path that fall inside the starting bound
+        private void seek(K start, boolean inclusive) {
+            Node<E> node = root;
+            while (node != null) {
+                if (start == null) {
+                    push(node);
+                    node = descending ? node.right : node.left;
+                    continue;
+                }
+                int c = keyOrder.compare(keyOf.apply(node.item), start);
+                if (descending) c = -c;
+
+                if (c > 0 || (c == 0 && inclusive)) {
+                    push(node);
+                    // with duplicate keys an equal node may have equal ones on its near side
+                    node = descending ? node.right : node.left;
+                } else {
+                    node = descending ? node.left : node.right;
+                }
+            }
+        }
+
+        private void push(Node<E> node) {
+            if (top == stack.length) {
+                stack = java.util.Arrays.copyOf(stack, Math.max(4, stack.length * 2));
+            }
+            stack[top++] = node;
+        }
+
+        private boolean withinEnd(E item) {
+            if (end == null) return true;
+            int c = keyOrder.compare(keyOf.apply(item), end);
+            if (descending) c = -c;
+            return c < 0 || (c == 0 && endInclusive);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return top > 0 && withinEnd(stack[top - 1].item);
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext()) throw new NoSuchElementException();
+
+            Node<E> node = stack[--top];
+            stack[top] = null;
+            for (Node<E> n = descending ? node.left : node.right; n != null; n = descending ? n.right : n.left) {
+                push(n);
+            }
+            return node.item;
+        }
+    }
+
+    /* ---------- Balancing ---------- */
+
+    // Ancestors of any node number at most height(root), so the path never overflows
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Node<E>[] newPath() {
+        return (Node<E>[]) new Node[height(root) + 1];
+    }
+
+    private void replaceChild(Node<E>[] path, int depth, Node<E> oldChild, Node<E> newChild) {
+        if (depth == 0) {
+            root = newChild;
+            return;
+        }
+        Node<E> parent = path[depth - 1];
+        if (parent.left == oldChild) {
+            parent.left = newChild;
+        } else {
+            parent.right = newChild;
+        }
+    }
+
+    // Walk back up the recorded path, refreshing height/size and rotating where needed
+    private void rebalancePath(Node<E>[] path, int depth) {
+        for (int i = depth - 1; i >= 0; i--) {
+            replaceChild(path, i, path[i], rebalance(path[i]));
+        }
+    }
+
+    private int height(Node<E> node) {
+        return node != null ? node.height : 0;
+    }
+
+    private int size(Node<E> node) {
+        return node != null ? node.size : 0;
+    }
+
+    private void update(Node<E> node) {
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        node.size = size(node.left) + size(node.right) + 1;
+    }
+
+    private Node<E> rebalance(Node<E> node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node<E> rotateRight(Node<E> y) {
+        Node<E> x = y.left;
+        y.left = x.right;
+        x.right = y;
+        update(y);
+        update(x);
+        return x;
+    }
+
+    private Node<E> rotateLeft(Node<E> x) {
+        Node<E> y = x.right;
+        x.right = y.left;
+        y.left = x;
+        update(x);
+        update(y);
+        return y;
+    }
+
+    /* ---------- Debug ---------- */
+
+    public boolean isValid() {
+        return check(root, null, null) >= 0;
+    }
+
+    // Returns the height, or -1 if order, balance, height or size is off
+    private int check(Node<E> node, E min, E max) {
+        if (node == null) return 0;
+        if (min != null && compareItems(node.item, min) <= 0) return -1;
+        if (max != null && compareItems(node.item, max) >= 0) return -1;
+
+        int hl = check(node.left, min, node.item);
+        int hr = check(node.right, node.item, max);
+        if (hl < 0 || hr < 0 || Math.abs(hl - hr) > 1) return -1;
+        if (node.height != Math.max(hl, hr) + 1) return -1;
+        if (node.size != size(node.left) + size(node.right) + 1) return -1;
+        return node.height;
+    }
+}
@@ -1,6 +1,9 @@
 package adt;
 
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 public class LinkedQueue<T> implements QueueInterface<T>, Iterable<T>{
     private QueueNode<T> front;
@@ -63,14 +66,85 @@ public class LinkedQueue<T> implements QueueInterface<T>, Iterable<T>{
         return size;
     }
     
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        QueueNode<T> current = front;
+        for (int i = 0; i < index; i++) {
+            current = current.next;
+        }
+        return current.data;
+    }
+    
+    @Override
+    public T removeFirstMatch(Predicate<? super T> filter) {
+        QueueNode<T> prev = null;
+        QueueNode<T> current = front;
+        
+        while (current != null) {
+            if (filter.test(current.data)) {
+                unlink(prev, current);
+                return current.data;
+            }
+            prev = current;
+            current = current.next;
+        }
+        return null;
+    }
+    
+    @Override
+    public int removeIf(Predicate<? super T> filter) {
+        int removed = 0;
+        QueueNode<T> prev = null;
+        QueueNode<T> current = front;
+        
+        while (current != null) {
+            QueueNode<T> next = current.next;
+            if (filter.test(current.data)) {
+                unlink(prev, current);
+                removed++;
+            } else {
+                prev = current;
+            }
+            current = next;
+        }
+        return removed;
+    }
+    
+    @Override
+    public void replaceAll(UnaryOperator<T> operator) {
+        for (QueueNode<T> current = front; current != null; current = current.next) {
+            current.data = operator.apply(current.data);
+        }
+    }
+    
+    private void unlink(QueueNode<T> prev, QueueNode<T> node) {
+        if (prev == null) {
+            front = node.next;
+        } else {
+            prev.next = node.next;
+        }
+        if (node == rear) {
+            rear = prev;
+        }
+        size--;
+    }
+    
     @Override
     public Iterator<T> iterator() {
-        return new QueueIterator<>(front);
+        return new LinkedQueueIterator<>(front);
     }
     
     @Override
     public QueueIterator<T> getIterator() {
-        return new QueueIterator<>(front);
+        return new LinkedQueueIterator<>(front);
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return new LinkedQueueSpliterator<>(front, size);
     }
     
     public T peek() {
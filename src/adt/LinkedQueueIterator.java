@@ -0,0 +1,29 @@
+package adt;
+
+public class LinkedQueueIterator<T> implements QueueIterator<T> {
+    private QueueNode<T> current;
+    
+    public LinkedQueueIterator(QueueNode<T> front) {
+        current = front;
+    }
+    
+    @Override
+    public boolean hasNext() {
+        return current != null;
+    }
+    
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new IllegalStateException("No more elements.");
+        }
+        T data = current.data;
+        current = current.next;
+        return data;
+    }
+    
+    @Override
+    public T getNext() {
+        return next();
+    }
+}
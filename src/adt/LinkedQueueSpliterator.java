@@ -0,0 +1,74 @@
+package adt;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator for LinkedQueue. A linked list cannot be cut in the middle
+ * without walking to it, so each split copies the next batch of entries
+ * into an array and hands that off; batches grow arithmetically, as in
+ * java.util.LinkedList, so large queues still spread over all workers.
+ *
+ * @author Group 3
+ */
+class LinkedQueueSpliterator<T> implements Spliterator<T> {
+    private static final int BATCH_UNIT = 1 << 10;
+    private static final int MAX_BATCH = 1 << 25;
+
+    private QueueNode<T> current;
+    private int remaining;
+    private int batch;
+
+    LinkedQueueSpliterator(QueueNode<T> front, int size) {
+        this.current = front;
+        this.remaining = size;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (remaining <= 0 || current == null) return false;
+
+        T data = current.data;
+        current = current.next;
+        remaining--;
+        action.accept(data);
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        while (remaining > 0 && current != null) {
+            T data = current.data;
+            current = current.next;
+            remaining--;
+            action.accept(data);
+        }
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        if (remaining <= 1 || current == null) return null;
+
+        int n = Math.min(Math.min(batch + BATCH_UNIT, MAX_BATCH), remaining);
+        Object[] chunk = new Object[n];
+        int j = 0;
+        while (j < n && current != null) {
+            chunk[j++] = current.data;
+            current = current.next;
+        }
+        batch = j;
+        remaining -= j;
+        return Spliterators.spliterator(chunk, 0, j, ORDERED);
+    }
+
+    @Override
+    public long estimateSize() {
+        return remaining;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED;
+    }
+}
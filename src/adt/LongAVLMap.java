@@ -0,0 +1,557 @@
+package adt;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Ordered map from primitive long keys to values, as an AVL tree whose nodes
+ * hold the key as a long. Lookups are plain integer compares, with no key
+ * objects and no boxing (meant for IDCodec keys).
+ *
+ * Subtree sizes are kept for rank/select, same as AVLTree. Values may not be
+ * null. Not thread-safe.
+ *
+ * @author Group 3
+ */
+public class LongAVLMap<V> implements Iterable<V> {
+    private static final int MIN_SPLIT = 64; // below this, splitting a spliterator costs more than it saves
+
+    private Node<V> root;
+
+    /* ---------- Node ---------- */
+
+    private static final class Node<V> {
+        final long key;
+        V value;
+        Node<V> left, right;
+        int height = 1;
+        int size = 1;
+
+        Node(long key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /* ---------- Insert / Delete ---------- */
+
+    // Returns the previous value, or null if the key was new
+    public V put(long key, V value) {
+        return put(key, value, true);
+    }
+
+    // Returns the value already mapped (and leaves it), or null if value was added
+    public V putIfAbsent(long key, V value) {
+        return put(key, value, false);
+    }
+
+    // Single descent along a path array, like AVLTree.put; returns the value
+    // already mapped, or null if the key was added
+    private V put(long key, V value, boolean replace) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value must not be null.");
+        }
+        Node<V>[] path = newPath();
+        int depth = 0;
+        Node<V> node = root;
+
+        while (node != null) {
+            if (key == node.key) {
+                V old = node.value;
+                if (replace) {
+                    node.value = value;
+                }
+                return old;
+            }
+            path[depth++] = node;
+            node = key < node.key ? node.left : node.right;
+        }
+
+        Node<V> added = new Node<>(key, value);
+        if (depth == 0) {
+            root = added;
+        } else if (key < path[depth - 1].key) {
+            path[depth - 1].left = added;
+        } else {
+            path[depth - 1].right = added;
+        }
+        rebalancePath(path, depth);
+        return null;
+    }
+
+    // Returns the removed value, or null if the key was not present
+    public V remove(long key) {
+        Node<V>[] path = newPath();
+        int depth = 0;
+        Node<V> node = root;
+
+        while (node != null && key != node.key) {
+            path[depth++] = node;
+            node = key < node.key ? node.left : node.right;
+        }
+        if (node == null) {
+            return null;
+        }
+
+        if (node.left == null || node.right == null) {
+            replaceChild(path, depth, node, node.left != null ? node.left : node.right);
+        } else {
+            // keys are final, so the successor node itself takes this node's place
+            int at = depth;
+            path[depth++] = node;
+            Node<V> succ = node.right;
+            while (succ.left != null) {
+                path[depth++] = succ;
+                succ = succ.left;
+            }
+            if (depth - 1 == at) {
+                node.right = succ.right;
+            } else {
+                path[depth - 1].left = succ.right;
+            }
+            succ.left = node.left;
+            succ.right = node.right;
+            replaceChild(path, at, node, succ);
+            path[at] = succ;
+        }
+        rebalancePath(path, depth);
+        return node.value;
+    }
+
+    public void clear() {
+        root = null;
+    }
+
+    /* ---------- Bulk loading ---------- */
+
+    // Fills an empty map from the first n pairs in O(n), with no rotations;
+    // keys must be strictly ascending
+    public void loadSorted(long[] keys, V[] values, int n) {
+        if (root != null) {
+            throw new IllegalStateException("Map is not empty.");
+        }
+        for (int i = 0; i < n; i++) {
+            if (values[i] == null) {
+                throw new IllegalArgumentException("Value must not be null.");
+            }
+            if (i > 0 && keys[i - 1] >= keys[i]) {
+                throw new IllegalArgumentException("Input is not strictly ascending.");
+            }
+        }
+        root = buildBalanced(keys, values, 0, n - 1);
+    }
+
+    // Adds the first n pairs (strictly ascending keys, none already mapped) by
+    // merging them with the current contents and rebuilding in O(size + n).
+    // Nothing changes if a key is already present.
+    @SuppressWarnings("unchecked")
+    public void putAllSorted(long[] keys, V[] values, int n) {
+        if (root == null) {
+            loadSorted(keys, values, n);
+            return;
+        }
+        int size = size();
+        long[] oldKeys = new long[size];
+        V[] oldValues = (V[]) new Object[size];
+        fill(root, oldKeys, oldValues, 0);
+
+        long[] mergedKeys = new long[size + n];
+        V[] mergedValues = (V[]) new Object[size + n];
+        int i = 0, j = 0, m = 0;
+        while (i < size || j < n) {
+            if (j < n && (values[j] == null || (j > 0 && keys[j - 1] >= keys[j]))) {
+                throw new IllegalArgumentException("Input is not strictly ascending.");
+            }
+            if (i < size && j < n && oldKeys[i] == keys[j]) {
+                throw new IllegalArgumentException("Key already present: " + keys[j]);
+            }
+            if (j == n || (i < size && oldKeys[i] < keys[j])) {
+                mergedKeys[m] = oldKeys[i];
+                mergedValues[m++] = oldValues[i++];
+            } else {
+                mergedKeys[m] = keys[j];
+                mergedValues[m++] = values[j++];
+            }
+        }
+        root = buildBalanced(mergedKeys, mergedValues, 0, m - 1);
+    }
+
+    // In-order copy of the subtree into the arrays from index at; returns the next free index
+    private int fill(Node<V> node, long[] keys, V[] values, int at) {
+        if (node == null) return at;
+        at = fill(node.left, keys, values, at);
+        keys[at] = node.key;
+        values[at++] = node.value;
+        return fill(node.right, keys, values, at);
+    }
+
+    private Node<V> buildBalanced(long[] keys, V[] values, int lo, int hi) {
+        if (lo > hi) {
+            return null;
+        }
+        int mid = (lo + hi) >>> 1;
+        Node<V> node = new Node<>(keys[mid], values[mid]);
+        node.left = buildBalanced(keys, values, lo, mid - 1);
+        node.right = buildBalanced(keys, values, mid + 1, hi);
+        update(node);
+        return node;
+    }
+
+    /* ---------- Lookup ---------- */
+
+    public V get(long key) {
+        Node<V> node = root;
+        while (node != null) {
+            if (key < node.key) {
+                node = node.left;
+            } else if (key > node.key) {
+                node = node.right;
+            } else {
+                return node.value;
+            }
+        }
+        return null;
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    // Sets found[i] for each of the first n keys (strictly ascending) that is
+    // mapped, in one descent that splits the keys at each node, like
+    // KeyedAVLTree.containsAllSorted
+    public void containsAllSorted(long[] keys, int n, boolean[] found) {
+        markSorted(root, keys, 0, n, found);
+    }
+
+    private static void markSorted(Node<?> node, long[] keys, int lo, int hi, boolean[] found) {
+        if (node == null || lo >= hi) return;
+
+        int at = Arrays.binarySearch(keys, lo, hi, node.key);
+        int split = at >= 0 ? at : -at - 1;
+        if (at >= 0) found[at] = true;
+        markSorted(node.left, keys, lo, split, found);
+        markSorted(node.right, keys, at >= 0 ? at + 1 : split, hi, found);
+    }
+
+    // Number of keys smaller than key
+    public int rank(long key) {
+        int rank = 0;
+        Node<V> node = root;
+        while (node != null) {
+            if (key <= node.key) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return rank;
+    }
+
+    // Value with the k-th smallest key (0-based), null if out of range
+    public V select(int k) {
+        Node<V> node = selectNode(k);
+        return node != null ? node.value : null;
+    }
+
+    // k-th smallest key (0-based); throws if out of range
+    public long selectKey(int k) {
+        Node<V> node = selectNode(k);
+        if (node == null) {
+            throw new IndexOutOfBoundsException("Rank out of range: " + k);
+        }
+        return node.key;
+    }
+
+    private Node<V> selectNode(int k) {
+        if (k < 0 || k >= size()) return null;
+
+        Node<V> node = root;
+        while (node != null) {
+            int leftSize = size(node.left);
+            if (k < leftSize) {
+                node = node.left;
+            } else if (k == leftSize) {
+                return node;
+            } else {
+                k -= leftSize + 1;
+                node = node.right;
+            }
+        }
+        return null;
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    public int height() {
+        return height(root);
+    }
+
+    // Values in key order; fills arr if it is large enough
+    @SuppressWarnings("unchecked")
+    public V[] toArray(V[] arr) {
+        int n = size();
+        V[] out = arr.length >= n ? arr
+                : (V[]) java.lang.reflect.Array.newInstance(arr.getClass().getComponentType(), n);
+        int i = 0;
+        for (V value : this) {
+            out[i++] = value;
+        }
+        if (out.length > n) {
+            out[n] = null;
+        }
+        return out;
+    }
+
+    /* ---------- Iteration ---------- */
+
+    // Values in ascending key order
+    @Override
+    public Iterator<V> iterator() {
+        return new ValueIterator(false);
+    }
+
+    public Iterator<V> descendingIterator() {
+        return new ValueIterator(true);
+    }
+
+    // Splits by position using the subtree sizes, like AVLSpliterator, so a
+    // parallel stream divides the map evenly without copying it
+    @Override
+    public Spliterator<V> spliterator() {
+        return new ValueSpliterator(root, 0, size(root));
+    }
+
+    // Values at the in-order positions [index, fence). The map must not be
+    // modified while it is in use.
+    private final class ValueSpliterator implements Spliterator<V> {
+        private final Node<V> top;
+        private int index;
+        private final int fence;
+        private Node<V>[] stack; // created on the first advance
+        private int depth;
+
+        ValueSpliterator(Node<V> top, int index, int fence) {
+            this.top = top;
+            this.index = index;
+            this.fence = fence;
+        }
+
+        // Leaves the stack holding the k-th node on top, followed by its in-order successors
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private void seek(int k) {
+            stack = (Node<V>[]) new Node[height(top)];
+            depth = 0;
+            Node<V> node = top;
+            while (node != null) {
+                int leftSize = size(node.left);
+                if (k < leftSize) {
+                    stack[depth++] = node;
+                    node = node.left;
+                } else if (k == leftSize) {
+                    stack[depth++] = node;
+                    return;
+                } else {
+                    k -= leftSize + 1;
+                    node = node.right;
+                }
+            }
+        }
+
+        private V nextValue() {
+            Node<V> node = stack[--depth];
+            for (Node<V> n = node.right; n != null; n = n.left) {
+                stack[depth++] = n;
+            }
+            index++;
+            return node.value;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super V> action) {
+            if (index >= fence) return false;
+            if (stack == null) seek(index);
+
+            action.accept(nextValue());
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super V> action) {
+            if (index >= fence) return;
+            if (stack == null) seek(index);
+
+            while (index < fence) {
+                action.accept(nextValue());
+            }
+        }
+
+        @Override
+        public Spliterator<V> trySplit() {
+            int remaining = fence - index;
+            if (remaining < MIN_SPLIT) return null;
+
+            // hand out the first half; this one re-seeks to the middle when next used
+            int mid = index + remaining / 2;
+            ValueSpliterator prefix = new ValueSpliterator(top, index, mid);
+            index = mid;
+            stack = null;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return SIZED | SUBSIZED | ORDERED | NONNULL;
+        }
+    }
+
+    // In-order walk with an array stack sized from the height
+    private class ValueIterator implements Iterator<V> {
+        private Node<V>[] stack;
+        private int top;
+        private final boolean descending;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        ValueIterator(boolean descending) {
+            this.stack = (Node<V>[]) new Node[height(root)];
+            this.descending = descending;
+            pushEdge(root);
+        }
+
+        private void pushEdge(Node<V> node) {
+            for (; node != null; node = descending ? node.right : node.left) {
+                if (top == stack.length) {
+                    stack = Arrays.copyOf(stack, Math.max(4, stack.length * 2));
+                }
+                stack[top++] = node;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return top > 0;
+        }
+
+        @Override
+        public V next() {
+            if (!hasNext()) throw new NoSuchElementException();
+
+            Node<V> node = stack[--top];
+            stack[top] = null;
+            pushEdge(descending ? node.left : node.right);
+            return node.value;
+        }
+    }
+
+    /* ---------- Balancing ---------- */
+
+    // Ancestors of any node number at most height(root), so the path never overflows
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Node<V>[] newPath() {
+        return (Node<V>[]) new Node[height(root) + 1];
+    }
+
+    private void replaceChild(Node<V>[] path, int depth, Node<V> oldChild, Node<V> newChild) {
+        if (depth == 0) {
+            root = newChild;
+            return;
+        }
+        Node<V> parent = path[depth - 1];
+        if (parent.left == oldChild) {
+            parent.left = newChild;
+        } else {
+            parent.right = newChild;
+        }
+    }
+
+    // Walk back up the recorded path, refreshing height/size and rotating where needed
+    private void rebalancePath(Node<V>[] path, int depth) {
+        for (int i = depth - 1; i >= 0; i--) {
+            replaceChild(path, i, path[i], rebalance(path[i]));
+        }
+    }
+
+    private int height(Node<V> node) {
+        return node != null ? node.height : 0;
+    }
+
+    private int size(Node<V> node) {
+        return node != null ? node.size : 0;
+    }
+
+    private void update(Node<V> node) {
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        node.size = size(node.left) + size(node.right) + 1;
+    }
+
+    private Node<V> rebalance(Node<V> node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node<V> rotateRight(Node<V> y) {
+        Node<V> x = y.left;
+        y.left = x.right;
+        x.right = y;
+        update(y);
+        update(x);
+        return x;
+    }
+
+    private Node<V> rotateLeft(Node<V> x) {
+        Node<V> y = x.right;
+        x.right = y.left;
+        y.left = x;
+        update(x);
+        update(y);
+        return y;
+    }
+
+    /* ---------- Debug ---------- */
+
+    public boolean isValid() {
+        return check(root, Long.MIN_VALUE, Long.MAX_VALUE) >= 0;
+    }
+
+    // Returns the height, or -1 if order, balance or sizes are off
+    private int check(Node<V> node, long lo, long hi) {
+        if (node == null) return 0;
+        if (node.key < lo || node.key > hi) return -1;
+
+        int lh = node.key == Long.MIN_VALUE ? (node.left == null ? 0 : -1) : check(node.left, lo, node.key - 1);
+        int rh = node.key == Long.MAX_VALUE ? (node.right == null ? 0 : -1) : check(node.right, node.key + 1, hi);
+        if (lh < 0 || rh < 0 || Math.abs(lh - rh) > 1) return -1;
+        if (node.height != Math.max(lh, rh) + 1) return -1;
+        if (node.size != size(node.left) + size(node.right) + 1) return -1;
+        return node.height;
+    }
+}
@@ -0,0 +1,212 @@
+package adt;
+
+import java.util.function.LongFunction;
+
+/**
+ * Hash map from primitive long keys to values, with open addressing over a
+ * long[] and an Object[], so there are no entry nodes and no boxed keys.
+ *
+ * An empty slot is one whose value is null (which is why values may not be
+ * null). Removal shifts the rest of the probe run back instead of leaving
+ * tombstones, so lookups never walk over dead slots and no cleanup pass is
+ * needed; the table only rehashes when it grows.
+ *
+ * Not thread-safe.
+ *
+ * @author Group 3
+ */
+public class LongHashMap<V> {
+    private static final int DEFAULT_CAPACITY = 16; // always a power of two
+
+    private long[] keys;
+    private Object[] vals;
+    private int size;
+
+    public LongHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongHashMap(int expectedSize) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity * 3 / 4 < expectedSize) {
+            capacity <<= 1;
+        }
+        keys = new long[capacity];
+        vals = new Object[capacity];
+    }
+
+    /* ---------- Lookup ---------- */
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int i = indexOf(key);
+        return i >= 0 ? (V) vals[i] : null;
+    }
+
+    public boolean containsKey(long key) {
+        return indexOf(key) >= 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /* ---------- Update ---------- */
+
+    // Returns the previous value, or null if the key was new
+    public V put(long key, V value) {
+        return put(key, value, true);
+    }
+
+    // Returns the value already mapped (and leaves it), or null if value was added
+    public V putIfAbsent(long key, V value) {
+        return put(key, value, false);
+    }
+
+    // Existing value for key, or the one made by create (which is then added)
+    public V computeIfAbsent(long key, LongFunction<? extends V> create) {
+        V existing = get(key);
+        if (existing != null) {
+            return existing;
+        }
+        V value = create.apply(key);
+        put(key, value, false);
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V put(long key, V value, boolean replace) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value must not be null.");
+        }
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (vals[i] != null) {
+            if (keys[i] == key) {
+                V old = (V) vals[i];
+                if (replace) {
+                    vals[i] = value;
+                }
+                return old;
+            }
+            i = (i + 1) & mask;
+        }
+
+        keys[i] = key;
+        vals[i] = value;
+        size++;
+        if (size * 4 > keys.length * 3) {
+            resize(keys.length << 1);
+        }
+        return null;
+    }
+
+    // Sizes the table for expectedSize entries in one rehash
+    public void ensureCapacity(int expectedSize) {
+        int capacity = keys.length;
+        while (capacity * 3 / 4 < expectedSize) {
+            capacity <<= 1;
+        }
+        if (capacity != keys.length) {
+            resize(capacity);
+        }
+    }
+
+    // Returns the removed value, or null if the key was not present
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int i = indexOf(key);
+        if (i < 0) {
+            return null;
+        }
+        V old = (V) vals[i];
+        size--;
+
+        // pull later entries of the run back into the gap if their home slot allows it
+        int mask = keys.length - 1;
+        int gap = i;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (vals[j] == null) {
+                break;
+            }
+            int home = hash(keys[j]) & mask;
+            // entry at j may move to gap only if home is not in (gap, j] cyclically
+            boolean stays = gap <= j ? (gap < home && home <= j) : (gap < home || home <= j);
+            if (!stays) {
+                keys[gap] = keys[j];
+                vals[gap] = vals[j];
+                gap = j;
+            }
+        }
+        vals[gap] = null;
+        keys[gap] = 0;
+        return old;
+    }
+
+    public void clear() {
+        keys = new long[DEFAULT_CAPACITY];
+        vals = new Object[DEFAULT_CAPACITY];
+        size = 0;
+    }
+
+    /* ---------- Iteration ---------- */
+
+    public interface LongEntryConsumer<V> {
+        void accept(long key, V value);
+    }
+
+    // Visits every entry once, in no particular order. Do not modify the map meanwhile.
+    @SuppressWarnings("unchecked")
+    public void forEach(LongEntryConsumer<? super V> action) {
+        for (int i = 0; i < vals.length; i++) {
+            if (vals[i] != null) {
+                action.accept(keys[i], (V) vals[i]);
+            }
+        }
+    }
+
+    /* ---------- Table Helpers ---------- */
+
+    // Fibonacci hashing; IDCodec keys differ mostly in the low bits
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private int indexOf(long key) {
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (vals[i] != null) {
+            if (keys[i] == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldVals = vals;
+        keys = new long[capacity];
+        vals = new Object[capacity];
+
+        int mask = capacity - 1;
+        for (int j = 0; j < oldVals.length; j++) {
+            if (oldVals[j] != null) {
+                int i = hash(oldKeys[j]) & mask;
+                while (vals[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                vals[i] = oldVals[j];
+            }
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package adt;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.Function;
+
+/**
+ * Path-copying (persistent) AVL tree. An update copies only the nodes on
+ * its search path and publishes a new root; nodes already reachable from a
+ * root are never modified. snapshot() is therefore O(1) and the snapshot
+ * stays frozen while writers continue on the original tree.
+ * Writers are synchronised; readers take no lock and see one whole version.
+ *
+ * @author Group 3
+ */
+public class PersistentAVLTree<T extends Comparable<T>> implements AVLInterface<T> {
+    private volatile AVLNode<T> root;
+
+    public PersistentAVLTree() {
+    }
+
+    private PersistentAVLTree(AVLNode<T> root) {
+        this.root = root;
+    }
+
+    // Independent version sharing every node with this tree at the moment of the call
+    public PersistentAVLTree<T> snapshot() {
+        return new PersistentAVLTree<>(root);
+    }
+
+    /* ---------- Writes ---------- */
+
+    @Override
+    public synchronized boolean insert(T data) {
+        return putIfAbsent(data) == null;
+    }
+
+    // Same strategy as AVLTree.insertAll; the rebuild creates only fresh nodes, so snapshots are unaffected
+    @Override
+    public synchronized int insertAll(T[] batch) {
+        T[] sorted = AVLTree.sortDistinct(batch);
+        AVLNode<T> r = root;
+        int n = size(r);
+
+        if (n > 0 && (long) sorted.length * AVLTree.log2(n) < n) {
+            int added = 0;
+            for (T item : sorted) {
+                if (insert(item)) added++;
+            }
+            return added;
+        }
+
+        T[] merged = AVLTree.mergeSorted(toArrayInorder(AVLTree.newArray(n)), sorted);
+        root = AVLTree.buildBalanced(merged, 0, merged.length - 1);
+        return merged.length - n;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized T upsert(T data) {
+        Object[] found = new Object[1];
+        root = put(root, data, true, found);
+        return (T) found[0];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized T putIfAbsent(T data) {
+        Object[] found = new Object[1];
+        root = put(root, data, false, found);
+        return (T) found[0];
+    }
+
+    @Override
+    public synchronized T computeIfAbsent(T probe, Function<? super T, ? extends T> factory) {
+        T existing = find(probe);
+        if (existing != null)
+            return existing;
+
+        T created = factory.apply(probe);
+        if (created == null)
+            return null;
+        if (created.compareTo(probe) != 0)
+            throw new IllegalArgumentException("Factory result does not match the probe key.");
+
+        putIfAbsent(created);
+        return created;
+    }
+
+    @Override
+    public synchronized boolean delete(T data) {
+        Object[] found = new Object[1];
+        root = remove(root, data, found);
+        return found[0] != null;
+    }
+
+    @Override
+    public synchronized void clear() {
+        root = null;
+    }
+
+    // Returns the new subtree root; an unchanged subtree is returned as-is so nothing is copied
+    private AVLNode<T> put(AVLNode<T> node, T data, boolean replace, Object[] found) {
+        if (node == null)
+            return new AVLNode<>(data, null, null);
+
+        int c = data.compareTo(node.getKey());
+        if (c == 0) {
+            found[0] = node.getKey();
+            return replace ? new AVLNode<>(data, node.getLeft(), node.getRight()) : node;
+        }
+
+        if (c < 0) {
+            AVLNode<T> left = put(node.getLeft(), data, replace, found);
+            return (left == node.getLeft()) ? node : rebalance(node.getKey(), left, node.getRight());
+        } else {
+            AVLNode<T> right = put(node.getRight(), data, replace, found);
+            return (right == node.getRight()) ? node : rebalance(node.getKey(), node.getLeft(), right);
+        }
+    }
+
+    private AVLNode<T> remove(AVLNode<T> node, T data, Object[] found) {
+        if (node == null)
+            return null;
+
+        int c = data.compareTo(node.getKey());
+        if (c < 0) {
+            AVLNode<T> left = remove(node.getLeft(), data, found);
+            return (left == node.getLeft()) ? node : rebalance(node.getKey(), left, node.getRight());
+        } else if (c > 0) {
+            AVLNode<T> right = remove(node.getRight(), data, found);
+            return (right == node.getRight()) ? node : rebalance(node.getKey(), node.getLeft(), right);
+        }
+
+        found[0] = node.getKey();
+        if (node.getLeft() == null) return node.getRight();
+        if (node.getRight() == null) return node.getLeft();
+
+        // Two children: the in-order predecessor takes this position
+        AVLNode<T> pred = node.getLeft();
+        while (pred.getRight() != null) pred = pred.getRight();
+        return rebalance(pred.getKey(), removeMax(node.getLeft()), node.getRight());
+    }
+
+    private AVLNode<T> removeMax(AVLNode<T> node) {
+        if (node.getRight() == null)
+            return node.getLeft();
+
+        return rebalance(node.getKey(), node.getLeft(), removeMax(node.getRight()));
+    }
+
+    // Builds a balanced node from (left, key, right), rotating with fresh nodes when needed
+    private AVLNode<T> rebalance(T key, AVLNode<T> left, AVLNode<T> right) {
+        int hl = height(left);
+        int hr = height(right);
+
+        if (hl > hr + 1) {
+            if (height(left.getLeft()) >= height(left.getRight()))
+                return new AVLNode<>(left.getKey(), left.getLeft(), new AVLNode<>(key, left.getRight(), right));
+
+            AVLNode<T> lr = left.getRight();
+            return new AVLNode<>(lr.getKey(),
+                    new AVLNode<>(left.getKey(), left.getLeft(), lr.getLeft()),
+                    new AVLNode<>(key, lr.getRight(), right));
+        }
+
+        if (hr > hl + 1) {
+            if (height(right.getRight()) >= height(right.getLeft()))
+                return new AVLNode<>(right.getKey(), new AVLNode<>(key, left, right.getLeft()), right.getRight());
+
+            AVLNode<T> rl = right.getLeft();
+            return new AVLNode<>(rl.getKey(),
+                    new AVLNode<>(key, left, rl.getLeft()),
+                    new AVLNode<>(right.getKey(), rl.getRight(), right.getRight()));
+        }
+
+        return new AVLNode<>(key, left, right);
+    }
+
+    /* ---------- Reads (each one works on a single captured root) ---------- */
+
+    @Override
+    public T find(T data) {
+        AVLNode<T> cur = root;
+        while (cur != null) {
+            int c = data.compareTo(cur.getKey());
+            if (c == 0)
+                return cur.getKey();
+
+            cur = (c < 0) ? cur.getLeft() : cur.getRight();
+        }
+        return null;
+    }
+
+    @Override
+    public boolean contains(T data) {
+        return find(data) != null;
+    }
+
+    @Override
+    public T getMax() {
+        AVLNode<T> cur = root;
+        if (cur == null) return null;
+        while (cur.getRight() != null) cur = cur.getRight();
+        return cur.getKey();
+    }
+
+    @Override
+    public T getMin() {
+        AVLNode<T> cur = root;
+        if (cur == null) return null;
+        while (cur.getLeft() != null) cur = cur.getLeft();
+        return cur.getKey();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    @Override
+    public int size() {
+        AVLNode<T> r = root;
+        return (r == null) ? 0 : r.getSize();
+    }
+
+    @Override
+    public int height() {
+        return height(root);
+    }
+
+    private int height(AVLNode<T> node) {
+        return (node == null) ? 0 : node.getHeight();
+    }
+
+    private int size(AVLNode<T> node) {
+        return (node == null) ? 0 : node.getSize();
+    }
+
+    @Override
+    public int rank(T data) {
+        int rank = 0;
+        AVLNode<T> cur = root;
+        while (cur != null) {
+            int c = data.compareTo(cur.getKey());
+            if (c < 0) {
+                cur = cur.getLeft();
+            } else {
+                rank += size(cur.getLeft());
+                if (c == 0) return rank;
+                rank++;
+                cur = cur.getRight();
+            }
+        }
+        return rank;
+    }
+
+    @Override
+    public T select(int k) {
+        AVLNode<T> cur = root;
+        if (k < 0 || k >= size(cur)) return null;
+
+        while (cur != null) {
+            int leftSize = size(cur.getLeft());
+            if (k < leftSize) {
+                cur = cur.getLeft();
+            } else if (k == leftSize) {
+                return cur.getKey();
+            } else {
+                k -= leftSize + 1;
+                cur = cur.getRight();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void traverse() {
+        for (T item : this) {
+            System.out.print(item + " ");
+        }
+        System.out.println();
+    }
+
+    // Sized to the version actually copied, which may differ from an earlier size() call
+    @Override
+    @SuppressWarnings("unchecked")
+    public T[] toArrayInorder(T[] arr) {
+        AVLNode<T> r = root;
+        int n = size(r);
+        if (arr.length != n)
+            arr = (T[]) java.lang.reflect.Array.newInstance(arr.getClass().getComponentType(), n);
+
+        int i = 0;
+        Iterator<T> it = new AVLInOrderIterator<>(r);
+        while (it.hasNext()) {
+            arr[i++] = it.next();
+        }
+        return arr;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new AVLInOrderIterator<>(root);
+    }
+
+    // Nodes are never modified, so this is safe to traverse while writers carry on
+    @Override
+    public Spliterator<T> spliterator() {
+        return new AVLSpliterator<>(root);
+    }
+
+    @Override
+    public Iterator<T> descendingIterator() {
+        return new AVLInOrderIterator<>(root, true);
+    }
+
+    @Override
+    public Iterator<T> iteratorFrom(T key) {
+        return new AVLRangeIterator<>(root, key, true, null, false);
+    }
+
+    @Override
+    public Iterable<T> range(T lo, boolean loInclusive, T hi, boolean hiInclusive) {
+        return () -> new AVLRangeIterator<>(root, lo, loInclusive, hi, hiInclusive);
+    }
+
+    @Override
+    public Iterable<T> tailFrom(T lo, boolean inclusive) {
+        return () -> new AVLRangeIterator<>(root, lo, inclusive, null, false);
+    }
+
+    @Override
+    public Iterable<T> headUntil(T hi, boolean inclusive) {
+        return () -> new AVLRangeIterator<>(root, null, false, hi, inclusive);
+    }
+
+    @Override
+    public boolean isValidAVL() {
+        return checkAVL(root) >= 0;
+    }
+
+    // Height of a valid subtree, or -1 if ordering, balance, height or size is wrong
+    private int checkAVL(AVLNode<T> n) {
+        if (n == null) return 0;
+
+        int hl = checkAVL(n.getLeft());
+        int hr = checkAVL(n.getRight());
+        if (hl < 0 || hr < 0 || Math.abs(hl - hr) > 1) return -1;
+
+        if (n.getLeft() != null && n.getLeft().getKey().compareTo(n.getKey()) >= 0) return -1;
+        if (n.getRight() != null && n.getRight().getKey().compareTo(n.getKey()) <= 0) return -1;
+
+        int h = Math.max(hl, hr) + 1;
+        if (n.getHeight() != h) return -1;
+        if (n.getSize() != size(n.getLeft()) + size(n.getRight()) + 1) return -1;
+        return h;
+    }
+}
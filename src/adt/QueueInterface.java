@@ -1,5 +1,10 @@
 package adt;
 
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 public interface QueueInterface<T> extends Iterable<T> {
     public void enqueue(T newEntry);
     public T dequeue();
@@ -7,5 +12,17 @@ public interface QueueInterface<T> extends Iterable<T> {
     public boolean isEmpty();
     public void clear();
     public int size();
+    public T get(int index);                                  // 0 = front
+    public T removeFirstMatch(Predicate<? super T> filter);   // removed entry, or null
+    public int removeIf(Predicate<? super T> filter);         // number removed
+    public void replaceAll(UnaryOperator<T> operator);
     QueueIterator<T> getIterator();
+
+    default Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    default Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
 }
@@ -11,6 +11,7 @@ import entity.Shift;
 import java.time.*;
 import entity.Specialization;
 import control.DoctorReportGenerator;
+import dao.DoctorInitializer;
 import java.time.format.DateTimeFormatter;
 
 /**
@@ -23,7 +24,7 @@ public class DoctorUI {
     DoctorManagement dm;
     Doctor doctor = new Doctor();
     Validation validate = new Validation();
-    DoctorDutyManagement DocDuty = new DoctorDutyManagement();
+    DoctorDutyManagement DocDuty;
     DoctorReportGenerator ReportGen;
     Doctor[] doctors;
     String[] specializationOp = {"CARDIOLOGY", "NEUROLOGY", "ORTHOPEDICS", "PEDIATRICS", "DERMATOLOGY", "PSYCHIATRY", "ONCOLOGY", "GENERAL_SURGERY", "INTERNAL_MEDICINE", "OBSTETRICS_GYNECOLOGY", "OPHTHALMOLOGY", "OTOLARYNGOLOGY", "RADIOLOGY", "PATHOLOGY", "FAMILY_MEDICINE", "EMERGENCY_MEDICINE"};
@@ -35,35 +36,18 @@ public class DoctorUI {
     private boolean seeded = false;
 
     public DoctorUI(DoctorManagement dm) {
+        this(dm, new DoctorDutyManagement(dm));
+    }
+
+    public DoctorUI(DoctorManagement dm, DoctorDutyManagement docDuty) {
         this.dm = dm;
+        this.DocDuty = docDuty;
         this.ReportGen = new DoctorReportGenerator(DocDuty, dm);
     }
 
     public void initializeDoctors() {
-        // Hardcoded doctor information
         if (!seeded) {
-            Doctor A = new Doctor("D202408110001", "Nelson Cheng Ming Jian", "0182284609", "nelson@gmail.com", Specialization.PSYCHIATRY, "050715070395");
-            Doctor B = new Doctor(IDGenerator.next(IDType.DOCTOR), "Khor Kai Yang", "0121234567", "ky@gmail.com", Specialization.NEUROLOGY, "050704070498");
-            Doctor C = new Doctor(IDGenerator.next(IDType.DOCTOR), "Ng Wei Jian", "0121234467", "wj@gmail.com", Specialization.CARDIOLOGY, "050123071233");
-            Doctor D = new Doctor(IDGenerator.next(IDType.DOCTOR), "Sim Jia Quan", "0121334567", "jq@gmail.com", Specialization.GENERAL_SURGERY, "050704070433");
-            Doctor E = new Doctor(IDGenerator.next(IDType.DOCTOR), "Giggs Teh Ting Wei", "0121234547", "tw@gmail.com", Specialization.CARDIOLOGY, "050123071223");
-
-            if (dm.findDoctor(A) == null) {
-                dm.registerDoctor(A);
-            }
-            if (dm.findDoctor(B) == null) {
-                dm.registerDoctor(B);
-            }
-            if (dm.findDoctor(C) == null) {
-                dm.registerDoctor(C);
-            }
-            if (dm.findDoctor(D) == null) {
-                dm.registerDoctor(D);
-            }
-            if (dm.findDoctor(E) == null) {
-                dm.registerDoctor(E);
-            }
-
+            DoctorInitializer.initialize(dm); // no-op unless the roster is empty
             doctors = dm.getAllDoctor();
             seeded = true;
         }
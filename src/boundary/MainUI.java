@@ -1,22 +1,46 @@
 package boundary;
 
 import control.*;
+import dao.Journal;
 
 import javax.swing.JOptionPane;
 import javax.swing.JTextArea;
 
+import utility.IDGenerator;
 import utility.JOptionPaneConsoleIO;
 
+import java.io.IOException;
+import java.nio.file.Path;
+
 public class MainUI {
     public static void main(String[] args) {
-        PatientManagement pm = new PatientManagement();
-        DoctorManagement dm = new DoctorManagement();
-        DoctorUI tempDoctorUI = new DoctorUI(dm);
-        tempDoctorUI.initializeDoctors();
-        ConsultationManagement cm = new ConsultationManagement(pm, dm);
-        cm.initializeData(); // Initialize consultation data
+        // -Dclinic.idstore=<file> keeps ID sequences unique across restarts
+        String idStore = System.getProperty("clinic.idstore");
+        if (idStore != null) {
+            try {
+                IDGenerator.attachStore(Path.of(idStore));
+            } catch (IOException e) {
+                JOptionPane.showMessageDialog(null, "ID store unavailable, IDs are kept in memory only.\n" + e.getMessage());
+            }
+        }
         
-        //MedicalTreatmentManagement tm = new MedicalTreatmentManagement();
+        // -Dclinic.datadir=<dir> saves every change there and reloads it on the next start
+        String dataDir = System.getProperty("clinic.datadir");
+        if (dataDir != null) {
+            try {
+                Journal.open(Path.of(dataDir));
+                Journal.onSnapshotFailure(e -> JOptionPane.showMessageDialog(null,
+                        "Could not write a snapshot; changes are still saved in the log.\n" + e.getMessage()));
+            } catch (IOException e) {
+                JOptionPane.showMessageDialog(null, "Data directory unavailable, changes are kept in memory only.\n" + e.getMessage());
+            }
+        }
+        
+        // Modules load in the background while the welcome screen is up;
+        // opening one that is not ready yet just waits for it
+        ModuleRegistry registry = new ModuleRegistry();
+        registry.preload();
+        PharmacyModuleUI pharmacy = null;
         
         String welcome = 
                 """
@@ -55,12 +79,24 @@ public class MainUI {
             );
             
             switch (choice) {
-                case 0 -> new PatientUI(pm).run();
-                case 1 -> new DoctorUI(dm).taskSelection();
-                case 2 -> new ConsultationUI(cm, pm, dm).run();
+                case 0 -> new PatientUI(registry.patients()).run();
+                case 1 -> new DoctorUI(registry.doctors(), registry.duties()).taskSelection();
+                case 2 -> new ConsultationUI(registry.consultations(), registry.patients(), registry.doctors()).run();
                 case 3 -> JOptionPane.showMessageDialog(null, "Medical Treatment Module: Not yet implemented.");
-                case 4 -> new PharmacyModuleUI().run();
+                case 4 -> {
+                    if (pharmacy == null) {
+                        pharmacy = new PharmacyModuleUI(registry.stock());
+                    }
+                    pharmacy.run();
+                }
             }
         } while (choice != 5 && choice != -1);
+        
+        registry.awaitLoading(); // nothing may still be writing when the journal closes
+        try {
+            Journal.close(); // final snapshot, so the next start replays little
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(null, "Could not write the final snapshot; it will be rebuilt from the log.\n" + e.getMessage());
+        }
     }
 }
@@ -11,6 +11,7 @@ import utility.*;
 public class PatientProfileUI {
     private final PatientManagement pm;
     private final Validation validate = new Validation();
+    private static final int MAX_MATCHES = 20; // name search options shown at once
     
     private Patient tempPatient;
     
@@ -65,7 +66,7 @@ public class PatientProfileUI {
         
         // decide the search type
         if (validate.validName(detail)) {
-            matches = pm.findPatientsByName(detail);
+            matches = pm.searchPatientsByName(detail, MAX_MATCHES);
         } else if (validate.validPhone(validate.standardizedPhone(detail))) {
             String phone = validate.standardizedPhone(detail);
             match = pm.findPatientByPhone(phone);
@@ -204,9 +205,9 @@ public class PatientProfileUI {
                 break;
 
             case 5: // Age
-                valid = validate.validNumber(newValue, 0, 120);
+                valid = validate.validNumber(newValue, 1, 120);
                 if (!valid) {
-                    JOptionPaneConsoleIO.showError("Please enter a valid age (0–120).");
+                    JOptionPaneConsoleIO.showError("Please enter a valid age (1–120).");
                 }
                 break;
 
@@ -388,11 +389,11 @@ public class PatientProfileUI {
             
             if (a == null) return null;
             
-            if (validate.validNumber(a, 0, 120)) {
+            if (validate.validNumber(a, 1, 120)) {
                 age = Integer.parseInt(a);
                 valid = true;
             } else {
-                JOptionPaneConsoleIO.showError("Please enter a valid age (0–120).");
+                JOptionPaneConsoleIO.showError("Please enter a valid age (1–120).");
             }
         }
         
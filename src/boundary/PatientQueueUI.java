@@ -12,6 +12,7 @@ import utility.*;
 public class PatientQueueUI {
     private final PatientManagement pm;
     private final Validation validate = new Validation();
+    private static final int MAX_MATCHES = 20; // name search options shown at once
     
     public PatientQueueUI(PatientManagement pm) {
         this.pm = pm;
@@ -26,6 +27,7 @@ public class PatientQueueUI {
             "Find Position",
             "View Queue",
             "Remove",
+            "Toggle Triage",
             "Back"
         };
         
@@ -42,7 +44,8 @@ public class PatientQueueUI {
                 case 2 -> findPosition();
                 case 3 -> viewQueue();
                 case 4 -> removeVisit();
-                case 5, -1 -> repeat = false;
+                case 5 -> toggleTriage();
+                case 6, -1 -> repeat = false;
                 default -> JOptionPaneConsoleIO.showError("Please choose a valid option.");
             }
         }
@@ -161,6 +164,18 @@ public class PatientQueueUI {
         }
     }
     
+    private void toggleTriage() {
+        boolean enable = !pm.isTriageMode();
+        String msg = enable
+                ? "Switch to triage mode?\nAppointments are served ahead of walk-ins who arrived up to 15 minutes earlier."
+                : "Switch back to first-come, first-served?";
+        
+        if (JOptionPaneConsoleIO.confirmDialog(msg, "Triage Mode")) {
+            pm.setTriageMode(enable);
+            JOptionPaneConsoleIO.showInfo("Triage mode is now " + (enable ? "ON." : "OFF."));
+        }
+    }
+    
     private Patient promptForPatient(String title) {
         Patient match = null;
         boolean cancel = false;
@@ -177,7 +192,7 @@ public class PatientQueueUI {
             
             // decide the prompt type
             if (validate.validName(input)) {
-                matches = pm.findPatientsByName(input);
+                matches = pm.searchPatientsByName(input, MAX_MATCHES);
             } else if (validate.validPhone(validate.standardizedPhone(input))) {
                 match = pm.findPatientByPhone(validate.standardizedPhone(input));
             } else if (validate.validEmail(input)) {
@@ -11,16 +11,24 @@ import utility.JOptionPaneConsoleIO;
 
 public class PharmacyModuleUI {
 
-    StockMaintenance stock = new StockMaintenance();
+    private final StockMaintenance stock;
     private final LinkedQueue<Prescription> prescriptionQueue = new LinkedQueue<>();
     private final PharmacistManagement pharmacistManagement = new PharmacistManagement();
-    private final MedicineDispenser dispenser = new MedicineDispenser(stock, prescriptionQueue);
+    private final MedicineDispenser dispenser;
+    private boolean seeded = false;
 
+    // stock is the shared StockMaintenance, already seeded by the registry
+    public PharmacyModuleUI(StockMaintenance stock) {
+        this.stock = stock;
+        this.dispenser = new MedicineDispenser(stock, prescriptionQueue);
+    }
     
     public void run() {
-        StockInitializer.initialize(stock);
-        PrescriptionInitializer.initialize(prescriptionQueue, dispenser);
-        PharmacistInitializer.initialize(pharmacistManagement);
+        if (!seeded) {
+            PrescriptionInitializer.initialize(prescriptionQueue, dispenser);
+            PharmacistInitializer.initialize(pharmacistManagement);
+            seeded = true;
+        }
         
         int choice;
         do {
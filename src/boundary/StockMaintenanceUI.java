@@ -3,8 +3,6 @@ package boundary;
 import control.StockMaintenance;
 import control.PharmacistReportGenerator;
 
-import dao.StockInitializer;
-
 import entity.MedicineName;
 import entity.StockBatch;
 
@@ -20,18 +18,10 @@ public class StockMaintenanceUI {
     private  StockMaintenance stock;
     private  PharmacistReportGenerator reports;
     private static final Validation validate = new Validation();
-    private static boolean seeded = false; 
 
+    // stock comes seeded from the ModuleRegistry
     public StockMaintenanceUI(StockMaintenance stock) {
         this.stock = stock;
-        ensureSeeded(); 
-    }
-    
-    private void ensureSeeded() {
-    if (!seeded) {
-        StockInitializer.initialize(stock);   // call your initializer here
-        seeded = true;
-        }
     }
     
     public void run() {
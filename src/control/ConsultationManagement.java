@@ -2,15 +2,29 @@ package control;
 
 import adt.*;
 import dao.ConsultationInitializer;
+import dao.Journal;
 import entity.*;
 import entity.keys.*;
+import utility.IDCodec;
 import utility.IDGenerator;
 import utility.IDType;
 
+import java.util.Arrays;
+import java.util.Comparator;
+
 public class ConsultationManagement {
-    private final AVLTree<ConsultationByID> idxByID = new AVLTree<>();
-    private final AVLTree<ConsultationByPatientID> idxByPatientID = new AVLTree<>();
-    private final AVLTree<ConsultationByDoctorID> idxByDoctorID = new AVLTree<>();
+    // Live rows: the packed IDCodec key of the consultation ID is the primary key
+    // (exact match on a long), and the patient/doctor indexes are kept in
+    // (patientID | doctorID, consultationID) order
+    private final IndexedTable<Long, Consultation> rows =
+            IndexedTable.longKeyed(c -> IDCodec.parse(c.getConsultationID()));
+    private final IndexedTable<Long, Consultation>.OrderedIndex<String> idxByPatientID =
+            rows.addOrderedIndex(Consultation::getPatientID, Comparator.naturalOrder());
+    private final IndexedTable<Long, Consultation>.OrderedIndex<String> idxByDoctorID =
+            rows.addOrderedIndex(Consultation::getDoctorID, Comparator.naturalOrder());
+    // Persistent (ID, status) entries behind snapshot(); the table refreshes an entry on every update
+    private final IndexedTable<Long, Consultation>.VersionedIndex<ConsultationByID> idxByID =
+            rows.addVersionedIndex(ConsultationByID::new);
         
     private final PatientManagement patientManagement;
     private final DoctorManagement doctorManagement;
@@ -19,10 +33,17 @@ public ConsultationManagement(PatientManagement patientManagement,
                              DoctorManagement doctorManagement) {
     this.patientManagement = patientManagement;
     this.doctorManagement = doctorManagement;
+    // consultations saved by an earlier run (none unless a journal is open)
+    Consultation[] saved = Journal.rows(Journal.Table.CONSULTATION, Consultation.class);
+    if (saved.length > 0) {
+        buildIndexes(saved);
+    }
 }
 
     public void initializeData() {
-        ConsultationInitializer.initialize(this, patientManagement, doctorManagement); 
+        if (rows.isEmpty()) { // sample data only on a fresh start
+            ConsultationInitializer.initialize(this, patientManagement, doctorManagement);
+        }
     }
     
     /* ---------- Validation Methods ---------- */
@@ -43,10 +64,7 @@ public ConsultationManagement(PatientManagement patientManagement,
         }
         
         /* Verify the doctor exists in the Doctor Management module */
-        Doctor searchKey = new Doctor();
-        searchKey.setDoctorID(doctorID);
-        Doctor foundDoctor = doctorManagement.findDoctor(searchKey);
-        return foundDoctor != null;
+        return doctorManagement.findDoctorByID(doctorID) != null;
     }
     
     /*Validates both patient and doctor IDs for consultation creation*/
@@ -126,9 +144,8 @@ public ConsultationManagement(PatientManagement patientManagement,
             return false;
         }
         
-        AVLTree<Consultation> patientConsultations = getConsultationsByPatientID(patientID);
-        for (Consultation consultation : patientConsultations) {
-            if (consultation.isInProgress()) {
+        for (Consultation entry : patientRange(patientID)) {
+            if (entry.isInProgress()) {
                 return true;
             }
         }
@@ -141,9 +158,8 @@ public ConsultationManagement(PatientManagement patientManagement,
             return false;
         }
         
-        AVLTree<Consultation> doctorConsultations = getConsultationsByDoctorID(doctorID);
-        for (Consultation consultation : doctorConsultations) {
-            if (consultation.isInProgress()) {
+        for (Consultation entry : doctorRange(doctorID)) {
+            if (entry.isInProgress()) {
                 return true;
             }
         }
@@ -152,12 +168,30 @@ public ConsultationManagement(PatientManagement patientManagement,
         
     /* ---------- Indexing Methods ---------- */
     
-    public void indexConsultation(Consultation consultation) {
-        idxByID.insert(new ConsultationByID(consultation.getConsultationID(), consultation));
-        idxByPatientID.insert(new ConsultationByPatientID(consultation.getPatientID(), 
-                                                         consultation.getConsultationID(), consultation));
-        idxByDoctorID.insert(new ConsultationByDoctorID(consultation.getDoctorID(), 
-                                                       consultation.getConsultationID(), consultation));
+    /* Returns false (and stores nothing) if the consultation ID is already taken */
+    public boolean indexConsultation(Consultation consultation) {
+        if (!rows.insert(consultation)) {
+            return false;
+        }
+        Journal.put(Journal.Table.CONSULTATION, consultation);
+        return true;
+    }
+    
+    /* Bulk variant for initial loads: each index is sorted and built once */
+    public void indexConsultations(Consultation[] batch) {
+        buildIndexes(batch);
+        
+        // log only the rows that went in; a rejected one must not overwrite the stored row
+        Consultation[] inserted = new Consultation[batch.length];
+        int k = 0;
+        for (Consultation c : batch) {
+            if (rows.get(IDCodec.parse(c.getConsultationID())) == c) inserted[k++] = c;
+        }
+        Journal.putAll(Journal.Table.CONSULTATION, Arrays.copyOf(inserted, k));
+    }
+    
+    private void buildIndexes(Consultation[] batch) {
+        rows.insertAll(batch);
     }
     
     /* ---------- Core Operations ---------- */
@@ -180,7 +214,9 @@ public ConsultationManagement(PatientManagement patientManagement,
         
         Consultation consultation = new Consultation(consultationID, patientID, doctorID);
         
-        indexConsultation(consultation);
+        if (!indexConsultation(consultation)) {
+            return "Error: Consultation ID " + consultationID + " is already in use. Please try again.";
+        }
         
         return String.format(
             "Consultation started successfully.\n" +
@@ -209,6 +245,8 @@ public ConsultationManagement(PatientManagement patientManagement,
         consultation.setSymptoms(symptoms);
         consultation.setDiagnosis(diagnosis);
         consultation.setNotes(notes);
+        rows.update(consultation);
+        Journal.put(Journal.Table.CONSULTATION, consultation);
         
         return "Consultation details updated successfully.";
     }
@@ -228,6 +266,8 @@ public ConsultationManagement(PatientManagement patientManagement,
         }
         
         consultation.completeConsultation(finalDiagnosis, treatmentNotes);
+        rows.update(consultation); // new status entry for later snapshots
+        Journal.put(Journal.Table.CONSULTATION, consultation);
         
         return "Consultation completed successfully.";
     }
@@ -244,6 +284,8 @@ public ConsultationManagement(PatientManagement patientManagement,
         
         consultation.cancelConsultation();
         consultation.setNotes(consultation.getNotes() + "\nCancellation Reason: " + reason);
+        rows.update(consultation);
+        Journal.put(Journal.Table.CONSULTATION, consultation);
         
         return "Consultation cancelled successfully.";
     }
@@ -251,18 +293,14 @@ public ConsultationManagement(PatientManagement patientManagement,
     /* ---------- Search Operations ---------- */
     
     public Consultation getConsultationByID(String consultationID) {
-        ConsultationByID key = new ConsultationByID(consultationID, null);
-        ConsultationByID result = idxByID.find(key);
-        return result != null ? result.getConsultation() : null;
+        return rows.get(IDCodec.parse(consultationID)); // INVALID finds nothing
     }
     
     public AVLTree<Consultation> getConsultationsByPatientID(String patientID) {
         AVLTree<Consultation> consultations = new AVLTree<>();
         
-        for (ConsultationByPatientID consultation : idxByPatientID) {
-            if (consultation.getPatientID().equals(patientID)) {
-                consultations.insert(consultation.getConsultation());
-            }
+        for (Consultation consultation : patientRange(patientID)) {
+            consultations.insert(consultation);
         }
         
         return consultations;
@@ -271,10 +309,8 @@ public ConsultationManagement(PatientManagement patientManagement,
     public AVLTree<Consultation> getConsultationsByDoctorID(String doctorID) {
         AVLTree<Consultation> consultations = new AVLTree<>();
         
-        for (ConsultationByDoctorID consultation : idxByDoctorID) {
-            if (consultation.getDoctorID().equals(doctorID)) {
-                consultations.insert(consultation.getConsultation());
-            }
+        for (Consultation consultation : doctorRange(doctorID)) {
+            consultations.insert(consultation);
         }
         
         return consultations;
@@ -283,8 +319,8 @@ public ConsultationManagement(PatientManagement patientManagement,
     public AVLTree<Consultation> getAllConsultations() {
         AVLTree<Consultation> consultations = new AVLTree<>();
         
-        for (ConsultationByID consultation : idxByID) {
-            consultations.insert(consultation.getConsultation());
+        for (ConsultationByID entry : snapshot().entries()) {
+            consultations.insert(entry.getConsultation());
         }
         
         return consultations;
@@ -292,11 +328,9 @@ public ConsultationManagement(PatientManagement patientManagement,
     
     public AVLTree<Consultation> getActiveConsultations() {
         AVLTree<Consultation> activeConsultations = new AVLTree<>();
-        AVLTree<Consultation> allConsultations = getAllConsultations();
-        
-        for (Consultation consultation : allConsultations) {
-            if (consultation.isInProgress()) {
-                activeConsultations.insert(consultation);
+        for (ConsultationByID entry : snapshot().entries()) {
+            if (entry.getStatus() == ConsultationStatus.IN_PROGRESS) {
+                activeConsultations.insert(entry.getConsultation());
             }
         }
         
@@ -305,11 +339,9 @@ public ConsultationManagement(PatientManagement patientManagement,
     
     public AVLTree<Consultation> getCompletedConsultations() {
         AVLTree<Consultation> completedConsultations = new AVLTree<>();
-        AVLTree<Consultation> allConsultations = getAllConsultations();
-        
-        for (Consultation consultation : allConsultations) {
-            if (consultation.isCompleted()) {
-                completedConsultations.insert(consultation);
+        for (ConsultationByID entry : snapshot().entries()) {
+            if (entry.getStatus() == ConsultationStatus.COMPLETED) {
+                completedConsultations.insert(entry.getConsultation());
             }
         }
         
@@ -318,45 +350,59 @@ public ConsultationManagement(PatientManagement patientManagement,
     
     /* ---------- Statistics and Reports ---------- */
     
+    /* Each count below reads its own snapshot, so two of them can disagree.
+       Take one snapshot() and read every figure from it instead */
+    @Deprecated
     public int getTotalConsultationsCount() {
-        return idxByID.size();
+        return snapshot().getTotalCount();
     }
     
+    @Deprecated
     public int getActiveConsultationsCount() {
-        AVLTree<Consultation> activeConsultations = getActiveConsultations();
-        return activeConsultations.size();
+        return snapshot().getActiveCount();
     }
     
+    @Deprecated
     public int getCompletedConsultationsCount() {
-        AVLTree<Consultation> completedConsultations = getCompletedConsultations();
-        return completedConsultations.size();
+        return snapshot().getCompletedCount();
+    }
+    
+    /* O(1) frozen view for reports; later changes, status changes included, do not affect it */
+    public ConsultationSnapshot snapshot() {
+        return new ConsultationSnapshot(idxByID.snapshot());
     }
     
     public int getConsultationsCountByDoctor(String doctorID) {
-        AVLTree<Consultation> doctorConsultations = getConsultationsByDoctorID(doctorID);
-        return doctorConsultations.size();
+        return doctorID == null ? 0 : idxByDoctorID.countKey(doctorID);
     }
     
     public int getConsultationsCountByPatient(String patientID) {
-        AVLTree<Consultation> patientConsultations = getConsultationsByPatientID(patientID);
-        return patientConsultations.size();
+        return patientID == null ? 0 : idxByPatientID.countKey(patientID);
     }
     
     /* ---------- Helper Methods ---------- */
     
+    /* All consultations for one ID, in consultation-ID order */
+    private Iterable<Consultation> patientRange(String patientID) {
+        return idxByPatientID.equalRange(patientID);
+    }
+    
+    private Iterable<Consultation> doctorRange(String doctorID) {
+        return idxByDoctorID.equalRange(doctorID);
+    }
+    
     private Doctor getDoctorByID(String doctorID) {
-        Doctor searchKey = new Doctor();
-        searchKey.setDoctorID(doctorID);
-        return doctorManagement.findDoctor(searchKey);
+        return doctorManagement.findDoctorByID(doctorID);
     }
     
     /* ---------- Utility Methods ---------- */
     
     public String getConsultationSummary() {
-        int total = getTotalConsultationsCount();
-        int active = getActiveConsultationsCount();
-        int completed = getCompletedConsultationsCount();
-        int cancelled = total - active - completed;
+        ConsultationSnapshot snapshot = snapshot();
+        int total = snapshot.getTotalCount();
+        int active = snapshot.getActiveCount();
+        int completed = snapshot.getCompletedCount();
+        int cancelled = snapshot.getCancelledCount();
         
         return String.format(
             "=== Consultation Summary ===\n" +
@@ -369,15 +415,67 @@ public ConsultationManagement(PatientManagement patientManagement,
     }
     
     public Consultation getActiveConsultationByPatient(String patientID) {
-        AVLTree<Consultation> patientConsultations = getConsultationsByPatientID(patientID);
-        for (Consultation consultation : patientConsultations) {
-            if (consultation.isInProgress()) {
-                return consultation;
+        for (Consultation entry : patientRange(patientID)) {
+            if (entry.isInProgress()) {
+                return entry;
             }
         }
         return null;
     }
     
+    /* ---------- Snapshot Inner Class ---------- */
+    
+    /* One version of the consultation index. Each entry keeps the status it had in that
+       version, so the counts (taken in one pass, on first use) never see later changes */
+    public static class ConsultationSnapshot {
+        private final AVLInterface<ConsultationByID> byID;
+        private boolean counted;
+        private int active;
+        private int completed;
+        private int cancelled;
+        
+        ConsultationSnapshot(AVLInterface<ConsultationByID> byID) {
+            this.byID = byID;
+        }
+        
+        private void countStatuses() {
+            if (counted) return;
+            
+            for (ConsultationByID entry : byID) {
+                switch (entry.getStatus()) {
+                    case IN_PROGRESS -> active++;
+                    case COMPLETED -> completed++;
+                    case CANCELLED -> cancelled++;
+                }
+            }
+            counted = true;
+        }
+        
+        public int getTotalCount() {
+            return byID.size();
+        }
+        
+        public int getActiveCount() {
+            countStatuses();
+            return active;
+        }
+        
+        public int getCompletedCount() {
+            countStatuses();
+            return completed;
+        }
+        
+        public int getCancelledCount() {
+            countStatuses();
+            return cancelled;
+        }
+        
+        /* Read the status from the entry: getConsultation() is the live row */
+        public Iterable<ConsultationByID> entries() {
+            return byID;
+        }
+    }
+    
     /* ---------- Validation Result Inner Class ---------- */
     
     /* Hold validation results with error messages */
@@ -5,6 +5,7 @@ import entity.Consultation;
 import entity.ConsultationStatus;
 import entity.Doctor;
 import entity.Patient;
+import entity.keys.ConsultationByID;
 
 import java.time.format.DateTimeFormatter;
 
@@ -41,11 +42,12 @@ public class ConsultationReportGenerator {
         sb.append(center("Comprehensive Consultation Summary", WIDTH)).append('\n');
         sb.append(line('=', WIDTH)).append('\n');
         
-        /* Statistics Section */
-        int total = consultationManagement.getTotalConsultationsCount();
-        int active = consultationManagement.getActiveConsultationsCount();
-        int completed = consultationManagement.getCompletedConsultationsCount();
-        int cancelled = total - active - completed;
+        /* Statistics Section (all figures come from one frozen snapshot) */
+        ConsultationManagement.ConsultationSnapshot snapshot = consultationManagement.snapshot();
+        int total = snapshot.getTotalCount();
+        int active = snapshot.getActiveCount();
+        int completed = snapshot.getCompletedCount();
+        int cancelled = snapshot.getCancelledCount();
         
         sb.append(line('-', WIDTH)).append('\n');
         sb.append(center("Consultation Statistics", WIDTH)).append('\n');
@@ -104,10 +106,10 @@ public class ConsultationReportGenerator {
         sb.append(String.format("%-20s %-30s %-18s %-15s %-15s%n", 
             "--------------------", "------------------------------", "------------------", "---------------", "---------------"));
         
-        AVLTree<Consultation> allConsultations = consultationManagement.getAllConsultations();
         int count = 0;
-        for (Consultation consultation : allConsultations) {
+        for (ConsultationByID entry : snapshot.entries()) {
             if (count >= 10) break;
+            Consultation consultation = entry.getConsultation();
             
             Patient patient = patientManagement.findPatientByID(consultation.getPatientID());
             String patientName = patient != null ? patient.getPatientName() : "Unknown";
@@ -117,7 +119,7 @@ public class ConsultationReportGenerator {
                 truncate(patientName, 28),
                 consultation.getDoctorID(),
                 consultation.getConsultationDateTime().format(DATE_FORMATTER),
-                formatStatus(consultation.getStatus())));
+                formatStatus(entry.getStatus())));
             count++;
         }
         
@@ -135,7 +137,7 @@ public class ConsultationReportGenerator {
     public String generateDoctorReport(String doctorID) {
         StringBuilder sb = new StringBuilder();
         
-        Doctor doctor = doctorManagement.findDoctor(new Doctor(doctorID, "", "", "", null, ""));
+        Doctor doctor = doctorManagement.findDoctorByID(doctorID);
         String doctorName = doctor != null ? doctor.getDoctorName() : "Unknown Doctor";
         
         /* Header */
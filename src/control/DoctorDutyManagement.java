@@ -1,15 +1,16 @@
 package control;
 
-import adt.AVLTree;
+import adt.KeyedAVLTree;
+import dao.Journal;
 import entity.DoctorDuty;
 import entity.Availability;
 import entity.Doctor;
 import entity.Shift;
-import entity.keys.DutyByDoctorDateShift;
 import entity.keys.DutyByDateShift;
 import utility.Validation;
 import java.time.*;
 import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
 
 /**
  *
@@ -17,45 +18,56 @@ import java.time.format.DateTimeFormatter;
  */
 public class DoctorDutyManagement {
 
-    // Unique index: (doctorID, date, shift) -> DoctorDuty
-    private final AVLTree<DutyByDoctorDateShift> idxByDoctorDateShift = new AVLTree<>();
+    // Unique index: (doctorID, date, shift) -> DoctorDuty, looked up by the raw parts
+    private final KeyedAVLTree<String, DoctorDuty> idxByDoctorDateShift = new KeyedAVLTree<>(
+            DoctorDuty::getDoctorID, Comparator.naturalOrder(),
+            Comparator.comparing(DoctorDuty::getDate).thenComparing(DoctorDuty::getShift));
     // Grouped index: (date, shift) -> bucket of duties
-    private final AVLTree<DutyByDateShift> idxByDateShift = new AVLTree<>();
+    private final KeyedAVLTree<LocalDate, DutyByDateShift> idxByDateShift = new KeyedAVLTree<>(
+            DutyByDateShift::getDate, Comparator.naturalOrder(),
+            Comparator.comparing(DutyByDateShift::getShift));
     Validation validate = new Validation();
-    DoctorManagement dm = new DoctorManagement();
+    private final DoctorManagement dm; // shared with the Doctor module, never a private copy
+
+    public DoctorDutyManagement(DoctorManagement dm) {
+        this.dm = dm;
+        // duties saved by an earlier run (none unless a journal is open)
+        for (DoctorDuty duty : Journal.rows(Journal.Table.DUTY, DoctorDuty.class)) {
+            indexDuty(duty);
+        }
+    }
 
     // Adding a new duty
     public boolean addDuty(DoctorDuty duty) {
-        if (duty == null) {
+        if (!indexDuty(duty)) {
             return false;
         }
+        Journal.put(Journal.Table.DUTY, duty);
+        return true;
+    }
 
-        DutyByDoctorDateShift uniqueKey = new DutyByDoctorDateShift(duty.getDoctorID(), duty.getDate(), duty.getShift(), duty);
-
-        if (idxByDoctorDateShift.find(uniqueKey) != null) {
+    // Puts a duty in both indexes without logging it
+    private boolean indexDuty(DoctorDuty duty) {
+        if (duty == null || duty.getDoctorID() == null || duty.getDate() == null || duty.getShift() == null) {
             return false;
         }
 
-        if (!idxByDoctorDateShift.insert(uniqueKey)) {
+        // One descent both checks for an existing duty and inserts the new one
+        if (!idxByDoctorDateShift.insert(duty)) {
             return false;
         }
 
-        DutyByDateShift groupProbe = new DutyByDateShift(duty.getDate(), duty.getShift());
-        DutyByDateShift groupNode = idxByDateShift.find(groupProbe);
+        DutyByDateShift groupNode = findGroup(duty.getDate(), duty.getShift());
         boolean insertedGroupNode = false;
-
         if (groupNode == null) {
-            groupNode = groupProbe;
-            insertedGroupNode = idxByDateShift.insert(groupNode);
-            if (!insertedGroupNode) {
-                idxByDoctorDateShift.delete(uniqueKey);
-                return false;
-            }
+            groupNode = new DutyByDateShift(duty.getDate(), duty.getShift());
+            idxByDateShift.insert(groupNode);
+            insertedGroupNode = true;
         }
 
-        boolean groupInsertion = groupNode.add(uniqueKey);
+        boolean groupInsertion = groupNode.add(duty);
         if (!groupInsertion) {
-            idxByDoctorDateShift.delete(uniqueKey);
+            idxByDoctorDateShift.delete(duty);
 
             if (insertedGroupNode && groupNode.isEmpty()) {
                 idxByDateShift.delete(groupNode);
@@ -67,8 +79,7 @@ public class DoctorDutyManagement {
 
     // Remove certain duty
     public boolean removeDuty(String doctorID, LocalDate date, Shift shift) {
-        DutyByDoctorDateShift searchKey = new DutyByDoctorDateShift(doctorID, date, shift, null);
-        DutyByDoctorDateShift found = idxByDoctorDateShift.find(searchKey);
+        DoctorDuty found = findDuty(doctorID, date, shift);
 
         if (found == null) {
             return false;
@@ -79,9 +90,9 @@ public class DoctorDutyManagement {
         if (!deletion) {
             return false;
         }
+        Journal.delete(Journal.Table.DUTY, found);
 
-        DutyByDateShift groupProbe = new DutyByDateShift(date, shift);
-        DutyByDateShift groupNode = idxByDateShift.find(groupProbe);
+        DutyByDateShift groupNode = findGroup(date, shift);
 
         if (groupNode != null) {
             groupNode.remove(found);
@@ -94,15 +105,12 @@ public class DoctorDutyManagement {
 
     // SEARCH #1: exact search by (doctorID, date, shift).
     public DoctorDuty searchDutyByDoctorDateShift(String doctorID, LocalDate date, Shift shift) {
-        DutyByDoctorDateShift searchKey = new DutyByDoctorDateShift(doctorID, date, shift, null);
-        DutyByDoctorDateShift found = idxByDoctorDateShift.find(searchKey);
-        return (found == null) ? null : found.getDuty();
+        return findDuty(doctorID, date, shift);
     }
 
     // SEARCH #2: list all duties for a (date, shift).
     public DoctorDuty[] searchDutiesByDateShift(LocalDate date, Shift shift) {
-        DutyByDateShift searchKey = new DutyByDateShift(date, shift);
-        DutyByDateShift node = idxByDateShift.find(searchKey);
+        DutyByDateShift node = findGroup(date, shift);
 
         if (node == null) {
             return new DoctorDuty[0];
@@ -114,11 +122,11 @@ public class DoctorDutyManagement {
     // Update availability for an existing duty.
     public boolean updateAvailability(String doctorID, LocalDate date, Shift shift, Availability newAvailability) {
         if (!date.isBefore(LocalDate.now())) {
-            DutyByDoctorDateShift searchKey = new DutyByDoctorDateShift(doctorID, date, shift, null);
-            DutyByDoctorDateShift found = idxByDoctorDateShift.find(searchKey);
+            DoctorDuty found = findDuty(doctorID, date, shift);
 
             if (found != null) {
-                found.getDuty().setAvailability(newAvailability);
+                found.setAvailability(newAvailability);
+                Journal.put(Journal.Table.DUTY, found);
                 return true;
             }
 
@@ -138,8 +146,7 @@ public class DoctorDutyManagement {
         DoctorDuty[][] roster = MonthlyRosterTableMatrix(doctorID, year, month, true);
 
         StringBuilder sb = new StringBuilder(8192);
-        Doctor doctorDuty = new Doctor(doctorID.trim(), "", "", "", null, "");
-        Doctor found = dm.findDoctor(doctorDuty);
+        Doctor found = dm.findDoctorByID(doctorID);
         String doctorName = (found != null ? found.getDoctorName() : ("(" + doctorID + ")"));
         sb.append("Duty Roster for Dr. ").append(doctorName)
                 .append(" — ").append(ym).append('\n')
@@ -284,13 +291,25 @@ public class DoctorDutyManagement {
             // ignore if format not as expected
         }
 
+        // defaults are rebuilt on demand, so only edited duties go to the journal
         DoctorDuty created = new DoctorDuty(doctorID, date, shift, Availability.AVAILABLE);
-        return addDuty(created) ? created : null;
+        return indexDuty(created) ? created : null;
     }
 
     private DoctorDuty findDuty(String doctorID, LocalDate date, Shift shift) {
-        DutyByDoctorDateShift searchKey = new DutyByDoctorDateShift(doctorID, date, shift, null);
-        DutyByDoctorDateShift leaf = idxByDoctorDateShift.find(searchKey);
-        return (leaf == null) ? null : leaf.getDuty();
+        if (doctorID == null || date == null || shift == null) {
+            return null;
+        }
+        return idxByDoctorDateShift.get(doctorID, d -> {
+            int c = date.compareTo(d.getDate());
+            return c != 0 ? c : shift.compareTo(d.getShift());
+        });
+    }
+
+    private DutyByDateShift findGroup(LocalDate date, Shift shift) {
+        if (date == null || shift == null) {
+            return null;
+        }
+        return idxByDateShift.get(date, g -> shift.compareTo(g.getShift()));
     }
 }
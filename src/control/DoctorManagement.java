@@ -1,6 +1,7 @@
 package control;
 
 import adt.*;
+import dao.Journal;
 import entity.Doctor;
 import entity.Specialization;
 import utility.*;
@@ -11,11 +12,17 @@ import utility.*;
  */
 public class DoctorManagement {
 
-    AVLInterface<Doctor> doctorTree = new AVLTree<>();
+    // Doctors in ID order, looked up by the raw ID
+    KeyedAVLTree<String, Doctor> doctorTree = KeyedAVLTree.naturalOrder(Doctor::getDoctorID);
     Validation validate = new Validation();
     private final LinkedStack<Doctor> undoStack = new LinkedStack<>();
     final int width = 130;
 
+    public DoctorManagement() {
+        // doctors saved by an earlier run (none unless a journal is open)
+        doctorTree.insertAll(Journal.rows(Journal.Table.DOCTOR, Doctor.class));
+    }
+
     public boolean isEmptyTree() {
         return doctorTree.isEmpty();
     }
@@ -39,6 +46,10 @@ public class DoctorManagement {
         }
     }
 
+    public Doctor findDoctorByID(String doctorID) {
+        return doctorID == null ? null : doctorTree.get(doctorID.trim());
+    }
+
     public boolean updateDoctor(Doctor key, int infoSelected, String newName, String newPhone, String newEmail, Specialization newSpecialization) {
         Doctor selectedDoc = searchByKey(key);
         if (selectedDoc == null) {
@@ -64,6 +75,7 @@ public class DoctorManagement {
 
         if (ok) {
             undoStack.push(snapshot);
+            Journal.put(Journal.Table.DOCTOR, selectedDoc);
         }
         return ok;
     }
@@ -75,23 +87,24 @@ public class DoctorManagement {
 
         Doctor prev = undoStack.pop();
 
-        // Replace current record with the previous snapshot
-        Doctor current = searchByKey(new Doctor(prev.getDoctorID(), "", "", "", prev.getSpecialization(), prev.getIcNo()));
-        if (current != null) {
-            doctorTree.delete(current);
-        }
-        doctorTree.insert(prev);
+        // Replace current record with the previous snapshot (same doctorID, so one descent)
+        doctorTree.upsert(prev);
+        Journal.put(Journal.Table.DOCTOR, prev);
         return true;
     }
 
     public boolean removeDoctor(Doctor doctor) {
         Doctor selectedDoc = searchByKey(doctor);
-        return eraseDoctor(selectedDoc);
+        if (selectedDoc == null || !eraseDoctor(selectedDoc)) {
+            return false;
+        }
+        Journal.delete(Journal.Table.DOCTOR, selectedDoc);
+        return true;
     }
 
     public Doctor[] getAllDoctor() {
         Doctor[] doctors = new Doctor[doctorTree.size()];
-        return doctorTree.toArrayInorder(doctors);
+        return doctorTree.toArray(doctors);
     }
 
     public StringBuilder listDoctor() {
@@ -141,10 +154,21 @@ public class DoctorManagement {
         doctor.setContactNo(phone);
         String icNo = validate.standardizedIC(doctor.getIcNo());
         doctor.setIcNo(icNo);
-        return doctorTree.insert(doctor);
+        if (!doctorTree.insert(doctor)) {
+            return false;
+        }
+        Journal.put(Journal.Table.DOCTOR, doctor);
+        return true;
     }
 
     private Doctor searchByKey(Doctor doctor) {
+        // an ID is one descent; the other fields still need the scan below
+        if (!doctor.getDoctorID().isEmpty()) {
+            Doctor byID = doctorTree.get(doctor.getDoctorID());
+            if (byID != null) {
+                return byID;
+            }
+        }
         for (Doctor doc : getAllDoctor()) {
             if (!doctor.getDoctorID().isEmpty() && doctor.getDoctorID().equals(doc.getDoctorID())) {
                 return doc;
@@ -10,6 +10,8 @@ import java.time.format.DateTimeFormatter;
 import utility.Validation;
 import adt.LinkedQueue;
 import adt.AVLTree;
+import java.util.Arrays;
+import java.util.Objects;
 
 /**
  *
@@ -18,7 +20,7 @@ import adt.AVLTree;
 public class DoctorReportGenerator {
     private final DoctorDutyManagement DocDuty;
     Validation validate = new Validation();
-    DoctorManagement dm = new DoctorManagement();
+    private final DoctorManagement dm;
     private static final int WIDTH = 100;
 
     public DoctorReportGenerator(DoctorDutyManagement docDuty, DoctorManagement dm) {
@@ -73,7 +75,7 @@ public class DoctorReportGenerator {
         int denom = present + unavailable + onLeave;
         double rate = (denom == 0) ? 0.0 : ((double) present / (double) denom) * 100.0;
 
-        Doctor found = dm.findDoctor(new Doctor(doctorID.trim(), "", "", "", null, ""));
+        Doctor found = dm.findDoctorByID(doctorID);
         String name = (found != null && found.getDoctorName() != null && !found.getDoctorName().isBlank())
                         ? found.getDoctorName()
                         : doctorID;
@@ -165,11 +167,26 @@ public class DoctorReportGenerator {
 
         Doctor[] docs = dm.getAllDoctor();
         if (docs != null) {
-            for (Doctor d : docs) {
-                if (d == null) continue;
-                int[] data = computeAttendance(d.getDoctorID(), year, autoCreateWeekdays);
-                double pct = (data[1]==0 ? 0.0 : (data[0]*100.0/data[1]));
-                ranking.insert(new DoctorAttendance(d, pct, data[0], data[1]));
+            // creating weekday duties writes to the duty indexes, so that stays on this thread
+            if (autoCreateWeekdays) {
+                for (Doctor d : docs) {
+                    if (d != null) createWeekdayDuties(d.getDoctorID(), year);
+                }
+            }
+
+            // the per-doctor scans only read from here on, so they can run in parallel
+            DoctorAttendance[] rows = Arrays.stream(docs)
+                    .parallel()
+                    .filter(Objects::nonNull)
+                    .map(d -> {
+                        int[] data = computeAttendance(d.getDoctorID(), year, false);
+                        double pct = (data[1]==0 ? 0.0 : (data[0]*100.0/data[1]));
+                        return new DoctorAttendance(d, pct, data[0], data[1]);
+                    })
+                    .toArray(DoctorAttendance[]::new);
+
+            for (DoctorAttendance row : rows) {
+                ranking.insert(row);
             }
         }
 
@@ -189,6 +206,17 @@ public class DoctorReportGenerator {
     }
 
     // ---------- helpers ----------
+    private void createWeekdayDuties(String doctorID, int year) {
+        Shift[] shifts = Shift.values();
+        for (LocalDate date = LocalDate.of(year, 1, 1); date.getYear() == year; date = date.plusDays(1)) {
+            if (!validate.isWeekday(date)) continue;
+            for (Shift sh : shifts) {
+                if (DocDuty.searchDutyByDoctorDateShift(doctorID, date, sh) == null)
+                    DocDuty.WeekdayDuty(doctorID, date, sh);
+            }
+        }
+    }
+
     private int[] computeAttendance(String doctorID, int year, boolean autoCreateWeekdays){
         Shift[] shifts = Shift.values();
         int present = 0;
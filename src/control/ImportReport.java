@@ -0,0 +1,75 @@
+package control;
+
+import adt.LinkedQueue;
+
+/**
+ * Outcome of a bulk import: how many rows went in, and why each of the
+ * others was turned away. Rejections are listed in row order.
+ *
+ * @author Group 3
+ */
+public class ImportReport {
+
+    // One rejected row; row is the CSV line number, or the 1-based position in the batch
+    public static final class Rejection {
+        private final int row;
+        private final String id;
+        private final String reason;
+
+        Rejection(int row, String id, String reason) {
+            this.row = row;
+            this.id = id;
+            this.reason = reason;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        @Override
+        public String toString() {
+            return "Row " + row + (id == null ? "" : " (" + id + ")") + ": " + reason;
+        }
+    }
+
+    private int accepted;
+    private final LinkedQueue<Rejection> rejections = new LinkedQueue<>();
+
+    void accept(int count) {
+        accepted += count;
+    }
+
+    void reject(int row, String id, String reason) {
+        rejections.enqueue(new Rejection(row, id, reason));
+    }
+
+    public int getAccepted() {
+        return accepted;
+    }
+
+    public int getRejected() {
+        return rejections.size();
+    }
+
+    public Iterable<Rejection> getRejections() {
+        return rejections;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Imported ").append(accepted).append(", rejected ").append(getRejected()).append('\n');
+        for (Rejection r : rejections) {
+            sb.append(r).append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -1,6 +1,5 @@
 package control;
 
-import adt.LinkedQueue;
 import adt.QueueIterator;
 import entity.Patient;
 import entity.PatientHistory;
@@ -11,6 +10,7 @@ import utility.IDType;
 
 import javax.swing.JOptionPane;
 import java.time.LocalDateTime;
+import java.util.stream.Stream;
 
 public class MedicalTreatmentManagement {
     private final PatientManagement patientMgmt;
@@ -20,16 +20,13 @@ public class MedicalTreatmentManagement {
     public MedicalTreatmentManagement(PatientManagement pm, PatientHistoryManagement phm) {
         this.patientMgmt = pm;
         this.historyMgmt = phm;
+        phm.restoreRecords(pm);
     }
 
     public MedicalTreatmentManagement(PatientManagement pm) {
         this(pm, new PatientHistoryManagement());
     }
 
-    public MedicalTreatmentManagement() {
-        this(new PatientManagement(), new PatientHistoryManagement());
-    }
-
     public void preloadSampleTreatmentsFromPatients() {
         historyMgmt.preloadSampleTreatments(patientMgmt);
     }
@@ -81,7 +78,7 @@ public class MedicalTreatmentManagement {
             return;
         }
         StringBuilder sb = new StringBuilder("Treatment History for " + patientID + ":\n");
-        QueueIterator<TreatmentRecord> it = ((LinkedQueue<TreatmentRecord>) ph.getRecords()).getIterator();
+        QueueIterator<TreatmentRecord> it = ph.getRecords().getIterator();
         int i = 0;
         while (it.hasNext()) sb.append(++i).append(". ").append(it.getNext()).append("\n");
         JOptionPane.showMessageDialog(null, sb.toString());
@@ -116,6 +113,10 @@ public class MedicalTreatmentManagement {
         return historyMgmt.listAllHistories();
     }
 
+    public Stream<PatientHistory> historyStream() {
+        return historyMgmt.historyStream();
+    }
+
     public TreatmentRecord[] listAllRecords() {
         return historyMgmt.listAllRecords();
     }
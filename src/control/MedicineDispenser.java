@@ -1,6 +1,7 @@
 package control;
 
 import adt.LinkedQueue;
+import dao.Journal;
 import entity.*;
 import utility.IDGenerator;
 import utility.IDType;
@@ -19,12 +20,31 @@ public class MedicineDispenser {
     private final LinkedQueue<DispensedRecord> recordLog;
     private final LinkedQueue<String> auditLog;
     private final LinkedQueue<Prescription> prescriptionQueue;
+    private final boolean loadedFromJournal;
 
     public MedicineDispenser(StockMaintenance stock, LinkedQueue<Prescription> prescriptionQueue) {
         this.stock = stock;
         this.recordLog = new LinkedQueue<>();
         this.auditLog = new LinkedQueue<>();
         this.prescriptionQueue = prescriptionQueue;
+
+        // dispensing history saved by an earlier run, oldest first
+        DispensedRecord[] saved = Journal.rows(Journal.Table.DISPENSE, DispensedRecord.class);
+        for (DispensedRecord r : saved) {
+            recordLog.enqueue(r);
+        }
+        this.loadedFromJournal = saved.length > 0;
+    }
+
+    // True when the record log came back from the journal (so no sample history is needed)
+    public boolean loadedFromJournal() {
+        return loadedFromJournal;
+    }
+
+    // Appends to the record log and saves the record
+    public void addRecord(DispensedRecord record) {
+        recordLog.enqueue(record);
+        Journal.put(Journal.Table.DISPENSE, record);
     }
 
     public boolean dispense(Prescription p) {
@@ -39,7 +59,7 @@ public class MedicineDispenser {
                     recordID, p.getPrescriptionID(), p.getPatientID(), p.getDoctorID(),
                     LocalDateTime.now(), new MedicineName[0], new int[0], false, p.getRejectionReason(), null
             );
-            recordLog.enqueue(record);
+            addRecord(record);
 
             String now = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd hh:mm a"));
             auditLog.enqueue("[" + now + "] [FAILED] " + p.getPrescriptionID() + " — " + p.getRejectionReason());
@@ -70,7 +90,7 @@ public class MedicineDispenser {
                 recordID, p.getPrescriptionID(), p.getPatientID(), p.getDoctorID(),
                 LocalDateTime.now(), meds, qtys, true, null, p
         );
-        recordLog.enqueue(record);
+        addRecord(record);
         String now = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd hh:mm a"));
         auditLog.enqueue("[" + now + "] [DISPENSED] " + p.getPrescriptionID());
 
@@ -0,0 +1,156 @@
+package control;
+
+import dao.DoctorInitializer;
+import dao.StockInitializer;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Supplier;
+
+/**
+ * Owns the one instance of each manager. A module is built on first use, or
+ * ahead of time on a background thread by preload(); either way it is built
+ * exactly once and every caller gets the same object. Background loading
+ * only reads saved rows and seeds a module's own data; nothing it does
+ * touches a module the UI may already be changing.
+ *
+ * Modules that need another module ask the registry for it, so the Doctor,
+ * Duty and Consultation modules all share one DoctorManagement.
+ *
+ * @author Group 3
+ */
+public final class ModuleRegistry {
+
+    /* ---------- Modules ---------- */
+
+    // -Dclinic.sortindexes=true keeps age/gender listings indexed instead of sorted on demand
+    private final Module<PatientManagement> patients = new Module<>("patients",
+            () -> new PatientManagement(Boolean.getBoolean("clinic.sortindexes")));
+
+    private final Module<DoctorManagement> doctors = new Module<>("doctors", () -> {
+        DoctorManagement dm = new DoctorManagement();
+        DoctorInitializer.initialize(dm);
+        return dm;
+    });
+
+    private final Module<DoctorDutyManagement> duties = new Module<>("duties",
+            () -> new DoctorDutyManagement(doctors()));
+
+    // Saved consultations load in the background; the sample data reads the
+    // doctor tree, which only the UI thread may touch once it is up, so that
+    // part runs on the thread that first asks for the module
+    private final Module<ConsultationManagement> consultationRows = new Module<>("consultations",
+            () -> new ConsultationManagement(patients(), doctors()));
+
+    private final Module<ConsultationManagement> consultations = new Module<>("consultation data", () -> {
+        ConsultationManagement cm = consultationRows.get();
+        cm.initializeData();
+        return cm;
+    });
+
+    private final Module<MedicalTreatmentManagement> treatments = new Module<>("treatments",
+            () -> new MedicalTreatmentManagement(patients()));
+
+    private final Module<StockMaintenance> stock = new Module<>("stock", () -> {
+        StockMaintenance sm = new StockMaintenance();
+        if (!sm.loadedFromJournal()) {
+            StockInitializer.initialize(sm);
+        }
+        return sm;
+    });
+
+    // Main menu order, so the modules a user opens first are started first.
+    // The consultation sample data is left out: it is seeded on first use.
+    private final Module<?>[] all = {patients, doctors, duties, consultationRows, treatments, stock};
+
+    public PatientManagement patients() {
+        return patients.get();
+    }
+
+    public DoctorManagement doctors() {
+        return doctors.get();
+    }
+
+    public DoctorDutyManagement duties() {
+        return duties.get();
+    }
+
+    public ConsultationManagement consultations() {
+        return consultations.get();
+    }
+
+    public MedicalTreatmentManagement treatments() {
+        return treatments.get();
+    }
+
+    public StockMaintenance stock() {
+        return stock.get();
+    }
+
+    /* ---------- Loading ---------- */
+
+    // Starts building every module on daemon threads and returns at once.
+    // A module asked for while it is still loading blocks until it is ready;
+    // one that failed in the background throws again on first use.
+    public void preload() {
+        for (Module<?> m : all) {
+            Thread t = new Thread(() -> {
+                try {
+                    m.get();
+                } catch (RuntimeException e) {
+                    // reported to whoever uses the module
+                }
+            }, "load-" + m.name);
+            t.setDaemon(true);
+            t.start();
+        }
+    }
+
+    // Waits for every module that has started loading, so nothing is still
+    // writing to the journal when it closes
+    public void awaitLoading() {
+        for (Module<?> m : all) {
+            awaitIfStarted(m);
+        }
+        awaitIfStarted(consultations);
+    }
+
+    private static void awaitIfStarted(Module<?> m) {
+        if (m.started) {
+            try {
+                m.get();
+            } catch (RuntimeException e) {
+                // already reported, or never used
+            }
+        }
+    }
+
+    // Lazy holder. FutureTask.run() does nothing if the task already ran or
+    // another thread is running it, so the supplier is called exactly once.
+    private static final class Module<T> {
+        final String name;
+        final FutureTask<T> task;
+        volatile boolean started;
+
+        Module(String name, Supplier<T> factory) {
+            this.name = name;
+            this.task = new FutureTask<>(factory::get);
+        }
+
+        T get() {
+            started = true;
+            task.run();
+            try {
+                return task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while loading " + name + ".", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException r) throw r;
+                if (cause instanceof Error err) throw err;
+                throw new IllegalStateException("Could not load " + name + ".", cause);
+            }
+        }
+    }
+}
@@ -1,44 +1,67 @@
 package control;
 
-import adt.AVLTree;
 import adt.LinkedQueue;
+import adt.LongAVLMap;
 import adt.QueueInterface;
 import adt.QueueIterator;
+import dao.Journal;
 import entity.Patient;
 import entity.PatientHistory;
 import entity.TreatmentRecord;
+import utility.IDCodec;
 import utility.IDGenerator;
 import utility.IDType;
 
 import java.time.LocalDateTime;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class PatientHistoryManagement {
-    private final AVLTree<PatientHistory> tree = new AVLTree<>();
+    // keyed by the patient's IDCodec key, so lookups compare longs
+    private final LongAVLMap<PatientHistory> tree = new LongAVLMap<>();
 
     public boolean createHistoryForPatient(Patient p) {
-        if (p == null || p.getPatientID() == null) return false;
-        PatientHistory probe = new PatientHistory(p);
-        if (tree.find(probe) != null) return false;
-        tree.insert(probe);
-        return true;
+        if (p == null) return false;
+        long key = IDCodec.parse(p.getPatientID());
+        if (key == IDCodec.INVALID) return false;
+        return tree.putIfAbsent(key, new PatientHistory(p)) == null;
     }
 
     public PatientHistory findByPatientID(String id) {
-        if (id == null) return null;
-        Patient probePatient = new Patient();
-        probePatient.setPatientID(id);
-        return tree.find(new PatientHistory(probePatient));
+        long key = IDCodec.parse(id);
+        return key == IDCodec.INVALID ? null : tree.get(key);
     }
 
     public boolean addRecordByPatient(Patient p, TreatmentRecord r) {
         if (p == null || r == null) return false;
-        PatientHistory ph = tree.find(new PatientHistory(p));
+        PatientHistory ph = historyFor(p);
+        if (ph == null) return false;
+        ph.addRecord(r);
+        Journal.put(Journal.Table.TREATMENT, r);
+        return true;
+    }
+
+    // Reattaches treatments saved by an earlier run to their patients.
+    // Only fills an empty manager; records of unknown patients are skipped.
+    public void restoreRecords(PatientManagement pm) {
+        if (pm == null || !tree.isEmpty()) return;
+        for (TreatmentRecord r : Journal.rows(Journal.Table.TREATMENT, TreatmentRecord.class)) {
+            Patient p = pm.findPatientByID(r.getPatientID());
+            PatientHistory ph = p == null ? null : historyFor(p);
+            if (ph != null) ph.addRecord(r);
+        }
+    }
+
+    // Existing history for p, or a new one; null if p has no generator-format ID
+    private PatientHistory historyFor(Patient p) {
+        long key = IDCodec.parse(p.getPatientID());
+        if (key == IDCodec.INVALID) return null;
+        PatientHistory ph = tree.get(key);
         if (ph == null) {
             ph = new PatientHistory(p);
-            tree.insert(ph);
+            tree.put(key, ph);
         }
-        ph.addRecord(r);
-        return true;
+        return ph;
     }
 
     public boolean addRecordByPatientID(String patientID, TreatmentRecord r) {
@@ -46,6 +69,7 @@ public class PatientHistoryManagement {
         PatientHistory ph = findByPatientID(patientID);
         if (ph == null) return false;
         ph.addRecord(r);
+        Journal.put(Journal.Table.TREATMENT, r);
         return true;
     }
 
@@ -56,6 +80,7 @@ public class PatientHistoryManagement {
         if (tr == null) return false;
         if (newDiagnosis != null && !newDiagnosis.trim().isEmpty()) tr.setDiagnosis(newDiagnosis.trim());
         if (newTreatment != null && !newTreatment.trim().isEmpty()) tr.setTreatment(newTreatment.trim());
+        Journal.put(Journal.Table.TREATMENT, tr);
         return true;
     }
 
@@ -63,27 +88,20 @@ public class PatientHistoryManagement {
         PatientHistory ph = findByPatientID(patientID);
         if (ph == null) return false;
 
-        LinkedQueue<TreatmentRecord> tmp = new LinkedQueue<>();
-        boolean removed = false;
-        QueueIterator<TreatmentRecord> it = ((LinkedQueue<TreatmentRecord>) ph.getRecords()).getIterator();
-        while (it.hasNext()) {
-            TreatmentRecord r = it.getNext();
-            if (!removed && r.getTreatmentID().equals(treatmentID)) {
-                removed = true;
-            } else {
-                tmp.enqueue(r);
-            }
-        }
-
-        ((LinkedQueue<TreatmentRecord>) ph.getRecords()).clear();
-        QueueIterator<TreatmentRecord> it2 = tmp.getIterator();
-        while (it2.hasNext()) ph.getRecords().enqueue(it2.getNext());
-        return removed;
+        TreatmentRecord removed = ph.getRecords().removeFirstMatch(r -> r.getTreatmentID().equals(treatmentID));
+        if (removed == null) return false;
+        Journal.delete(Journal.Table.TREATMENT, removed);
+        return true;
     }
 
     public PatientHistory[] listAllHistories() {
         if (tree.isEmpty()) return new PatientHistory[0];
-        return tree.toArrayInorder(new PatientHistory[tree.size()]);
+        return tree.toArray(new PatientHistory[tree.size()]);
+    }
+
+    // Streams straight off the index in ID order; splits by subtree when run in parallel
+    public Stream<PatientHistory> historyStream() {
+        return StreamSupport.stream(tree.spliterator(), false);
     }
 
     public TreatmentRecord[] listAllRecords() {
@@ -91,7 +109,7 @@ public class PatientHistoryManagement {
         LinkedQueue<TreatmentRecord> q = new LinkedQueue<>();
         PatientHistory[] all = listAllHistories();
         for (PatientHistory ph : all) {
-            QueueIterator<TreatmentRecord> it = ((LinkedQueue<TreatmentRecord>) ph.getRecords()).getIterator();
+            QueueIterator<TreatmentRecord> it = ph.getRecords().getIterator();
             while (it.hasNext()) q.enqueue(it.getNext());
         }
         TreatmentRecord[] arr = new TreatmentRecord[q.size()];
@@ -112,23 +130,25 @@ public class PatientHistoryManagement {
         for (String pid : sampleIDs) {
             entity.Patient p = pm.findPatientByID(pid);
             if (p == null) continue;
-            PatientHistory ph = tree.find(new PatientHistory(p));
-            if (ph == null) {
-                ph = new PatientHistory(p);
-                tree.insert(ph);
-            }
+            PatientHistory ph = historyFor(p);
+            if (ph == null) continue;
+            TreatmentRecord r1;
+            TreatmentRecord r2;
             try {
                 String tid1 = IDGenerator.next(IDType.TREATMENT);
                 String tid2 = IDGenerator.next(IDType.TREATMENT);
-                ph.addRecord(new TreatmentRecord(tid1, pid, "General Checkup", "Paracetamol", LocalDateTime.now().minusDays(1)));
-                ph.addRecord(new TreatmentRecord(tid2, pid, "Follow-up", "Observation", LocalDateTime.now()));
+                r1 = new TreatmentRecord(tid1, pid, "General Checkup", "Paracetamol", LocalDateTime.now().minusDays(1));
+                r2 = new TreatmentRecord(tid2, pid, "Follow-up", "Observation", LocalDateTime.now());
             } catch (Exception e) {
                 // fallback simple id if IDGenerator not available
                 String tid1 = java.util.UUID.randomUUID().toString().substring(0, 8).toUpperCase();
                 String tid2 = java.util.UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-                ph.addRecord(new TreatmentRecord(tid1, pid, "General Checkup", "Paracetamol", LocalDateTime.now().minusDays(1)));
-                ph.addRecord(new TreatmentRecord(tid2, pid, "Follow-up", "Observation", LocalDateTime.now()));
+                r1 = new TreatmentRecord(tid1, pid, "General Checkup", "Paracetamol", LocalDateTime.now().minusDays(1));
+                r2 = new TreatmentRecord(tid2, pid, "Follow-up", "Observation", LocalDateTime.now());
             }
+            ph.addRecord(r1);
+            ph.addRecord(r2);
+            Journal.putAll(Journal.Table.TREATMENT, new TreatmentRecord[] { r1, r2 });
         }
     }
 }
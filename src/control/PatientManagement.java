@@ -1,12 +1,26 @@
 package control;
 
 import adt.*;
+import dao.Journal;
+import dao.PatientCsvReader;
 import dao.PatientInitializer;
 import entity.*;
-import entity.keys.*;
+import utility.IDCodec;
+import utility.Validation;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+import java.util.stream.IntStream;
 
 /**
  *
@@ -15,40 +29,103 @@ import java.time.temporal.ChronoUnit;
 public class PatientManagement {
     /* ---------- Fields & Constructor ---------- */
     
+    // Order of the phone index; the import sorts its phones the same way
+    private static final Comparator<String> PHONE_ORDER = Comparator.nullsFirst(Comparator.naturalOrder());
+    
     private final QueueInterface<PatientVisit> visitQueue;
-    private final AVLTree<PatientByID> idxByID = new AVLTree<>();
-    private final AVLTree<PatientByName> idxByName = new AVLTree<>();
-    private final AVLTree<PatientByContactNo> idxByContact = new AVLTree<>();
-    private final AVLTree<PatientByEmail> idxByEmail = new AVLTree<>();
+    // One table keeps every patient index in step: ID is the primary key, email
+    // must be unique, name and phone are ordered (seeded data shares phone numbers,
+    // so phone is not a table constraint; registerPatient still rejects new clashes).
+    // The primary key is the packed IDCodec key, so a lookup parses the ID once and
+    // hashes a long; idxByID keeps the same keys in order for sorting/paging.
+    private final IndexedTable<Long, Patient> patients =
+            IndexedTable.longKeyed(p -> IDCodec.parse(p.getPatientID()));
+    private final IndexedTable<Long, Patient>.LongOrderedIndex idxByID =
+            patients.addLongOrderedIndex(p -> IDCodec.parse(p.getPatientID()));
+    private final IndexedTable<Long, Patient>.OrderedIndex<String> idxByName =
+            patients.addOrderedIndex(Patient::getPatientName, String.CASE_INSENSITIVE_ORDER);
+    private final IndexedTable<Long, Patient>.OrderedIndex<String> idxByContact =
+            patients.addOrderedIndex(Patient::getContactNo, PHONE_ORDER);
+    private final IndexedTable<Long, Patient>.UniqueIndex<String> idxByEmail =
+            patients.addUniqueIndex(Patient::getEmail);
+    // Typo-tolerant name search; built on the first fuzzy search, not at load
+    private final IndexedTable<Long, Patient>.TrigramIndex idxByNameGrams =
+            patients.addTrigramIndex(Patient::getPatientName);
+    // Optional (age, name) and (gender, name) orders for instant sorted listings;
+    // null unless asked for, in which case listings fall back to a counting sort
+    private final IndexedTable<Long, Patient>.OrderedIndex<Patient> idxByAge;
+    private final IndexedTable<Long, Patient>.OrderedIndex<Patient> idxByGender;
+    
+    // visitQueue and the queue structures below are guarded by this object's monitor
+    // (every queue method is synchronized); patient lookups go through the
+    // table's own lock and never wait for the queue.
+    
+    // Triage mode: waiting visits keyed by patient ID, served by effective arrival
+    private final IndexedPriorityQueue<String, PatientVisit> triageQueue =
+            new IndexedPriorityQueue<>(PatientManagement::compareTriage);
+    private boolean triageMode;
+    
+    // FIFO mode side index, kept in step by every enqueue/serve/remove. Each
+    // queued visit gets a sequence number in arrival order, so a position in
+    // line is a rank in visitsBySeq; each patient maps to the sequence numbers
+    // of their own queued visits, oldest first.
+    private final LongAVLMap<PatientVisit> visitsBySeq = new LongAVLMap<>();
+    private final HashMapADT<String, long[]> seqsByPatient = new HashMapADT<>();
+    private long lastSeq;
+    
+    // Running statistics over the waiting visits (either mode), updated as
+    // each visit joins or leaves so the dashboard never rescans the queue
+    private final int[] waitingByType = new int[VisitType.values().length];
+    private long arrivalSecondsSum;
+    private final LongAVLMap<int[]> arrivalsBySecond = new LongAVLMap<>(); // second -> count; first key is the oldest
     
     public PatientManagement() {
-        visitQueue = new LinkedQueue<>();
-        PatientInitializer.initialize(visitQueue); // Pre-load test data
-        rebuildIndexesFromQueue();
+        this(false);
+    }
+    
+    // sortIndexes keeps age and gender listings ready at the cost of two more
+    // tree updates per insert/update/remove
+    public PatientManagement(boolean sortIndexes) {
+        idxByAge = sortIndexes ? patients.addOrderedIndex(p -> p, BY_AGE_THEN_NAME) : null;
+        idxByGender = sortIndexes ? patients.addOrderedIndex(p -> p, BY_GENDER_THEN_NAME) : null;
+        visitQueue = new ArrayQueue<>();
+        if (Journal.hasRows(Journal.Table.PATIENT)) {
+            // saved patients come back; the visit queue starts empty each run
+            patients.insertAll(Journal.rows(Journal.Table.PATIENT, Patient.class));
+        } else {
+            PatientInitializer.initialize(visitQueue); // Pre-load test data
+            rebuildIndexesFromQueue();
+            QueueIterator<PatientVisit> it = getIterator();
+            while (it.hasNext()) {
+                PatientVisit v = it.getNext();
+                indexVisit(v);
+                visitJoined(v);
+            }
+        }
     }
     
     /* ---------- Index Handling ---------- */
     
+    // Bulk path: each ordered index is sorted and built once instead of n single inserts
     private void rebuildIndexesFromQueue() {
+        Patient[] all = new Patient[visitQueue.size()];
+        
         QueueIterator<PatientVisit> it = getIterator();
+        int i = 0;
         
         while (it.hasNext()) {
-            indexPatient(it.getNext().getPatient());
+            all[i++] = it.getNext().getPatient();
         }
-    }
-    
-    private void indexPatient(Patient p) {
-        idxByID.insert(new PatientByID(p.getPatientID(), p));
-        idxByName.insert(new PatientByName(p.getPatientName(), p.getPatientID(), p));
-        idxByContact.insert(new PatientByContactNo(p.getContactNo(), p));
-        idxByEmail.insert(new PatientByEmail(p.getEmail(), p));
-    }
-    
-    private void unindexPatient(Patient p) {
-        idxByID.delete(new PatientByID(p.getPatientID(), null));
-        idxByName.delete(new PatientByName(p.getPatientName(), p.getPatientID(), null));
-        idxByContact.delete(new PatientByContactNo(p.getContactNo(), null));
-        idxByEmail.delete(new PatientByEmail(p.getEmail(), null));
+        
+        patients.insertAll(all);
+        
+        // log only the rows that went in; a rejected one must not overwrite the stored row
+        Patient[] inserted = new Patient[all.length];
+        int k = 0;
+        for (Patient p : all) {
+            if (patients.get(IDCodec.parse(p.getPatientID())) == p) inserted[k++] = p;
+        }
+        Journal.putAll(Journal.Table.PATIENT, Arrays.copyOf(inserted, k));
     }
     
     /* ---------- CRUD Operations ---------- */
@@ -56,31 +133,35 @@ public class PatientManagement {
     public boolean registerPatient(Patient patient) {
         if (patient == null) return false;
         
+        // Only generator-format IDs, so every patient has an ID key
+        if (IDCodec.parse(patient.getPatientID()) == IDCodec.INVALID) return false;
+        
         // Uniqueness checks
         if (existsByID(patient.getPatientID())) return false;
         if (findPatientByPhone(patient.getContactNo()) != null) return false;
-        if (findPatientByEmail(patient.getEmail()) != null) return false;
         
-        indexPatient(patient);
+        // ID and email clashes are rejected by the table itself
+        if (!patients.insert(patient)) return false;
+        
+        Journal.put(Journal.Table.PATIENT, patient);
         return true;
     }
     
     public boolean updatePatient(Patient updatedPatient) {
         String id = updatedPatient.getPatientID();
-        if (!existsByID(id)) return false;
+        // only the indexes whose key changed are touched; an email clash changes nothing
+        if (!patients.update(updatedPatient)) return false;
         
-        Patient old = findPatientByID(id);
-        unindexPatient(old);
-        indexPatient(updatedPatient);
+        Journal.put(Journal.Table.PATIENT, updatedPatient);
         updatePatientInVisitQueue(id);
         return true;
     }
     
     public boolean removePatientByID(String id) {
-        if (!existsByID(id)) return false;
+        Patient removed = patients.remove(IDCodec.parse(id));
+        if (removed == null) return false;
         
-        Patient p = findPatientByID(id);
-        unindexPatient(p);
+        Journal.delete(Journal.Table.PATIENT, removed);
         removeVisitByID(id);
         return true;
     }
@@ -121,108 +202,318 @@ public class PatientManagement {
         return updatePatient(updated);
     }
     
-    /* ---------- Find Operations ---------- */
+    /* ---------- Bulk Import ---------- */
     
-    public boolean existsByID(String id) {
-        if (id == null) return false;
+    private static final int IMPORT_CHUNK = 50_000; // CSV rows parsed before they are registered
+    
+    // Registers many patients at once, by the same rules as registerPatient.
+    // Rows are numbered from 1 in batch order in the report.
+    public ImportReport registerPatients(Iterable<Patient> batch) {
+        ImportReport report = new ImportReport();
+        ImportChunk chunk = new ImportChunk(64);
+        int row = 0;
+        for (Patient p : batch) {
+            chunk.add(++row, p, p == null ? null : p.getPatientID(), null);
+        }
+        registerChunk(chunk, report);
+        return report;
+    }
+    
+    // Streams a CSV export (see PatientCsvReader) through registerPatients'
+    // pipeline a chunk at a time. Rows are numbered by CSV line in the report.
+    public ImportReport importPatientsCsv(Reader csv) throws IOException {
+        ImportReport report = new ImportReport();
+        ImportChunk chunk = new ImportChunk(IMPORT_CHUNK);
+        try (PatientCsvReader reader = new PatientCsvReader(csv)) {
+            for (PatientCsvReader.Row row : reader) {
+                chunk.add(row.getLine(), row.getPatient(), row.getId(), row.getError());
+                if (chunk.n == IMPORT_CHUNK) {
+                    registerChunk(chunk, report); // later chunks see these rows as already registered
+                    chunk.n = 0;
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        registerChunk(chunk, report);
+        return report;
+    }
+    
+    private void registerChunk(ImportChunk c, ImportReport report) {
+        Patient[] rows = c.rows;
+        String[] reasons = c.reasons;
+        int n = c.n;
         
-        return idxByID.contains(new PatientByID(id, null));
+        // 1. normalise and check each row on its own; rows are independent, so in parallel
+        IntStream.range(0, n).parallel().forEach(i -> {
+            if (reasons[i] != null) return; // already failed to parse
+            if (rows[i] == null) {
+                reasons[i] = "empty row";
+                return;
+            }
+            rows[i] = normalised(rows[i]);
+            reasons[i] = invalidReason(rows[i]);
+        });
+        
+        // 2. repeats within the batch by sort-merge, then clashes with registered
+        // patients: the sorted keys are checked against each index in one walk
+        rejectDuplicates(c, p -> IDCodec.parse(p.getPatientID()), Comparator.naturalOrder(), Long[]::new, "ID",
+                (ids, m, taken) -> {
+                    long[] keys = new long[m];
+                    for (int i = 0; i < m; i++) keys[i] = ids[i];
+                    idxByID.containsAllSorted(keys, m, taken);
+                });
+        rejectDuplicates(c, Patient::getContactNo, PHONE_ORDER, String[]::new, "contact number",
+                idxByContact::containsAllSorted);
+        rejectDuplicates(c, Patient::getEmail, Comparator.naturalOrder(), String[]::new, "email",
+                idxByEmail::containsAll);
+        
+        // 3. one bulk insert in ID order, so every index is built or merged in one pass
+        Patient[] accepted = new Patient[n];
+        int a = 0;
+        for (int i = 0; i < n; i++) {
+            if (reasons[i] == null) accepted[a++] = rows[i];
+        }
+        accepted = Arrays.copyOf(accepted, a);
+        Arrays.sort(accepted, Comparator.comparingLong(p -> IDCodec.parse(p.getPatientID())));
+        patients.insertAll(accepted);
+        
+        // a row registered from another terminal in the meantime did not go in
+        Patient[] inserted = new Patient[a];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            if (reasons[i] != null) continue;
+            if (patients.get(IDCodec.parse(rows[i].getPatientID())) == rows[i]) {
+                inserted[k++] = rows[i];
+            } else {
+                reasons[i] = "already registered";
+            }
+        }
+        Journal.putAll(Journal.Table.PATIENT, Arrays.copyOf(inserted, k));
+        
+        // 4. report in row order
+        report.accept(k);
+        for (int i = 0; i < n; i++) {
+            if (reasons[i] != null) report.reject(c.lines[i], c.ids[i], reasons[i]);
+        }
     }
     
-    public Patient findPatientByID(String id) {
-        PatientByID wrapper = idxByID.find(new PatientByID(id, null));
-        return (wrapper != null) ? wrapper.ref : null;
+    // Marks which of the first n keys (ascending, no repeats) are already registered
+    private interface TakenKeys<T> {
+        void mark(T[] sortedKeys, int n, boolean[] taken);
+    }
+    
+    // Rows sharing a key are sorted next to each other; the first of each run is
+    // kept unless the key is already taken, the rest are rejected as repeats.
+    // keyOrder must be the order the index walks, so the distinct keys go to
+    // taken in one ascending batch.
+    private static <T> void rejectDuplicates(ImportChunk c, Function<Patient, T> key, Comparator<? super T> keyOrder,
+                                             IntFunction<T[]> newArray, String field, TakenKeys<T> taken) {
+        T[] keys = newArray.apply(c.n);
+        Integer[] order = new Integer[c.n];
+        int m = 0;
+        for (int i = 0; i < c.n; i++) {
+            if (c.reasons[i] != null) continue;
+            keys[i] = key.apply(c.rows[i]);
+            order[m++] = i;
+        }
+        Arrays.parallelSort(order, 0, m, (x, y) -> {
+            int cmp = keyOrder.compare(keys[x], keys[y]);
+            return cmp != 0 ? cmp : Integer.compare(x, y);
+        });
+        
+        // runs of equal keys: runs[r] is where run r starts in order
+        T[] distinct = newArray.apply(m);
+        int[] runs = new int[m + 1];
+        int r = 0;
+        for (int start = 0; start < m; r++) {
+            distinct[r] = keys[order[start]];
+            runs[r] = start;
+            do start++; while (start < m && keyOrder.compare(keys[order[start]], distinct[r]) == 0);
+        }
+        runs[r] = m;
+        
+        boolean[] registered = new boolean[r];
+        taken.mark(distinct, r, registered);
+        
+        for (int run = 0; run < r; run++) {
+            int first = order[runs[run]];
+            for (int j = runs[run]; j < runs[run + 1]; j++) {
+                if (registered[run]) {
+                    c.reasons[order[j]] = field + " already registered";
+                } else if (j > runs[run]) {
+                    c.reasons[order[j]] = "duplicate " + field + " (same as row " + c.lines[first] + ")";
+                }
+            }
+        }
     }
     
-    public Patient[] findPatientsByName(String name) {
-        PatientByName[] all = idxByName.toArrayInorder(new PatientByName[idxByName.size()]);
-        int count = 0;
+    // Same formatting the registration screen applies
+    private static Patient normalised(Patient p) {
+        String id = p.getPatientID() == null ? null : p.getPatientID().trim();
+        String name = p.getPatientName() == null ? null : p.getPatientName().trim();
+        String phone = p.getContactNo() == null ? null : Validation.standardizedPhone(p.getContactNo().trim());
+        String email = p.getEmail() == null ? null : p.getEmail().trim().toLowerCase();
+        return new Patient(id, name, phone, email, p.getGender(), p.getAge());
+    }
+    
+    private static String invalidReason(Patient p) {
+        if (p.getPatientID() == null || IDCodec.parse(p.getPatientID()) == IDCodec.INVALID) return "invalid patient ID";
+        if (!Validation.validName(p.getPatientName())) return "invalid name";
+        if (!Validation.validPhone(p.getContactNo())) return "invalid contact number";
+        if (!Validation.validEmail(p.getEmail())) return "invalid email";
+        if (p.getGender() == null) return "missing gender";
+        if (p.getAge() < 1 || p.getAge() > 120) return "age out of range";
+        return null;
+    }
+    
+    // Rows of one import batch, kept in parallel arrays with their row numbers
+    private static final class ImportChunk {
+        Patient[] rows;
+        int[] lines;
+        String[] ids;
+        String[] reasons; // why the row was turned away; null while it is still in
+        int n;
         
-        // count matches
-        for (PatientByName p : all) {
-            if (p.getPatient().getPatientName().equalsIgnoreCase(name)) {
-                count++;
-            }
+        ImportChunk(int capacity) {
+            rows = new Patient[capacity];
+            lines = new int[capacity];
+            ids = new String[capacity];
+            reasons = new String[capacity];
         }
         
-        // collect matches
-        Patient[] matches = new Patient[count];
-        int i = 0;
-        for (PatientByName p : all) {
-            if (p.getPatient().getPatientName().equalsIgnoreCase(name)) {
-                matches[i++] = p.getPatient();
+        void add(int line, Patient row, String id, String reason) {
+            if (n == rows.length) {
+                rows = Arrays.copyOf(rows, n * 2);
+                lines = Arrays.copyOf(lines, n * 2);
+                ids = Arrays.copyOf(ids, n * 2);
+                reasons = Arrays.copyOf(reasons, n * 2);
             }
+            rows[n] = row;
+            lines[n] = line;
+            ids[n] = id;
+            reasons[n++] = reason;
         }
+    }
+    
+    /* ---------- Find Operations ---------- */
+    
+    // Both parse the ID once; null or malformed IDs parse to INVALID and find nothing
+    public boolean existsByID(String id) {
+        return patients.containsKey(IDCodec.parse(id));
+    }
+    
+    public Patient findPatientByID(String id) {
+        return patients.get(IDCodec.parse(id));
+    }
+    
+    public Patient[] findPatientsByName(String name) {
+        if (name == null) return new Patient[0];
+        
+        // matches sit next to each other in the name index
+        return idxByName.findAll(name, new Patient[0]);
+    }
+    
+    // Names starting with prefix (any case), in name order; one seek into the
+    // name index, then a walk over the k matches
+    public Patient[] findPatientsByNamePrefix(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) return new Patient[0];
         
+        String p = prefix.trim();
+        return idxByName.findFrom(p,
+                name -> name != null && name.regionMatches(true, 0, p, 0, p.length()),
+                limit, new Patient[0]);
+    }
+    
+    // Closest spellings first, for names typed with mistakes
+    public Patient[] findPatientsBySimilarName(String query, int limit) {
+        if (query == null || query.isBlank()) return new Patient[0];
+        
+        return idxByNameGrams.search(query, limit, new Patient[0]);
+    }
+    
+    // Front-desk lookup: exact name matches if there are any, else names that
+    // start with the text, else the closest spellings
+    public Patient[] searchPatientsByName(String text, int limit) {
+        Patient[] matches = findPatientsByName(text == null ? null : text.trim());
+        if (matches.length == 0) matches = findPatientsByNamePrefix(text, limit);
+        if (matches.length == 0) matches = findPatientsBySimilarName(text, limit);
         return matches;
     }
     
     public Patient findPatientByPhone(String phone) {
-        PatientByContactNo wrapper = idxByContact.find(new PatientByContactNo(phone, null));
-        return wrapper != null ? wrapper.ref : null;
+        return phone == null ? null : idxByContact.get(phone);
     }
     
     public Patient findPatientByEmail(String email) {
-        PatientByEmail wrapper = idxByEmail.find(new PatientByEmail(email, null));
-        return wrapper != null ? wrapper.ref : null;
+        return idxByEmail.get(email);
     }
     
     /* ---------- Visit Queue Operations ---------- */
     
-    public boolean registerVisit(Patient patient, VisitType visitType) {
+    public synchronized boolean registerVisit(Patient patient, VisitType visitType) {
         if (!existsByID(patient.getPatientID())) {
             return false;
         }
         
+        // In triage mode a patient already waiting cannot queue again
+        if (triageMode) {
+            PatientVisit visit = new PatientVisit(patient, visitType, LocalDateTime.now());
+            if (!triageQueue.enqueue(patient.getPatientID(), visit)) return false;
+            visitJoined(visit);
+            return true;
+        }
+        
         // Check last registration time for this patient
-        QueueIterator<PatientVisit> it = getIterator();
-        while (it.hasNext()) {
-            PatientVisit visit = it.getNext();
-            if (visit.getPatient().getPatientID().equals(patient.getPatientID())) {
-                long minutesSince = ChronoUnit.MINUTES.between(visit.getArrivalDateTime(), LocalDateTime.now());
-                if (minutesSince < 10) { // cooldown window
-                    return false; // prevent repeated registration
-                }
-            }
+        LocalDateTime last = lastArrival(patient.getPatientID());
+        if (last != null && ChronoUnit.MINUTES.between(last, LocalDateTime.now()) < 10) { // cooldown window
+            return false; // prevent repeated registration
         }
         
-        visitQueue.enqueue(new PatientVisit(patient, visitType, LocalDateTime.now()));
+        PatientVisit visit = new PatientVisit(patient, visitType, LocalDateTime.now());
+        enqueueVisit(visit);
+        visitJoined(visit);
         return true;
     }
     
-    public PatientVisit serveNextVisit() {
+    public synchronized PatientVisit serveNextVisit() {
         if (isEmpty()) return null;
         
-        PatientVisit next = visitQueue.dequeue();
+        PatientVisit next;
+        if (triageMode) {
+            next = triageQueue.dequeue();
+        } else {
+            next = visitQueue.dequeue();
+            unindexVisit(next.getPatient().getPatientID(), visitsBySeq.selectKey(0)); // the front has the lowest number
+        }
+        visitLeft(next);
         next.setStatus(VisitStatus.SERVED);
         return next;
     }
 
-    public boolean removeVisitByID(String id) {
+    public synchronized boolean removeVisitByID(String id) {
         if (id == null || isEmpty()) return false;
         
-        QueueInterface<PatientVisit> temp = new LinkedQueue<>();
-        boolean removed = false;
-        
-        while (!visitQueue.isEmpty()) {
-            PatientVisit v = visitQueue.dequeue();
-            
-            if (!removed && id.equals(v.getPatient().getPatientID())) {
-                removed = true;
-            } else {
-                temp.enqueue(v);
-            }
-        }
-        
-        // Rebuild queue
-        while(!temp.isEmpty()) {
-            visitQueue.enqueue(temp.dequeue());
+        if (triageMode) {
+            PatientVisit removed = triageQueue.remove(id);
+            if (removed != null) visitLeft(removed);
+            return removed != null;
         }
+        long[] seqs = seqsByPatient.get(id);
+        if (seqs == null) return false;
         
-        return removed;
+        PatientVisit target = visitsBySeq.get(seqs[0]); // their earliest visit, the one a scan finds first
+        visitQueue.removeFirstMatch(v -> v == target);
+        unindexVisit(id, seqs[0]);
+        visitLeft(target);
+        return true;
     }
     
-    public PatientVisit getNextVisit() {
+    public synchronized PatientVisit getNextVisit() {
+        if (triageMode) {
+            return triageQueue.peek(); // only WAITING visits are ever in the heap
+        }
+        
         QueueIterator<PatientVisit> it = getIterator();
         
         while (it.hasNext()) {
@@ -233,7 +524,11 @@ public class PatientManagement {
         return null;
     }
     
-    public PatientVisit[] peekNextN(int n) {
+    public synchronized PatientVisit[] peekNextN(int n) {
+        if (triageMode) {
+            return triageQueue.firstN(n, new PatientVisit[0]);
+        }
+        
         int size = Math.min(n, visitQueue.size());
         PatientVisit[] result = new PatientVisit[size];
         
@@ -258,20 +553,20 @@ public class PatientManagement {
         return result;
     }
     
-    public int findPosition(String id) {
-        int pos = 1;
-        QueueIterator<PatientVisit> it = getIterator();
-        
-        while (it.hasNext()) {
-            if (it.getNext().getPatient().getPatientID().equals(id))
-                return pos;
-            pos++;
+    public synchronized int findPosition(String id) {
+        if (triageMode) {
+            return triageQueue.positionOf(id);
         }
         
-        return -1;
+        long[] seqs = id == null ? null : seqsByPatient.get(id);
+        return seqs == null ? -1 : visitsBySeq.rank(seqs[0]) + 1;
     }
     
-    public PatientVisit[] getAllVisits() {
+    public synchronized PatientVisit[] getAllVisits() {
+        if (triageMode) {
+            return triageQueue.toArrayInPriorityOrder(new PatientVisit[triageQueue.size()]);
+        }
+        
         QueueIterator<PatientVisit> it = getIterator();
         PatientVisit[] temp = new PatientVisit[visitQueue.size()];
         int i = 0;
@@ -283,191 +578,325 @@ public class PatientManagement {
         return temp;
     }
     
-    public int countVisitsByID(String id) {
+    public synchronized int countVisitsByID(String id) {
         if (id == null) return 0;
+        if (triageMode) return triageQueue.containsKey(id) ? 1 : 0;
 
-        int count = 0;
-        QueueIterator<PatientVisit> it = getIterator();
-
-        while (it.hasNext()) {
-            PatientVisit v = it.getNext();
-            if (id.equals(v.getPatient().getPatientID())) {
-                count++;
-            }
+        long[] seqs = seqsByPatient.get(id);
+        return seqs == null ? 0 : seqs.length;
+    }
+    
+    private synchronized void updatePatientInVisitQueue(String id) {
+        Patient updated = findPatientByID(id);
+        
+        if (triageMode) {
+            PatientVisit visit = triageQueue.get(id);
+            if (visit != null) visit.setPatient(updated);
+            return;
+        }
+        
+        long[] seqs = seqsByPatient.get(id);
+        if (seqs == null) return;
+        for (long seq : seqs) {
+            visitsBySeq.get(seq).setPatient(updated);
         }
-
-        return count;
     }
     
-    private void updatePatientInVisitQueue(String id) {
-        QueueInterface<PatientVisit> temp = new LinkedQueue<>();
+    // Latest arrival among the patient's queued visits, null if none (FIFO mode)
+    private LocalDateTime lastArrival(String id) {
+        long[] seqs = seqsByPatient.get(id);
+        if (seqs == null) return null;
         
-        while(!visitQueue.isEmpty()) {
-            PatientVisit visit = visitQueue.dequeue();
-            
-            if (visit.getPatient().getPatientID().equals(id)) {
-                Patient updated = findPatientByID(id);
-                visit.setPatient(updated);
-            }
-            
-            temp.enqueue(visit);
+        LocalDateTime last = null;
+        for (long seq : seqs) {
+            LocalDateTime at = visitsBySeq.get(seq).getArrivalDateTime();
+            if (last == null || at.isAfter(last)) last = at;
         }
+        return last;
+    }
+    
+    /* ---------- Visit Index ---------- */
+    
+    private void enqueueVisit(PatientVisit v) {
+        visitQueue.enqueue(v);
+        indexVisit(v);
+    }
+    
+    // Files a visit that was just added to the back of visitQueue
+    private void indexVisit(PatientVisit v) {
+        long seq = ++lastSeq;
+        visitsBySeq.put(seq, v);
         
-        while (!temp.isEmpty()) {
-            visitQueue.enqueue(temp.dequeue());
+        String id = v.getPatient().getPatientID();
+        long[] seqs = seqsByPatient.get(id);
+        if (seqs == null) {
+            seqsByPatient.put(id, new long[]{seq});
+        } else {
+            long[] grown = Arrays.copyOf(seqs, seqs.length + 1);
+            grown[seqs.length] = seq;
+            seqsByPatient.put(id, grown);
+        }
+    }
+    
+    // A patient rarely has more than one or two visits queued, so the arrays stay tiny
+    private void unindexVisit(String id, long seq) {
+        visitsBySeq.remove(seq);
+        
+        long[] seqs = seqsByPatient.get(id);
+        int at = seqs == null ? -1 : Arrays.binarySearch(seqs, seq);
+        if (at < 0) return;
+        
+        if (seqs.length == 1) {
+            seqsByPatient.remove(id);
+        } else {
+            long[] shrunk = new long[seqs.length - 1];
+            System.arraycopy(seqs, 0, shrunk, 0, at);
+            System.arraycopy(seqs, at + 1, shrunk, at, shrunk.length - at);
+            seqsByPatient.put(id, shrunk);
         }
     }
     
     // Queue Helpers
     
-    public boolean isEmpty() {
-        return visitQueue.isEmpty();
+    public synchronized boolean isEmpty() {
+        return triageMode ? triageQueue.isEmpty() : visitQueue.isEmpty();
     }
     
-    public int getQueueSize() {
-        return visitQueue.size();
+    public synchronized int getQueueSize() {
+        return triageMode ? triageQueue.size() : visitQueue.size();
     }
     
+    // Arrival order in FIFO mode, heap order in triage mode
     private QueueIterator<PatientVisit> getIterator() {
-        return visitQueue.getIterator();
+        return triageMode ? triageQueue.getIterator() : visitQueue.getIterator();
     }
     
-    /* ---------- Queue Statistics ---------- */
+    /* ---------- Triage Mode ---------- */
     
-    public int countByVisitType(VisitType type) {
-        int count = 0;
-        QueueIterator<PatientVisit> it = getIterator();
+    // Appointments are served as if they had arrived this much earlier. The credit
+    // is fixed, so a walk-in who has waited longer than it still goes first.
+    private static final long APPOINTMENT_CREDIT_MINUTES = 15;
+    
+    private static long effectiveArrival(PatientVisit v) {
+        long arrival = v.getArrivalDateTime().toEpochSecond(ZoneOffset.UTC);
+        return v.getVisitType() == VisitType.APPOINTMENT
+                ? arrival - APPOINTMENT_CREDIT_MINUTES * 60
+                : arrival;
+    }
+    
+    private static int compareTriage(PatientVisit a, PatientVisit b) {
+        return Long.compare(effectiveArrival(a), effectiveArrival(b));
+    }
+    
+    public synchronized boolean isTriageMode() {
+        return triageMode;
+    }
+    
+    // Moves the waiting visits across so nothing is lost when switching modes
+    public synchronized void setTriageMode(boolean enabled) {
+        if (enabled == triageMode) return;
         
-        while (it.hasNext()) {
-            if (it.getNext().getVisitType() == type)
-                count++;
+        if (enabled) {
+            visitsBySeq.clear(); // the heap is keyed by patient ID instead
+            seqsByPatient.clear();
+            while (!visitQueue.isEmpty()) {
+                PatientVisit v = visitQueue.dequeue();
+                if (v.getStatus() != VisitStatus.WAITING) continue;
+                
+                // a patient queued twice keeps only the earlier visit
+                if (!triageQueue.enqueue(v.getPatient().getPatientID(), v)) {
+                    visitLeft(v);
+                    v.setStatus(VisitStatus.CANCELLED);
+                }
+            }
+        } else {
+            PatientVisit[] ordered = triageQueue.toArrayInPriorityOrder(new PatientVisit[triageQueue.size()]);
+            triageQueue.clear();
+            for (PatientVisit v : ordered) {
+                enqueueVisit(v);
+            }
         }
         
-        return count;
+        triageMode = enabled;
     }
     
-    public double avgWaitMinutes(LocalDateTime now) {
-        long total = 0;
-        int count = 0;
-        QueueIterator<PatientVisit> it = getIterator();
+    /* ---------- Queue Statistics ---------- */
+    
+    public synchronized int countByVisitType(VisitType type) {
+        return type == null ? 0 : waitingByType[type.ordinal()];
+    }
+    
+    // Mean of (now - arrival) is now - mean(arrival), so one running sum is enough
+    public synchronized double avgWaitMinutes(LocalDateTime now) {
+        int count = getQueueSize();
+        if (count == 0) return 0.0;
         
-        while(it.hasNext()) {
-            long wait = ChronoUnit.MINUTES.between(it.getNext().getArrivalDateTime(), now);
-            total += Math.max(wait, 0);
-            count++;
-        }
+        long totalSeconds = epochSecond(now) * count - arrivalSecondsSum;
+        return Math.max(totalSeconds, 0) / 60.0 / count;
+    }
+    
+    public synchronized long maxWaitMinutes(LocalDateTime now) {
+        if (arrivalsBySecond.isEmpty()) return 0;
         
-        return count == 0 ? 0.0 : (double) total / count;
+        long oldest = arrivalsBySecond.selectKey(0);
+        return Math.max((epochSecond(now) - oldest) / 60, 0);
     }
     
-    public long maxWaitMinutes(LocalDateTime now) {
-        long max = 0;
-        QueueIterator<PatientVisit> it = getIterator();
+    private void visitJoined(PatientVisit v) {
+        long at = epochSecond(v.getArrivalDateTime());
+        waitingByType[v.getVisitType().ordinal()]++;
+        arrivalSecondsSum += at;
         
-        while (it.hasNext()) {
-            long wait = ChronoUnit.MINUTES.between(it.getNext().getArrivalDateTime(), now);
-            if (wait > max)
-                max = wait;
-        }
+        int[] n = arrivalsBySecond.get(at);
+        if (n == null) arrivalsBySecond.put(at, new int[]{1});
+        else n[0]++;
+    }
+    
+    private void visitLeft(PatientVisit v) {
+        long at = epochSecond(v.getArrivalDateTime());
+        waitingByType[v.getVisitType().ordinal()]--;
+        arrivalSecondsSum -= at;
         
-        return max;
+        int[] n = arrivalsBySecond.get(at);
+        if (n != null && --n[0] == 0) arrivalsBySecond.remove(at);
+    }
+    
+    private static long epochSecond(LocalDateTime t) {
+        return t.toEpochSecond(ZoneOffset.UTC);
     }
     
     /* ---------- Sorting Patients ---------- */
     
     public Patient[] getAllPatientsSortedByID(boolean descending) {
-        PatientByID[] wrapped = idxByID.toArrayInorder(new PatientByID[idxByID.size()]);
-        
-        if (descending)
-            reverseArray(wrapped);
-        
-        Patient[] result = new Patient[wrapped.length];
-        
-        for (int i = 0; i < wrapped.length; i++) {
-            result[i] = wrapped[i].ref;
+        Iterator<Patient> it = descending ? idxByID.descendingIterator() : idxByID.iterator();
+        return collectPatients(it, idxByID.size());
+    }
+
+    public Patient[] getAllPatientsSortedByName(boolean descending) {
+        Iterator<Patient> it = descending ? idxByName.descendingIterator() : idxByName.iterator();
+        return collectPatients(it, idxByName.size());
+    }
+    
+    // One page of the ID-sorted list, seeking with select() instead of copying the whole index
+    public Patient[] getPatientsSortedByIDPage(int offset, int limit) {
+        int count = pageLength(idxByID.size(), offset, limit);
+        Patient[] result = new Patient[count];
+
+        for (int i = 0; i < count; i++) {
+            result[i] = idxByID.select(offset + i);
         }
-        
+
         return result;
     }
 
-    public Patient[] getAllPatientsSortedByName(boolean descending) {
-        PatientByName[] wrapped = idxByName.toArrayInorder(new PatientByName[idxByName.size()]);
-        
-        if (descending)
-            reverseArray(wrapped);
-        
-        Patient[] result = new Patient[wrapped.length];
-        
-        for (int i = 0; i < wrapped.length; i++)  {
-            result[i] = wrapped[i].ref;
+    public Patient[] getPatientsSortedByNamePage(int offset, int limit) {
+        int count = pageLength(idxByName.size(), offset, limit);
+        Patient[] result = new Patient[count];
+
+        for (int i = 0; i < count; i++) {
+            result[i] = idxByName.select(offset + i);
         }
-        
-        return result; 
+
+        return result;
     }
-    
+
+    // 0-based position of a patient in the ID-sorted list, -1 if not registered
+    public int findSortedPositionByID(String id) {
+        if (!existsByID(id)) return -1;
+
+        return idxByID.rankOf(IDCodec.parse(id));
+    }
+
     public Patient[] getAllPatientsSortedByGender(boolean descending) {
-        Patient[] arr = getAllPatientsSortedByName(false);
-        selectionSortByGender(arr, descending);
-        return arr;
+        if (idxByGender != null) {
+            Iterator<Patient> it = descending ? idxByGender.descendingIterator() : idxByGender.iterator();
+            return collectPatients(it, idxByGender.size());
+        }
+        return countingSort(getAllPatientsSortedByName(descending), PatientManagement::genderKey, descending);
     }
     
     public Patient[] getAllPatientsSortedByAge(boolean descending) {
-        Patient[] arr = getAllPatientsSortedByName(false);
-        selectionSortByAge(arr, descending);
-        return arr;
+        if (idxByAge != null) {
+            Iterator<Patient> it = descending ? idxByAge.descendingIterator() : idxByAge.iterator();
+            return collectPatients(it, idxByAge.size());
+        }
+        return countingSort(getAllPatientsSortedByName(descending), Patient::getAge, descending);
     }
     
     /* ---------- Sorting Helpers ---------- */
     
-    private void selectionSortByGender(Patient[] a, boolean descending) {
-        for (int i = 0; i < a.length - 1; i++) {
-            int target = i;
-            
-            for (int j = i + 1; j < a.length; j++) {
-                int cmp = a[j].getGender().compareTo(a[target].getGender());
-                
-                if (cmp == 0) 
-                    cmp = a[j].getPatientName().compareToIgnoreCase(a[target].getPatientName());
-                
-                if ((descending && cmp > 0) || (!descending && cmp < 0)) 
-                    target = j;
-            }
-            
-            swap(a, i, target);
+    // Ties on age/gender go by name, the same order the counting sort produces
+    private static final Comparator<Patient> BY_AGE_THEN_NAME =
+            Comparator.comparingInt(Patient::getAge)
+                    .thenComparing(Patient::getPatientName, String.CASE_INSENSITIVE_ORDER);
+    private static final Comparator<Patient> BY_GENDER_THEN_NAME =
+            Comparator.comparingInt(PatientManagement::genderKey)
+                    .thenComparing(Patient::getPatientName, String.CASE_INSENSITIVE_ORDER);
+    
+    private static int genderKey(Patient p) {
+        return p.getGender() == null ? -1 : p.getGender().ordinal();
+    }
+    
+    // Stable counting sort on a small integer key (age, gender). The input is
+    // already in name order (reversed when descending), so equal keys stay in
+    // name order and the whole listing costs O(n + key range) instead of O(n^2).
+    private static Patient[] countingSort(Patient[] byName, ToIntFunction<Patient> key, boolean descending) {
+        if (byName.length < 2) return byName;
+        
+        int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+        for (Patient p : byName) {
+            int k = key.applyAsInt(p);
+            min = Math.min(min, k);
+            max = Math.max(max, k);
         }
-    }
-
-    private void selectionSortByAge(Patient[] a, boolean descending) {
-        for (int i = 0; i < a.length - 1; i++) {
-            int target = i;
-            
-            for (int j = i + 1; j < a.length; j++) {
-                int cmp = Integer.compare(a[j].getAge(), a[target].getAge());
-                
-                if (cmp == 0) 
-                    cmp = a[j].getPatientName().compareToIgnoreCase(a[target].getPatientName());
-                
-                if ((descending && cmp > 0) || (!descending && cmp < 0)) 
-                    target = j;
-            }
-            
-            swap(a, i, target);
+        
+        // Ages are validated to 1-120, so this only triggers on corrupt data
+        if ((long) max - min > 4L * byName.length + 1024) {
+            Patient[] sorted = byName.clone();
+            Comparator<Patient> order = Comparator.comparingInt(key);
+            Arrays.sort(sorted, descending ? order.reversed() : order); // stable merge sort
+            return sorted;
         }
+        
+        // start[b] = first output slot of bucket b, buckets laid out in the requested direction
+        int buckets = max - min + 1;
+        int[] start = new int[buckets + 1];
+        for (Patient p : byName) {
+            int b = key.applyAsInt(p) - min;
+            start[(descending ? buckets - 1 - b : b) + 1]++;
+        }
+        for (int b = 0; b < buckets; b++) {
+            start[b + 1] += start[b];
+        }
+        
+        Patient[] sorted = new Patient[byName.length];
+        for (Patient p : byName) {
+            int b = key.applyAsInt(p) - min;
+            sorted[start[descending ? buckets - 1 - b : b]++] = p;
+        }
+        return sorted;
     }
     
-    private <T> void reverseArray(T[] array) {
-        for (int i = 0, j = array.length - 1; i < j; i++, j--) {
-            T temp = array[i];
-            array[i] = array[j];
-            array[j] = temp;
+    // Walks an index in the requested direction straight into the result
+    private Patient[] collectPatients(Iterator<Patient> it, int expected) {
+        Patient[] result = new Patient[expected];
+        int n = 0;
+        
+        while (it.hasNext() && n < expected) {
+            result[n++] = it.next();
         }
+        
+        if (n < expected) {
+            Patient[] trimmed = new Patient[n];
+            System.arraycopy(result, 0, trimmed, 0, n);
+            return trimmed;
+        }
+        return result;
     }
 
-    private void swap(Patient[] a, int i, int j) {
-        if (i == j) return;
-        
-        Patient temp = a[i];
-        a[i] = a[j];
-        a[j] = temp;
+    private int pageLength(int total, int offset, int limit) {
+        if (offset < 0 || limit <= 0 || offset >= total) return 0;
+
+        return Math.min(limit, total - offset);
     }
 }
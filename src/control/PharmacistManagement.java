@@ -30,6 +30,11 @@ public class PharmacistManagement {
         );
     }
 
+    // CREATE (bulk load; duplicate IDs are skipped, returns how many were added)
+    public int addPharmacists(Pharmacist[] pharmacists) {
+        return pharmacistTree.insertAll(pharmacists);
+    }
+
     // READ (search pharmacist by ID)
     public Pharmacist findPharmacist(String id) {
         return pharmacistTree.find(new Pharmacist(id, "", "", ""));
@@ -76,56 +76,17 @@ public class PharmacistReportGenerator {
     }
 
     public static void generateDispensingSummaryReport(QueueInterface<DispensedRecord> recordLog) {
-        int total = 0, success = 0, failed = 0;
-        int[] dispensedCount = new int[MedicineName.values().length];
-        int[] dispensedQty = new int[MedicineName.values().length];
-        String[] reasons = new String[500];
-        int[] reasonCounts = new int[500];
-        int reasonIndex = 0;
-
-        LocalDateTime first = null, last = null;
-
-        for (DispensedRecord r : recordLog) {
-            total++;
-
-            if (r.isDispensed()) {
-                success++;
-                if (first == null || r.getTimestamp().isBefore(first)) {
-                    first = r.getTimestamp();
-                }
-                if (last == null || r.getTimestamp().isAfter(last)) {
-                    last = r.getTimestamp();
-                }
-
-                MedicineName[] meds = r.getMedicines();
-                int[] qtys = r.getQuantities();
-                for (int i = 0; i < meds.length; i++) {
-                    int idx = meds[i].ordinal();
-                    dispensedCount[idx]++;
-                    dispensedQty[idx] += qtys[i];
-                }
-            } else {
-                failed++;
-                String reason = r.getRejectionReason();
-                if (reason == null || reason.isEmpty()) {
-                    reason = "Unknown";
-                }
-
-                boolean found = false;
-                for (int i = 0; i < reasonIndex; i++) {
-                    if (reasons[i].equals(reason)) {
-                        reasonCounts[i]++;
-                        found = true;
-                        break;
-                    }
-                }
-                if (!found) {
-                    reasons[reasonIndex] = reason;
-                    reasonCounts[reasonIndex] = 1;
-                    reasonIndex++;
-                }
-            }
-        }
+        // Tallied in parallel; partial tallies are merged in log order
+        DispensingTally tally = recordLog.parallelStream()
+                .collect(DispensingTally::new, DispensingTally::add, DispensingTally::merge);
+
+        int total = tally.total, success = tally.success, failed = tally.failed;
+        int[] dispensedCount = tally.dispensedCount;
+        int[] dispensedQty = tally.dispensedQty;
+        String[] reasons = tally.reasons;
+        int[] reasonCounts = tally.reasonCounts;
+        int reasonIndex = tally.reasonIndex;
+        LocalDateTime first = tally.first, last = tally.last;
 
         StringBuilder sb = new StringBuilder();
         sb.append(JOptionPaneConsoleIO.reportHeader("Pharmacy Management Module", "Dispensing Activity Summary Report", WIDTH));
@@ -179,6 +140,79 @@ public class PharmacistReportGenerator {
         JOptionPaneConsoleIO.showMonospaced("Dispensing Activity Summary", sb.toString());
     }
 
+    // Running totals for the dispensing summary; one per worker, then merged
+    private static class DispensingTally {
+        int total, success, failed;
+        final int[] dispensedCount = new int[MedicineName.values().length];
+        final int[] dispensedQty = new int[MedicineName.values().length];
+        final String[] reasons = new String[500];
+        final int[] reasonCounts = new int[500];
+        int reasonIndex = 0;
+        LocalDateTime first = null, last = null;
+
+        void add(DispensedRecord r) {
+            total++;
+
+            if (r.isDispensed()) {
+                success++;
+                widenRange(r.getTimestamp(), r.getTimestamp());
+
+                MedicineName[] meds = r.getMedicines();
+                int[] qtys = r.getQuantities();
+                for (int i = 0; i < meds.length; i++) {
+                    int idx = meds[i].ordinal();
+                    dispensedCount[idx]++;
+                    dispensedQty[idx] += qtys[i];
+                }
+            } else {
+                failed++;
+                String reason = r.getRejectionReason();
+                if (reason == null || reason.isEmpty()) {
+                    reason = "Unknown";
+                }
+                countReason(reason, 1);
+            }
+        }
+
+        // other covers later records, so its new reasons are listed after ours
+        void merge(DispensingTally other) {
+            total += other.total;
+            success += other.success;
+            failed += other.failed;
+            for (int i = 0; i < dispensedCount.length; i++) {
+                dispensedCount[i] += other.dispensedCount[i];
+                dispensedQty[i] += other.dispensedQty[i];
+            }
+            for (int i = 0; i < other.reasonIndex; i++) {
+                countReason(other.reasons[i], other.reasonCounts[i]);
+            }
+            if (other.first != null) {
+                widenRange(other.first, other.last);
+            }
+        }
+
+        private void widenRange(LocalDateTime from, LocalDateTime to) {
+            if (first == null || from.isBefore(first)) {
+                first = from;
+            }
+            if (last == null || to.isAfter(last)) {
+                last = to;
+            }
+        }
+
+        private void countReason(String reason, int count) {
+            for (int i = 0; i < reasonIndex; i++) {
+                if (reasons[i].equals(reason)) {
+                    reasonCounts[i] += count;
+                    return;
+                }
+            }
+            reasons[reasonIndex] = reason;
+            reasonCounts[reasonIndex] = count;
+            reasonIndex++;
+        }
+    }
+
     // ==== Private Utilities ====
     private static int getEstimatedDailyUsage(MedicineName name) {
         return switch (name) {
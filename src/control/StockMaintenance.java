@@ -1,11 +1,14 @@
 package control;
 
-import adt.AVLTree;
-import adt.AVLInterface;
+import adt.HashMapADT;
+import adt.KeyedAVLTree;
+import dao.Journal;
 import entity.StockBatch;
 import entity.MedicineName;
 
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Iterator;
 
 /**
@@ -13,10 +16,32 @@ import java.util.Iterator;
  * @author Khor Kai Yang
  */
 public class StockMaintenance {
-    private final AVLInterface<StockBatch> idxByStockKey = new AVLTree<>();
+    // (medicine name, batch ID) order, as StockBatch.compareTo; looked up by the raw pair.
+    // Both indexes are guarded by this object's monitor (every public method is synchronized).
+    private final KeyedAVLTree<MedicineName, StockBatch> idxByStockKey = new KeyedAVLTree<>(
+            StockBatch::getMedicineName, Comparator.comparing(MedicineName::name),
+            Comparator.comparing(StockBatch::getBatchID));
+    // upper-cased batch ID -> batch
+    private final HashMapADT<String, StockBatch> idxByBatchID = new HashMapADT<>();
+    private final boolean loadedFromJournal;
+
+    public StockMaintenance() {
+        // batches saved by an earlier run (none unless a journal is open)
+        StockBatch[] saved = Journal.rows(Journal.Table.STOCK, StockBatch.class);
+        idxByStockKey.insertAll(saved);
+        for (StockBatch b : saved) {
+            indexBatchID(b);
+        }
+        loadedFromJournal = saved.length > 0;
+    }
+
+    // True when stock came back from the journal, so the sample stock is not needed
+    public boolean loadedFromJournal() {
+        return loadedFromJournal;
+    }
       
     // add a stock batch
-    public boolean addBatch(MedicineName medicineName, String batchID, int qty,
+    public synchronized boolean addBatch(MedicineName medicineName, String batchID, int qty,
              LocalDate received, LocalDate expiry) {
         if (medicineName == null || batchID == null || batchID.isEmpty()
                 || qty <= 0 || received == null || expiry == null ) {
@@ -25,52 +50,105 @@ public class StockMaintenance {
 
         StockBatch existing = findBatch(medicineName, batchID);
         if (existing == null) {
-            return idxByStockKey.insert(new StockBatch(batchID, medicineName, qty, received, expiry));
-        } else {
-            existing.add(qty);
-            // Optional policy: keep earliest expiry if different
-            if (expiry.isBefore(existing.getExpiryDate())) {
-                existing.setExpiryDate(expiry);
+            StockBatch batch = new StockBatch(batchID, medicineName, qty, received, expiry);
+            if (!idxByStockKey.insert(batch)) {
+                return false;
             }
+            indexBatchID(batch);
+            Journal.put(Journal.Table.STOCK, batch);
+            return true;
+        } else {
+            mergeInto(existing, qty, expiry);
+            Journal.put(Journal.Table.STOCK, existing);
             return true;
         }
     }
     
-    public boolean batchIDExists(String batchID) {
-        for (StockBatch b : idxByStockKey) {
-            if (b.getBatchID().equalsIgnoreCase(batchID)) {
-                return true;
+    // bulk add for initial loads; same merge rules as addBatch, returns how many rows were accepted
+    public synchronized int addBatches(StockBatch[] batches) {
+        StockBatch[] fresh = new StockBatch[batches.length];
+        StockBatch[] touched = new StockBatch[batches.length]; // rows to save, in order
+        int n = 0;
+        int t = 0;
+        int accepted = 0;
+
+        for (StockBatch b : batches) {
+            if (b == null || b.getMedicineName() == null || b.getBatchID() == null || b.getBatchID().isEmpty()
+                    || b.getStockQty() <= 0 || b.getReceivedDate() == null || b.getExpiryDate() == null) {
+                continue;
+            }
+
+            StockBatch existing = findBatch(b.getMedicineName(), b.getBatchID());
+            if (existing == null) {
+                fresh[n++] = b;
+            } else {
+                mergeInto(existing, b.getStockQty(), b.getExpiryDate());
+                touched[t++] = existing;
+            }
+            accepted++;
+        }
+
+        StockBatch[] toInsert = new StockBatch[n];
+        System.arraycopy(fresh, 0, toInsert, 0, n);
+
+        // rows repeating a key inside the same batch were not inserted; fold them into the stored one
+        idxByStockKey.insertAll(toInsert);
+        for (StockBatch b : toInsert) {
+            StockBatch stored = findBatch(b.getMedicineName(), b.getBatchID());
+            if (stored == b) {
+                indexBatchID(b);
+            } else {
+                mergeInto(stored, b.getStockQty(), b.getExpiryDate());
             }
+            touched[t++] = stored;
+        }
+
+        StockBatch[] changed = new StockBatch[t];
+        System.arraycopy(touched, 0, changed, 0, t);
+        Journal.putAll(Journal.Table.STOCK, changed);
+        return accepted;
+    }
+
+    // IDs match case-insensitively; if two medicines share an ID the one that
+    // sorts first is kept, which is what the old in-order scan returned
+    private void indexBatchID(StockBatch b) {
+        String key = b.getBatchID().toUpperCase();
+        StockBatch current = idxByBatchID.get(key);
+        if (current == null || b.compareTo(current) < 0) {
+            idxByBatchID.put(key, b);
+        }
+    }
+
+    private void mergeInto(StockBatch existing, int qty, LocalDate expiry) {
+        existing.add(qty);
+        // Optional policy: keep earliest expiry if different
+        if (expiry.isBefore(existing.getExpiryDate())) {
+            existing.setExpiryDate(expiry);
         }
-        return false;
+    }
+
+    public synchronized boolean batchIDExists(String batchID) {
+        return findBatchByID(batchID) != null;
     }
     
     // find stock batch by Stockkey
-    public StockBatch findBatch(MedicineName name, String batchId) {
+    public synchronized StockBatch findBatch(MedicineName name, String batchId) {
         if (name == null || batchId == null) {
             return null;
         }
-    
-        StockBatch probe = new StockBatch(batchId, name, 0, LocalDate.MIN, LocalDate.MIN);
-        return idxByStockKey.find(probe);
+        return idxByStockKey.get(name, b -> batchId.compareTo(b.getBatchID()));
     }
     
     // find stock batch by id
-    public StockBatch findBatchByID(String batchID) {
+    public synchronized StockBatch findBatchByID(String batchID) {
         if (batchID == null) {
             return null;
         }
-
-        for (StockBatch b : idxByStockKey) {
-            if (b.getBatchID().equalsIgnoreCase(batchID)) {
-                return b;
-            }
-        }
-        return null;
+        return idxByBatchID.get(batchID.toUpperCase());
     }
     
     // list all stock batch for a selected medicine
-    public String[][] listByMedicine(MedicineName name) {
+    public synchronized String[][] listByMedicine(MedicineName name) {
         String[][] tmp = new String[800][5];
         int n = 0;
         Iterator<StockBatch> it = idxByStockKey.iterator();
@@ -91,7 +169,7 @@ public class StockMaintenance {
     }
     
     // list all for UI display
-    public String viewAllBatches() {
+    public synchronized String viewAllBatches() {
         StringBuilder sb = new StringBuilder();
         sb.append(String.format("%-15s %-14s %-8s %-12s %-12s%n", "Medicine", "BatchID", "Qty", "Received", "Expiry"));
         sb.append("-----------------------------------------------------------\n");
@@ -111,10 +189,9 @@ public class StockMaintenance {
         
     
     // list all for reports
-    public String[][] listAll() {
-        int size = idxByStockKey.size();
-        StockBatch[] batches = new StockBatch[size];
-        idxByStockKey.toArrayInorder(batches);
+    public synchronized String[][] listAll() {
+        StockBatch[] batches = idxByStockKey.toArray(new StockBatch[idxByStockKey.size()]);
+        int size = batches.length;
 
         // Use temporary list to collect valid rows
         String[][] temp = new String[size][5];
@@ -141,7 +218,7 @@ public class StockMaintenance {
         return rows;
     }
     
-    public int totalBalance(MedicineName name) {
+    public synchronized int totalBalance(MedicineName name) {
         int sum = 0;
         Iterator<StockBatch> it = idxByStockKey.iterator();
         while (it.hasNext()) {
@@ -153,7 +230,7 @@ public class StockMaintenance {
         return sum;
     }
     
-    public StockBatch earliestBatchNonExpired(MedicineName name) {
+    public synchronized StockBatch earliestBatchNonExpired(MedicineName name) {
         Iterator<StockBatch> it = idxByStockKey.iterator();
         StockBatch best = null;
         while (it.hasNext()) {
@@ -170,7 +247,7 @@ public class StockMaintenance {
         return best;
     }
     
-    public String[][] expiringWithin(int days) {
+    public synchronized String[][] expiringWithin(int days) {
         String[][] tmp = new String[600][4];
         int n = 0;
         LocalDate limit = LocalDate.now().plusDays(days);
@@ -190,11 +267,11 @@ public class StockMaintenance {
         return out;
     }
     
-    public boolean exists(MedicineName name, String batchId) {
+    public synchronized boolean exists(MedicineName name, String batchId) {
         return findBatch(name, batchId) != null;
     }   
     
-    public StockBatch[] getSortedNonExpiredBatches(MedicineName name) {
+    public synchronized StockBatch[] getSortedNonExpiredBatches(MedicineName name) {
         StockBatch[] temp = new StockBatch[100]; // assume max 100 batches
         int count = 0;
 
@@ -220,14 +297,14 @@ public class StockMaintenance {
         return result;
     }
     
-    public Iterable<StockBatch> getAllBatches() {
-        return idxByStockKey;
+    // A copy, so callers can iterate without holding the lock
+    public synchronized Iterable<StockBatch> getAllBatches() {
+        return Arrays.asList(idxByStockKey.toArray(new StockBatch[idxByStockKey.size()]));
     }
     
-    public StockBatch[] getAllValidBatches() {
-        int size = idxByStockKey.size();
-        StockBatch[] all = new StockBatch[size];
-        idxByStockKey.toArrayInorder(all);
+    public synchronized StockBatch[] getAllValidBatches() {
+        StockBatch[] all = idxByStockKey.toArray(new StockBatch[idxByStockKey.size()]);
+        int size = all.length;
 
         // Count valid first
         int count = 0;
@@ -249,7 +326,7 @@ public class StockMaintenance {
         return valid;
     }
     
-    public boolean deduct(MedicineName name, int qty) {
+    public synchronized boolean deduct(MedicineName name, int qty) {
         while (qty > 0) {
             StockBatch batch = earliestBatchNonExpired(name);
             if (batch == null) {
@@ -261,6 +338,7 @@ public class StockMaintenance {
             if (!batch.deduct(deductQty)) {
                 return false; 
             }
+            Journal.put(Journal.Table.STOCK, batch);
 
             qty -= deductQty;
         }
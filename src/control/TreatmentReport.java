@@ -37,7 +37,7 @@ public class TreatmentReport {
 
         // list treatments for that date
         for (PatientHistory ph : all) {
-            QueueIterator<TreatmentRecord> it = ((LinkedQueue<TreatmentRecord>) ph.getRecords()).getIterator();
+            QueueIterator<TreatmentRecord> it = ph.getRecords().getIterator();
             while (it.hasNext()) {
                 TreatmentRecord tr = it.getNext();
                 if (tr.getDateTime().toLocalDate().equals(date)) {
@@ -52,15 +52,15 @@ public class TreatmentReport {
     }
 
     public String reportDiagnosisFrequency() {
-        DiagnosisCountList counts = new DiagnosisCountList();
-        PatientHistory[] all = mtm.listAllHistories();
-        for (PatientHistory ph : all) {
-            QueueIterator<TreatmentRecord> it = ((LinkedQueue<TreatmentRecord>) ph.getRecords()).getIterator();
-            while (it.hasNext()) {
-                String dx = it.getNext().getDiagnosis();
-                if (dx != null && !dx.trim().isEmpty()) counts.increment(dx.trim());
-            }
-        }
+        // Each worker tallies its own slice of histories; slices are merged in
+        // order, so the listing comes out exactly as a sequential pass would
+        DiagnosisCountList counts = mtm.historyStream()
+                .parallel()
+                .flatMap(ph -> ph.getRecords().stream())
+                .map(TreatmentRecord::getDiagnosis)
+                .filter(dx -> dx != null && !dx.trim().isEmpty())
+                .collect(DiagnosisCountList::new, (list, dx) -> list.increment(dx.trim(), 1),
+                        DiagnosisCountList::mergeFrom);
         StringBuilder sb = new StringBuilder();
         sb.append("=== Diagnosis Frequency (All Time) ===\n");
         counts.appendLines(sb);
@@ -72,19 +72,28 @@ public class TreatmentReport {
         private static class E { String d; int c; E(String d,int c){this.d=d;this.c=c;} }
         private final QueueInterface<E> q = new LinkedQueue<>();
 
-        void increment(String diagnosis) {
-            QueueIterator<E> it = ((LinkedQueue<E>) q).getIterator();
+        void increment(String diagnosis, int by) {
+            QueueIterator<E> it = q.getIterator();
+            while (it.hasNext()) {
+                E e = it.getNext();
+                if (e.d.equalsIgnoreCase(diagnosis)) { e.c += by; return; }
+            }
+            q.enqueue(new E(diagnosis,by));
+        }
+
+        // other holds the later slice: its new diagnoses go after ours
+        void mergeFrom(DiagnosisCountList other) {
+            QueueIterator<E> it = other.q.getIterator();
             while (it.hasNext()) {
                 E e = it.getNext();
-                if (e.d.equalsIgnoreCase(diagnosis)) { e.c++; return; }
+                increment(e.d, e.c);
             }
-            q.enqueue(new E(diagnosis,1));
         }
 
-        boolean isEmpty() { return !((LinkedQueue<E>) q).getIterator().hasNext(); }
+        boolean isEmpty() { return !q.getIterator().hasNext(); }
 
         void appendLines(StringBuilder sb) {
-            QueueIterator<E> it = ((LinkedQueue<E>) q).getIterator();
+            QueueIterator<E> it = q.getIterator();
             int i = 1;
             while (it.hasNext()) {
                 E e = it.getNext();
@@ -1,5 +1,6 @@
 package dao;
 
+import adt.LinkedQueue;
 import control.ConsultationManagement;
 import control.PatientManagement;
 import control.DoctorManagement;
@@ -44,6 +45,9 @@ public class ConsultationInitializer {
             doctorIDs[i] = doctors[i].getDoctorID();
         }
                 
+        /* Collected first and indexed in one bulk load at the end */
+        LinkedQueue<Consultation> batch = new LinkedQueue<>();
+        
         /* Sample Consultation */
         Consultation c1 = new Consultation(IDGenerator.next(IDType.CONSULTATION), 
                                          patientIDs[0], 
@@ -52,7 +56,7 @@ public class ConsultationInitializer {
         c1.setDiagnosis("Generalized Anxiety Disorder");
         c1.setNotes("Recommended stress management techniques and follow-up in 2 weeks");
         c1.setStatus(ConsultationStatus.COMPLETED);
-        cm.indexConsultation(c1);
+        batch.enqueue(c1);
 
         Consultation c2 = new Consultation(IDGenerator.next(IDType.CONSULTATION), 
                                          patientIDs[1], 
@@ -61,7 +65,7 @@ public class ConsultationInitializer {
         c2.setDiagnosis(""); // Still being diagnosed
         c2.setNotes("ECG normal, recommended gradual increase in physical activity");
         c2.setStatus(ConsultationStatus.IN_PROGRESS);
-        cm.indexConsultation(c2);
+        batch.enqueue(c2);
 
         Consultation c3 = new Consultation(IDGenerator.next(IDType.CONSULTATION), 
                                          patientIDs[2], 
@@ -70,7 +74,7 @@ public class ConsultationInitializer {
         c3.setDiagnosis("Appendicitis - surgical intervention required");
         c3.setNotes("Emergency appendectomy performed successfully. Patient recovering well.");
         c3.setStatus(ConsultationStatus.COMPLETED);
-        cm.indexConsultation(c3);
+        batch.enqueue(c3);
 
         Consultation c4 = new Consultation(IDGenerator.next(IDType.CONSULTATION), 
                                          patientIDs[3], 
@@ -79,7 +83,7 @@ public class ConsultationInitializer {
         c4.setDiagnosis("");
         c4.setNotes("Patient had to cancel due to family emergency. Rescheduled for next week.");
         c4.setStatus(ConsultationStatus.CANCELLED);
-        cm.indexConsultation(c4);
+        batch.enqueue(c4);
 
         Consultation c5 = new Consultation(IDGenerator.next(IDType.CONSULTATION), 
                                          patientIDs[4], 
@@ -88,7 +92,7 @@ public class ConsultationInitializer {
         c5.setDiagnosis("Benign skin lesion - surgical removal recommended");
         c5.setNotes("Minor surgical procedure scheduled. No malignancy detected.");
         c5.setStatus(ConsultationStatus.COMPLETED);
-        cm.indexConsultation(c5);
+        batch.enqueue(c5);
 
         /* Additional consultations using cycling through available doctors */
         if (patientIDs.length > 5 && doctors.length > 0) {
@@ -99,7 +103,7 @@ public class ConsultationInitializer {
             c6.setDiagnosis(""); // Still being diagnosed
             c6.setNotes("Patient reports headaches for past 2 weeks. Ordering MRI scan.");
             c6.setStatus(ConsultationStatus.IN_PROGRESS);
-            cm.indexConsultation(c6);
+            batch.enqueue(c6);
         }
 
         if (patientIDs.length > 6 && doctors.length > 1) {
@@ -110,7 +114,7 @@ public class ConsultationInitializer {
             c7.setDiagnosis("Benign heart palpitations - no treatment required");
             c7.setNotes("Holter monitor results normal. Advised to stay hydrated and avoid caffeine.");
             c7.setStatus(ConsultationStatus.COMPLETED);
-            cm.indexConsultation(c7);
+            batch.enqueue(c7);
         }
 
         if (patientIDs.length > 7 && doctors.length > 2) {
@@ -121,7 +125,7 @@ public class ConsultationInitializer {
             c8.setDiagnosis("Stress-related cognitive symptoms");
             c8.setNotes("Recommended cognitive behavioral therapy and stress reduction techniques.");
             c8.setStatus(ConsultationStatus.COMPLETED);
-            cm.indexConsultation(c8);
+            batch.enqueue(c8);
         }
 
         if (patientIDs.length > 8 && doctors.length > 3) {
@@ -132,7 +136,7 @@ public class ConsultationInitializer {
             c9.setDiagnosis("Lumbar strain - physical therapy recommended");
             c9.setNotes("Referred to physiotherapist. Prescribed pain management.");
             c9.setStatus(ConsultationStatus.COMPLETED);
-            cm.indexConsultation(c9);
+            batch.enqueue(c9);
         }
 
         if (patientIDs.length > 9 && doctors.length > 4) {
@@ -143,7 +147,7 @@ public class ConsultationInitializer {
             c10.setDiagnosis("Viral pharyngitis");
             c10.setNotes("Symptomatic treatment. Rest and fluids recommended.");
             c10.setStatus(ConsultationStatus.COMPLETED);
-            cm.indexConsultation(c10);
+            batch.enqueue(c10);
         }
 
         if (patientIDs.length > 10 && doctors.length > 0) {
@@ -154,7 +158,9 @@ public class ConsultationInitializer {
             c11.setDiagnosis(""); // Still being diagnosed
             c11.setNotes("Ordering chest X-ray and blood tests.");
             c11.setStatus(ConsultationStatus.IN_PROGRESS);
-            cm.indexConsultation(c11);
+            batch.enqueue(c11);
         }
+        
+        cm.indexConsultations(batch.toArray(new Consultation[0]));
     }
 }
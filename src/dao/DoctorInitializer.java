@@ -0,0 +1,32 @@
+package dao;
+
+import control.DoctorManagement;
+import entity.Doctor;
+import entity.Specialization;
+import utility.IDBlock;
+import utility.IDGenerator;
+import utility.IDType;
+
+/**
+ *
+ * @author Nelson Cheng Ming Jian
+ */
+public class DoctorInitializer {
+
+    public static void initialize(DoctorManagement dm) {
+        // sample doctors only on a fresh start, so a restored roster is not padded out again
+        if (dm == null || !dm.isEmptyTree()) return;
+
+        // Hardcoded doctor information (IDs reserved in one block)
+        IDBlock ids = IDGenerator.nextBlock(IDType.DOCTOR, 4);
+        Doctor A = new Doctor("D202408110001", "Nelson Cheng Ming Jian", "0182284609", "nelson@gmail.com", Specialization.PSYCHIATRY, "050715070395");
+        Doctor B = new Doctor(ids.id(0), "Khor Kai Yang", "0121234567", "ky@gmail.com", Specialization.NEUROLOGY, "050704070498");
+        Doctor C = new Doctor(ids.id(1), "Ng Wei Jian", "0121234467", "wj@gmail.com", Specialization.CARDIOLOGY, "050123071233");
+        Doctor D = new Doctor(ids.id(2), "Sim Jia Quan", "0121334567", "jq@gmail.com", Specialization.GENERAL_SURGERY, "050704070433");
+        Doctor E = new Doctor(ids.id(3), "Giggs Teh Ting Wei", "0121234547", "tw@gmail.com", Specialization.CARDIOLOGY, "050123071223");
+
+        for (Doctor d : new Doctor[]{A, B, C, D, E}) {
+            dm.registerDoctor(d);
+        }
+    }
+}
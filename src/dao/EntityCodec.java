@@ -0,0 +1,271 @@
+package dao;
+
+import entity.*;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Binary form of the entities the Journal keeps, one encoder/decoder pair per
+ * table. Every record is the entity's full current state, so replaying the
+ * log is just "last write wins" per key.
+ *
+ * Fields are written in declaration order with DataOutput; strings and
+ * enums may be null. Changing a layout means bumping SnapshotFile.VERSION.
+ *
+ * @author Group 3
+ */
+final class EntityCodec {
+
+    private EntityCodec() {}
+
+    /* ---------- Keys ---------- */
+
+    static String keyOf(Journal.Table table, Object entity) {
+        return switch (table) {
+            case PATIENT -> ((Patient) entity).getPatientID();
+            case DOCTOR -> ((Doctor) entity).getDoctorID();
+            case DUTY -> dutyKey((DoctorDuty) entity);
+            case CONSULTATION -> ((Consultation) entity).getConsultationID();
+            case TREATMENT -> ((TreatmentRecord) entity).getTreatmentID();
+            case STOCK -> stockKey((StockBatch) entity);
+            case DISPENSE -> ((DispensedRecord) entity).getRecordID();
+        };
+    }
+
+    static String dutyKey(DoctorDuty d) {
+        return d.getDoctorID() + "|" + d.getDate() + "|" + d.getShift();
+    }
+
+    static String stockKey(StockBatch b) {
+        return b.getMedicineName() + "|" + b.getBatchID();
+    }
+
+    /* ---------- Encode ---------- */
+
+    static void write(Journal.Table table, Object entity, DataOutputStream out) throws IOException {
+        switch (table) {
+            case PATIENT -> writePatient((Patient) entity, out);
+            case DOCTOR -> writeDoctor((Doctor) entity, out);
+            case DUTY -> writeDuty((DoctorDuty) entity, out);
+            case CONSULTATION -> writeConsultation((Consultation) entity, out);
+            case TREATMENT -> writeTreatment((TreatmentRecord) entity, out);
+            case STOCK -> writeStock((StockBatch) entity, out);
+            case DISPENSE -> writeDispense((DispensedRecord) entity, out);
+        }
+    }
+
+    private static void writePatient(Patient p, DataOutputStream out) throws IOException {
+        writeString(p.getPatientID(), out);
+        writeString(p.getPatientName(), out);
+        writeString(p.getContactNo(), out);
+        writeString(p.getEmail(), out);
+        writeEnum(p.getGender(), out);
+        out.writeInt(p.getAge());
+    }
+
+    private static void writeDoctor(Doctor d, DataOutputStream out) throws IOException {
+        writeString(d.getDoctorID(), out);
+        writeString(d.getDoctorName(), out);
+        writeString(d.getContactNo(), out);
+        writeString(d.getEmail(), out);
+        writeEnum(d.getSpecialization(), out);
+        writeString(d.getIcNo(), out);
+    }
+
+    private static void writeDuty(DoctorDuty d, DataOutputStream out) throws IOException {
+        writeString(d.getDoctorID(), out);
+        writeDate(d.getDate(), out);
+        writeEnum(d.getShift(), out);
+        writeEnum(d.getAvailability(), out);
+    }
+
+    private static void writeConsultation(Consultation c, DataOutputStream out) throws IOException {
+        writeString(c.getConsultationID(), out);
+        writeString(c.getPatientID(), out);
+        writeString(c.getDoctorID(), out);
+        writeDateTime(c.getConsultationDateTime(), out);
+        writeString(c.getSymptoms(), out);
+        writeString(c.getDiagnosis(), out);
+        writeString(c.getNotes(), out);
+        writeEnum(c.getStatus(), out);
+        out.writeBoolean(c.getTreatmentRecord() != null);
+        if (c.getTreatmentRecord() != null) {
+            writeTreatment(c.getTreatmentRecord(), out);
+        }
+    }
+
+    private static void writeTreatment(TreatmentRecord t, DataOutputStream out) throws IOException {
+        writeString(t.getTreatmentID(), out);
+        writeString(t.getPatientID(), out);
+        writeString(t.getDiagnosis(), out);
+        writeString(t.getTreatment(), out);
+        writeDateTime(t.getDateTime(), out);
+    }
+
+    private static void writeStock(StockBatch b, DataOutputStream out) throws IOException {
+        writeString(b.getBatchID(), out);
+        writeEnum(b.getMedicineName(), out);
+        out.writeInt(b.getStockQty());
+        writeDate(b.getReceivedDate(), out);
+        writeDate(b.getExpiryDate(), out);
+    }
+
+    private static void writeDispense(DispensedRecord r, DataOutputStream out) throws IOException {
+        writeString(r.getRecordID(), out);
+        writeString(r.getPrescriptionID(), out);
+        writeString(r.getPatientID(), out);
+        writeString(r.getDoctorID(), out);
+        writeString(r.getPharmacistName(), out);
+        writeDateTime(r.getTimestamp(), out);
+
+        MedicineName[] meds = r.getMedicines();
+        int[] qtys = r.getQuantities();
+        out.writeInt(meds.length);
+        for (int i = 0; i < meds.length; i++) {
+            writeEnum(meds[i], out);
+            out.writeInt(qtys[i]);
+        }
+
+        out.writeBoolean(r.isDispensed());
+        writeString(r.getRejectionReason(), out);
+
+        Prescription p = r.getPrescription();
+        out.writeBoolean(p != null);
+        if (p != null) {
+            writeString(p.getPrescriptionID(), out);
+            writeString(p.getPatientID(), out);
+            writeString(p.getDoctorID(), out);
+            writeDateTime(p.getCreatedTime(), out);
+            writeEnum(p.getStatus(), out);
+            writeString(p.getRejectionReason(), out);
+            PrescriptionItem[] items = p.getItemsArray();
+            out.writeInt(items.length);
+            for (PrescriptionItem item : items) {
+                writeEnum(item.getMedicineName(), out);
+                out.writeInt(item.getPrescribedQty());
+                writeEnum(item.getInstructions(), out);
+            }
+        }
+    }
+
+    /* ---------- Decode ---------- */
+
+    static Object read(Journal.Table table, DataInputStream in) throws IOException {
+        return switch (table) {
+            case PATIENT -> new Patient(readString(in), readString(in), readString(in), readString(in),
+                    readEnum(Gender.class, in), in.readInt());
+            case DOCTOR -> new Doctor(readString(in), readString(in), readString(in), readString(in),
+                    readEnum(Specialization.class, in), readString(in));
+            case DUTY -> new DoctorDuty(readString(in), readDate(in),
+                    readEnum(Shift.class, in), readEnum(Availability.class, in));
+            case CONSULTATION -> readConsultation(in);
+            case TREATMENT -> readTreatment(in);
+            case STOCK -> new StockBatch(readString(in), readEnum(MedicineName.class, in), in.readInt(),
+                    readDate(in), readDate(in));
+            case DISPENSE -> readDispense(in);
+        };
+    }
+
+    private static Consultation readConsultation(DataInputStream in) throws IOException {
+        Consultation c = new Consultation(readString(in), readString(in), readString(in), readDateTime(in));
+        c.setSymptoms(readString(in));
+        c.setDiagnosis(readString(in));
+        c.setNotes(readString(in));
+        c.setStatus(readEnum(ConsultationStatus.class, in));
+        if (in.readBoolean()) {
+            c.setTreatmentRecord(readTreatment(in));
+        }
+        return c;
+    }
+
+    private static TreatmentRecord readTreatment(DataInputStream in) throws IOException {
+        return new TreatmentRecord(readString(in), readString(in), readString(in), readString(in), readDateTime(in));
+    }
+
+    private static DispensedRecord readDispense(DataInputStream in) throws IOException {
+        String recordID = readString(in);
+        String prescriptionID = readString(in);
+        String patientID = readString(in);
+        String doctorID = readString(in);
+        String pharmacistName = readString(in);
+        LocalDateTime timestamp = readDateTime(in);
+
+        int n = in.readInt();
+        MedicineName[] meds = new MedicineName[n];
+        int[] qtys = new int[n];
+        for (int i = 0; i < n; i++) {
+            meds[i] = readEnum(MedicineName.class, in);
+            qtys[i] = in.readInt();
+        }
+
+        boolean dispensed = in.readBoolean();
+        String rejectionReason = readString(in);
+
+        Prescription p = null;
+        if (in.readBoolean()) {
+            p = new Prescription(readString(in), readString(in), readString(in), readDateTime(in));
+            if (readEnum(PrescriptionStatus.class, in) == PrescriptionStatus.DISPENSED) {
+                p.setStatusDispensed();
+            }
+            p.setRejectionReason(readString(in));
+            int items = in.readInt();
+            for (int i = 0; i < items; i++) {
+                p.addItem(new PrescriptionItem(readEnum(MedicineName.class, in), in.readInt(),
+                        readEnum(Instruction.class, in)));
+            }
+        }
+
+        DispensedRecord r = new DispensedRecord(recordID, prescriptionID, patientID, doctorID,
+                timestamp, meds, qtys, dispensed, rejectionReason, p);
+        r.setPharmacistName(pharmacistName);
+        return r;
+    }
+
+    /* ---------- Field Helpers ---------- */
+
+    private static void writeString(String s, DataOutputStream out) throws IOException {
+        out.writeBoolean(s != null);
+        if (s != null) out.writeUTF(s);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeEnum(Enum<?> e, DataOutputStream out) throws IOException {
+        writeString(e == null ? null : e.name(), out);
+    }
+
+    private static <E extends Enum<E>> E readEnum(Class<E> type, DataInputStream in) throws IOException {
+        String name = readString(in);
+        return name == null ? null : Enum.valueOf(type, name);
+    }
+
+    private static void writeDate(LocalDate d, DataOutputStream out) throws IOException {
+        out.writeLong(d == null ? Long.MIN_VALUE : d.toEpochDay());
+    }
+
+    private static LocalDate readDate(DataInputStream in) throws IOException {
+        long day = in.readLong();
+        return day == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(day);
+    }
+
+    private static void writeDateTime(LocalDateTime t, DataOutputStream out) throws IOException {
+        out.writeBoolean(t != null);
+        if (t != null) {
+            out.writeLong(t.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(t.getNano());
+        }
+    }
+
+    private static LocalDateTime readDateTime(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) return null;
+        long seconds = in.readLong();
+        return LocalDateTime.ofEpochSecond(seconds, in.readInt(), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,180 @@
+package dao;
+
+import entity.Gender;
+import entity.Patient;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads patients from CSV one line at a time, so a large export never has to
+ * sit in memory as text. Columns: ID, Name, Contact, Email, Gender, Age. A
+ * first line whose first field is "ID" is taken as a header. Fields may be quoted
+ * ("" inside quotes is a quote); a quoted field cannot span lines.
+ *
+ * A line that cannot be parsed still comes out as a Row, with the reason in
+ * getError(), so the caller can report it against its line number.
+ *
+ * @author Group 3
+ */
+public class PatientCsvReader implements Iterable<PatientCsvReader.Row>, AutoCloseable {
+    private static final int COLUMNS = 6;
+
+    public static final class Row {
+        private final int line;
+        private final String id;
+        private final Patient patient;
+        private final String error;
+
+        private Row(int line, String id, Patient patient, String error) {
+            this.line = line;
+            this.id = id;
+            this.patient = patient;
+            this.error = error;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        // First column as written, even when the rest of the line is bad
+        public String getId() {
+            return id;
+        }
+
+        // null if the line could not be parsed
+        public Patient getPatient() {
+            return patient;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+
+    private final BufferedReader in;
+    private int line;
+    private boolean started;
+
+    public PatientCsvReader(Reader in) {
+        this.in = in instanceof BufferedReader b ? b : new BufferedReader(in);
+    }
+
+    // Single pass: the rows come straight off the reader
+    @Override
+    public Iterator<Row> iterator() {
+        if (started) {
+            throw new IllegalStateException("A CSV reader can only be iterated once.");
+        }
+        started = true;
+
+        return new Iterator<Row>() {
+            private Row next = advance();
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Row next() {
+                if (next == null) throw new NoSuchElementException();
+                Row row = next;
+                next = advance();
+                return row;
+            }
+        };
+    }
+
+    // Next non-blank line as a Row, or null at end of input
+    private Row advance() {
+        try {
+            String text;
+            while ((text = in.readLine()) != null) {
+                line++;
+                if (text.isBlank()) continue;
+                if (line == 1 && isHeader(text)) continue;
+                return parse(line, text);
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean isHeader(String text) {
+        String[] f = split(text);
+        return f != null && f[0].trim().equalsIgnoreCase("ID");
+    }
+
+    private static Row parse(int line, String text) {
+        String[] f = split(text);
+        if (f == null) {
+            return new Row(line, null, null, "unclosed quote");
+        }
+        String id = f[0].trim();
+        if (f.length != COLUMNS) {
+            return new Row(line, id, null, "expected " + COLUMNS + " columns, found " + f.length);
+        }
+
+        Gender gender;
+        try {
+            gender = Gender.valueOf(f[4].trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return new Row(line, id, null, "unknown gender '" + f[4].trim() + "'");
+        }
+
+        int age;
+        try {
+            age = Integer.parseInt(f[5].trim());
+        } catch (NumberFormatException e) {
+            return new Row(line, id, null, "age is not a number");
+        }
+
+        return new Row(line, id, new Patient(id, f[1].trim(), f[2].trim(), f[3].trim(), gender, age), null);
+    }
+
+    // Splits one line on commas outside quotes; null if a quote is left open
+    private static String[] split(String text) {
+        String[] fields = new String[COLUMNS];
+        int n = 0;
+        StringBuilder cur = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    cur.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cur.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                if (n == fields.length) fields = Arrays.copyOf(fields, n * 2);
+                fields[n++] = cur.toString();
+                cur.setLength(0);
+            } else {
+                cur.append(c);
+            }
+        }
+        if (quoted) return null;
+        if (n == fields.length) fields = Arrays.copyOf(fields, n + 1);
+        fields[n++] = cur.toString();
+        return Arrays.copyOf(fields, n);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
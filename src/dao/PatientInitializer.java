@@ -2,6 +2,7 @@ package dao;
 
 import adt.*;
 import entity.*;
+import utility.IDBlock;
 import utility.IDGenerator;
 
 import java.time.LocalDateTime;
@@ -13,18 +14,19 @@ import utility.IDType;
  */
 public class PatientInitializer {
     public static void initialize(QueueInterface<PatientVisit> visitQueue) {
-        // Sample patients
-        Patient p1  = new Patient(IDGenerator.next(IDType.PATIENT), "Bryant Yeoh",       "012-3456789", "bryant@gmail.com",  Gender.MALE,   20); // 19–30
-        Patient p2  = new Patient(IDGenerator.next(IDType.PATIENT), "Claire Cottrill",   "012-8888888", "clairo@gmail.com",  Gender.FEMALE, 26); // 19–30
-        Patient p3  = new Patient(IDGenerator.next(IDType.PATIENT), "Travis Scott",      "018-4567890", "travis@gmail.com",  Gender.MALE,   34); // 31–50
-        Patient p4  = new Patient(IDGenerator.next(IDType.PATIENT), "Drake Graham",      "017-2223344", "drizzy@gmail.com",  Gender.MALE,   38); // 31–50
-        Patient p5  = new Patient(IDGenerator.next(IDType.PATIENT), "Kendrick Lamar",    "017-2223344", "kdot@gmail.com",    Gender.MALE,   38); // 0–18
-        Patient p6  = new Patient(IDGenerator.next(IDType.PATIENT), "Jermaine Cole",     "017-2223344", "jcole@gmail.com",   Gender.MALE,   40); // 31–50
-        Patient p7  = new Patient(IDGenerator.next(IDType.PATIENT), "Rihanna Fenty",     "012-9988776", "rihanna@gmail.com", Gender.FEMALE, 32); // 31–50
-        Patient p8  = new Patient(IDGenerator.next(IDType.PATIENT), "Billie Eilish",     "013-1111222", "billie@gmail.com",  Gender.FEMALE, 17); // 0–18
-        Patient p9  = new Patient(IDGenerator.next(IDType.PATIENT), "Doja Cat",          "016-2222333", "doja@gmail.com",    Gender.FEMALE, 29); // 19–30
-        Patient p10 = new Patient(IDGenerator.next(IDType.PATIENT), "Zack Tabudlo",      "014-3333444", "zack@gmail.com",    Gender.MALE,   51); // 51+
-        Patient p11 = new Patient(IDGenerator.next(IDType.PATIENT), "Jack Harlow",       "011-1111222", "jack@gmail.com",    Gender.MALE,   27); // 19–30
+        // Sample patients (IDs reserved in one block)
+        IDBlock ids = IDGenerator.nextBlock(IDType.PATIENT, 11);
+        Patient p1  = new Patient(ids.id(0), "Bryant Yeoh",       "012-3456789", "bryant@gmail.com",  Gender.MALE,   20); // 19–30
+        Patient p2  = new Patient(ids.id(1), "Claire Cottrill",   "012-8888888", "clairo@gmail.com",  Gender.FEMALE, 26); // 19–30
+        Patient p3  = new Patient(ids.id(2), "Travis Scott",      "018-4567890", "travis@gmail.com",  Gender.MALE,   34); // 31–50
+        Patient p4  = new Patient(ids.id(3), "Drake Graham",      "017-2223344", "drizzy@gmail.com",  Gender.MALE,   38); // 31–50
+        Patient p5  = new Patient(ids.id(4), "Kendrick Lamar",    "017-2223344", "kdot@gmail.com",    Gender.MALE,   38); // 0–18
+        Patient p6  = new Patient(ids.id(5), "Jermaine Cole",     "017-2223344", "jcole@gmail.com",   Gender.MALE,   40); // 31–50
+        Patient p7  = new Patient(ids.id(6), "Rihanna Fenty",     "012-9988776", "rihanna@gmail.com", Gender.FEMALE, 32); // 31–50
+        Patient p8  = new Patient(ids.id(7), "Billie Eilish",     "013-1111222", "billie@gmail.com",  Gender.FEMALE, 17); // 0–18
+        Patient p9  = new Patient(ids.id(8), "Doja Cat",          "016-2222333", "doja@gmail.com",    Gender.FEMALE, 29); // 19–30
+        Patient p10 = new Patient(ids.id(9), "Zack Tabudlo",      "014-3333444", "zack@gmail.com",    Gender.MALE,   51); // 51+
+        Patient p11 = new Patient(ids.id(10), "Jack Harlow",       "011-1111222", "jack@gmail.com",    Gender.MALE,   27); // 19–30
         
         // visits
         LocalDateTime now = LocalDateTime.now().withSecond(0).withNano(0);
@@ -15,8 +15,6 @@ public class PharmacistInitializer {
         Pharmacist B = new Pharmacist(IDGenerator.next(IDType.PHARMACIST), "DericTan", "0121234567", "deric@gmail.com");
         Pharmacist C = new Pharmacist(IDGenerator.next(IDType.PHARMACIST), "KelsonTan", "0121234567", "kelson@gmail.com");
 
-        pharmacistMgmt.addPharmacist(A);
-        pharmacistMgmt.addPharmacist(B);
-        pharmacistMgmt.addPharmacist(C);
+        pharmacistMgmt.addPharmacists(new Pharmacist[]{A, B, C});
     }
 }
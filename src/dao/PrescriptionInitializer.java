@@ -65,8 +65,10 @@ public class PrescriptionInitializer {
         p8.addItem(new PrescriptionItem(MedicineName.AMOXICILLIN, 10, Instruction.BEFORE_MEAL));
         queue.enqueue(p8);
 
-        // Add random dispensed
-        addRandomDispensedPrescriptions(dispenser, 20);
+        // Add random dispensed (a restored history is kept as is)
+        if (!dispenser.loadedFromJournal()) {
+            addRandomDispensedPrescriptions(dispenser, 20);
+        }
     }
 
     private static void addRandomDispensedPrescriptions(MedicineDispenser dispenser, int count) {
@@ -150,7 +152,7 @@ public class PrescriptionInitializer {
                     null
             );
 
-            dispenser.getRecordLog().enqueue(record);
+            dispenser.addRecord(record);
         }
     }
 }
@@ -0,0 +1,304 @@
+package dao;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * The Journal's snapshot, written once and then read through FileChannel.map,
+ * so opening it costs a few page faults instead of a full parse.
+ *
+ * Every table is one section with its rows in key order, stored column by
+ * column: key start offsets, row start offsets, all key bytes, all row bytes.
+ * Row i is a slice of the mapped file; nothing is copied until it is decoded.
+ *
+ * Layout (big-endian):
+ *   header   magic, version, covered segment (long), table count, 0
+ *   per table  rows, crc32 of the section, section offset (long),
+ *              key bytes (long), row bytes (long)
+ *   header crc32
+ *   sections   int[rows + 1] key starts, int[rows + 1] row starts, keys, rows
+ *
+ * @author Group 3
+ */
+final class SnapshotFile {
+    static final int MAGIC = 0x434A4E4C; // "CJNL"
+    static final int VERSION = 2;
+
+    private static final int HEADER_BYTES = 24;
+    private static final int ENTRY_BYTES = 32;
+
+    private final long covered;
+    private final Section[] sections;
+
+    private SnapshotFile(long covered, Section[] sections) {
+        this.covered = covered;
+        this.sections = sections;
+    }
+
+    // Last log segment whose records are already in this snapshot
+    long covered() {
+        return covered;
+    }
+
+    // Section for a table; empty if the file has fewer tables
+    Section section(int table) {
+        return table < sections.length ? sections[table] : Section.EMPTY;
+    }
+
+    /* ---------- Reading ---------- */
+
+    // Maps every section; the checksums are verified in parallel, one task per table
+    static SnapshotFile open(Path file, int tables) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size < HEADER_BYTES + 4) {
+                throw new IOException("Not a journal snapshot: " + file);
+            }
+            ByteBuffer fixed = ch.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            if (fixed.getInt(0) != MAGIC || fixed.getInt(4) != VERSION) {
+                throw new IOException("Not a journal snapshot: " + file);
+            }
+            long covered = fixed.getLong(8);
+            int stored = fixed.getInt(16);
+            if (stored < 0 || stored > tables) {
+                throw new IOException("Snapshot has unknown tables: " + file);
+            }
+
+            int headerEnd = HEADER_BYTES + ENTRY_BYTES * stored;
+            if (size < headerEnd + 4L) {
+                throw new IOException("Journal snapshot is truncated: " + file);
+            }
+            ByteBuffer header = ch.map(FileChannel.MapMode.READ_ONLY, 0, headerEnd + 4L);
+            CRC32 crc = new CRC32();
+            crc.update(header.duplicate().limit(headerEnd));
+            if ((int) crc.getValue() != header.getInt(headerEnd)) {
+                throw new IOException("Journal snapshot is corrupt: " + file);
+            }
+
+            Section[] sections = new Section[stored];
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            CompletableFuture<Void>[] checks = new CompletableFuture[stored];
+            for (int t = 0; t < stored; t++) {
+                int at = HEADER_BYTES + ENTRY_BYTES * t;
+                int rows = header.getInt(at);
+                int expected = header.getInt(at + 4);
+                long offset = header.getLong(at + 8);
+                long keyBytes = header.getLong(at + 16);
+                long rowBytes = header.getLong(at + 24);
+
+                long length = 8L * (rows + 1) + keyBytes + rowBytes;
+                if (rows < 0 || offset < headerEnd + 4L || length > Integer.MAX_VALUE || offset + length > size) {
+                    throw new IOException("Journal snapshot is corrupt: " + file);
+                }
+                MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, offset, length);
+                sections[t] = new Section(buf, rows, (int) keyBytes);
+                checks[t] = CompletableFuture.runAsync(() -> {
+                    CRC32 c = new CRC32();
+                    c.update(buf.duplicate());
+                    if ((int) c.getValue() != expected) {
+                        throw new IllegalStateException("Journal snapshot is corrupt: " + file);
+                    }
+                });
+            }
+            try {
+                CompletableFuture.allOf(checks).join();
+            } catch (RuntimeException e) {
+                throw new IOException("Journal snapshot is corrupt: " + file, e);
+            }
+            return new SnapshotFile(covered, sections);
+        }
+    }
+
+    /* ---------- Writing ---------- */
+
+    // What the writer needs from one table: its rows in key order
+    interface TableRows {
+        int size();
+        byte[] key(int i);
+        int rowLength(int i);
+        void writeRow(int i, DataOutputStream out) throws IOException;
+    }
+
+    static void write(Path file, long covered, TableRows[] tables) throws IOException {
+        int t = tables.length;
+        int headerEnd = HEADER_BYTES + ENTRY_BYTES * t;
+        ByteBuffer header = ByteBuffer.allocate(headerEnd + 4);
+        header.putInt(MAGIC).putInt(VERSION).putLong(covered).putInt(t).putInt(0);
+
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long offset = headerEnd + 4;
+            ch.position(offset);
+            OutputStream out = Channels.newOutputStream(ch);
+
+            for (TableRows table : tables) {
+                int rows = table.size();
+                byte[][] keys = new byte[rows][];
+                long keyBytes = 0;
+                long rowBytes = 0;
+                for (int i = 0; i < rows; i++) {
+                    keys[i] = table.key(i);
+                    keyBytes += keys[i].length;
+                    rowBytes += table.rowLength(i);
+                }
+                long length = 8L * (rows + 1) + keyBytes + rowBytes;
+                if (length > Integer.MAX_VALUE) {
+                    throw new IOException("Table too large for one snapshot section.");
+                }
+
+                // checksum the section as it goes out
+                CRC32 crc = new CRC32();
+                DataOutputStream sec = new DataOutputStream(
+                        new BufferedOutputStream(new CheckedOutputStream(out, crc), 1 << 16));
+                int at = 0;
+                for (int i = 0; i < rows; i++) {
+                    sec.writeInt(at);
+                    at += keys[i].length;
+                }
+                sec.writeInt(at);
+                at = 0;
+                for (int i = 0; i < rows; i++) {
+                    sec.writeInt(at);
+                    at += table.rowLength(i);
+                }
+                sec.writeInt(at);
+                for (byte[] key : keys) {
+                    sec.write(key);
+                }
+                for (int i = 0; i < rows; i++) {
+                    table.writeRow(i, sec);
+                }
+                sec.flush();
+
+                header.putInt(rows).putInt((int) crc.getValue()).putLong(offset)
+                        .putLong(keyBytes).putLong(rowBytes);
+                offset += length;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(header.array(), 0, headerEnd);
+            header.putInt((int) crc.getValue());
+            header.flip();
+            while (header.hasRemaining()) {
+                ch.write(header, header.position()); // the header starts at file offset 0
+            }
+            ch.force(true);
+        }
+    }
+
+    /* ---------- Sections ---------- */
+
+    // One table's rows, read straight from the mapping. Absolute reads only,
+    // so any number of threads may share it.
+    static final class Section {
+        static final Section EMPTY = new Section(ByteBuffer.allocate(8), 0, 0);
+
+        private final ByteBuffer buf;
+        private final int rows;
+        private final int keysAt;
+        private final int rowsAt;
+
+        private Section(ByteBuffer buf, int rows, int keyBytes) {
+            this.buf = buf.order(ByteOrder.BIG_ENDIAN);
+            this.rows = rows;
+            this.keysAt = 8 * (rows + 1);
+            this.rowsAt = keysAt + keyBytes;
+        }
+
+        int size() {
+            return rows;
+        }
+
+        byte[] keyBytes(int i) {
+            int from = buf.getInt(4 * i);
+            int to = buf.getInt(4 * (i + 1));
+            byte[] b = new byte[to - from];
+            buf.get(keysAt + from, b);
+            return b;
+        }
+
+        String key(int i) {
+            return new String(keyBytes(i), StandardCharsets.UTF_8);
+        }
+
+        // Position of key, or -(insertion point) - 1, like Arrays.binarySearch
+        int search(String key) {
+            int lo = 0;
+            int hi = rows - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int c = key(mid).compareTo(key);
+                if (c < 0) lo = mid + 1;
+                else if (c > 0) hi = mid - 1;
+                else return mid;
+            }
+            return -(lo + 1);
+        }
+
+        private int rowStart(int i) {
+            return buf.getInt(4 * (rows + 1) + 4 * i);
+        }
+
+        int rowLength(int i) {
+            return rowStart(i + 1) - rowStart(i);
+        }
+
+        void writeRow(int i, DataOutputStream out) throws IOException {
+            byte[] b = new byte[rowLength(i)];
+            buf.get(rowsAt + rowStart(i), b);
+            out.write(b);
+        }
+
+        // Row reader for one thread; row(i) repositions it, so one serves a whole chunk
+        RowInput input() {
+            return new RowInput(this);
+        }
+    }
+
+    // InputStream over a row of a section, so EntityCodec can decode it in place
+    static final class RowInput extends InputStream {
+        private final Section section;
+        private final DataInputStream data = new DataInputStream(this);
+        private int pos;
+        private int end;
+
+        private RowInput(Section section) {
+            this.section = section;
+        }
+
+        DataInputStream row(int i) {
+            pos = section.rowsAt + section.rowStart(i);
+            end = pos + section.rowLength(i);
+            return data;
+        }
+
+        @Override
+        public int read() {
+            return pos < end ? section.buf.get(pos++) & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) return 0;
+            int n = Math.min(len, end - pos);
+            if (n <= 0) return -1;
+            section.buf.get(pos, b, off, n);
+            pos += n;
+            return n;
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package dao;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log split into numbered segment files (wal-1.log, wal-2.log, ...).
+ *
+ * Record layout: [int length][int crc32][byte table][byte op][UTF key][payload],
+ * where length and crc cover everything after the crc. A crash can only leave
+ * a torn record at the very end of the last segment; replay stops there and
+ * cuts it off. A bad record anywhere else fails the replay.
+ *
+ * Group commit: append() only copies the record into a buffer. One flusher
+ * thread writes whatever has piled up and forces it with a single fsync, then
+ * wakes every caller waiting on a ticket up to that point. Under load, many
+ * appends share one fsync.
+ *
+ * @author Group 3
+ */
+final class WriteAheadLog implements AutoCloseable {
+    static final byte PUT = 1;
+    static final byte DELETE = 2;
+
+    private static final String PREFIX = "wal-";
+    private static final String SUFFIX = ".log";
+    private static final int MAX_RECORD = 16 * 1024 * 1024;
+
+    private final Path dir;
+
+    // lock guards the buffer and tickets; ioLock guards the file. Always take
+    // ioLock first, so a rotate can never reorder records across segments.
+    private final Object lock = new Object();
+    private final Object ioLock = new Object();
+
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private long appended;   // ticket of the last record buffered
+    private long flushed;    // ticket of the last record on disk
+    private IOException failure;
+    private boolean closed;
+
+    private FileChannel channel;
+    private long segment;
+    private final Thread flusher;
+
+    private WriteAheadLog(Path dir, long segment) throws IOException {
+        this.dir = dir;
+        this.segment = segment;
+        this.channel = openSegment(dir, segment);
+        this.flusher = new Thread(this::flushLoop, "wal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    // Starts writing a new segment with the given number
+    static WriteAheadLog open(Path dir, long segment) throws IOException {
+        return new WriteAheadLog(dir, segment);
+    }
+
+    long segment() {
+        synchronized (ioLock) {
+            return segment;
+        }
+    }
+
+    /* ---------- Appending ---------- */
+
+    // Buffers one record; returns a ticket to pass to await()
+    long append(byte table, byte op, String key, byte[] payload) {
+        byte[] record = encode(table, op, key, payload);
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("Journal is closed.");
+            }
+            pending.write(record, 0, record.length);
+            appended++;
+            lock.notifyAll();
+            return appended;
+        }
+    }
+
+    // Blocks until the record with this ticket (and all before it) is on disk
+    void await(long ticket) throws IOException {
+        synchronized (lock) {
+            while (flushed < ticket && failure == null) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting for the journal.", e);
+                }
+            }
+            if (flushed < ticket) {
+                throw failure;
+            }
+        }
+    }
+
+    void sync() throws IOException {
+        long ticket;
+        synchronized (lock) {
+            ticket = appended;
+        }
+        await(ticket);
+    }
+
+    private static byte[] encode(byte table, byte op, String key, byte[] payload) {
+        try {
+            ByteArrayOutputStream body = new ByteArrayOutputStream(payload.length + key.length() + 8);
+            DataOutputStream out = new DataOutputStream(body);
+            out.writeByte(table);
+            out.writeByte(op);
+            out.writeUTF(key);
+            out.write(payload);
+            byte[] bytes = body.toByteArray();
+
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+
+            ByteBuffer record = ByteBuffer.allocate(8 + bytes.length);
+            record.putInt(bytes.length);
+            record.putInt((int) crc.getValue());
+            record.put(bytes);
+            return record.array();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not encode journal record.", e); // cannot happen in memory
+        }
+    }
+
+    /* ---------- Flushing ---------- */
+
+    private void flushLoop() {
+        while (true) {
+            synchronized (lock) {
+                while (pending.size() == 0 && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (pending.size() == 0) {
+                    return; // closed and drained
+                }
+            }
+            try {
+                flushPending();
+            } catch (IOException e) {
+                synchronized (lock) {
+                    failure = e;
+                    lock.notifyAll();
+                }
+                return;
+            }
+        }
+    }
+
+    // Writes and forces everything buffered so far, then releases its waiters
+    private void flushPending() throws IOException {
+        synchronized (ioLock) {
+            byte[] batch;
+            long upTo;
+            synchronized (lock) {
+                batch = pending.toByteArray();
+                pending = new ByteArrayOutputStream(Math.max(256, batch.length));
+                upTo = appended;
+            }
+            if (batch.length > 0) {
+                ByteBuffer buf = ByteBuffer.wrap(batch);
+                while (buf.hasRemaining()) {
+                    channel.write(buf);
+                }
+                channel.force(false);
+            }
+            synchronized (lock) {
+                flushed = Math.max(flushed, upTo);
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /* ---------- Segments ---------- */
+
+    // Flushes, then moves on to a fresh segment. Returns the number of the
+    // segment just finished: every record appended so far is in it or earlier.
+    long rotate() throws IOException {
+        synchronized (ioLock) {
+            flushPending();
+            long finished = segment;
+            FileChannel next = openSegment(dir, finished + 1);
+            channel.close();
+            channel = next;
+            segment = finished + 1;
+            return finished;
+        }
+    }
+
+    // Deletes every segment numbered upTo or lower
+    static void deleteSegments(Path dir, long upTo) throws IOException {
+        for (long n : listSegments(dir)) {
+            if (n <= upTo) {
+                Files.deleteIfExists(segmentPath(dir, n));
+            }
+        }
+    }
+
+    static long[] listSegments(Path dir) throws IOException {
+        long[] found = new long[8];
+        int count = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, PREFIX + "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String number = name.substring(PREFIX.length(), name.length() - SUFFIX.length());
+                try {
+                    long n = Long.parseLong(number);
+                    if (count == found.length) found = Arrays.copyOf(found, count * 2);
+                    found[count++] = n;
+                } catch (NumberFormatException e) {
+                    // not one of ours
+                }
+            }
+        }
+        long[] result = Arrays.copyOf(found, count);
+        Arrays.sort(result);
+        return result;
+    }
+
+    private static Path segmentPath(Path dir, long n) {
+        return dir.resolve(PREFIX + n + SUFFIX);
+    }
+
+    private static FileChannel openSegment(Path dir, long n) throws IOException {
+        return FileChannel.open(segmentPath(dir, n), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /* ---------- Replay ---------- */
+
+    interface RecordHandler {
+        void apply(byte table, byte op, String key, byte[] payload) throws IOException;
+    }
+
+    // Replays every segment numbered after the given one, oldest first.
+    // Returns the highest segment number seen (or after, if there were none).
+    static long replay(Path dir, long after, RecordHandler handler) throws IOException {
+        long[] segments = listSegments(dir);
+        long last = after;
+        for (int i = 0; i < segments.length; i++) {
+            long n = segments[i];
+            if (n > after) {
+                replaySegment(segmentPath(dir, n), i == segments.length - 1, handler);
+                last = n;
+            }
+        }
+        return last;
+    }
+
+    // Only the newest segment can end in a torn record (a crash mid-write); it
+    // is cut back to its last complete record. Older segments were flushed
+    // before the log rotated, so a bad record there is corruption and replay
+    // stops rather than skip the rest of that segment.
+    private static void replaySegment(Path file, boolean newest, RecordHandler handler) throws IOException {
+        long good = 0;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            InputStream in = new BufferedInputStream(Channels.newInputStream(ch));
+            byte[] header = new byte[8];
+
+            while (true) {
+                int got = in.readNBytes(header, 0, 8);
+                if (got < 8) break;                               // clean end, or torn header
+
+                ByteBuffer h = ByteBuffer.wrap(header);
+                int length = h.getInt();
+                int expected = h.getInt();
+                if (length < 2 || length > MAX_RECORD) break;     // garbage
+
+                byte[] body = in.readNBytes(length);
+                if (body.length < length) break;                  // torn body
+
+                CRC32 crc = new CRC32();
+                crc.update(body);
+                if ((int) crc.getValue() != expected) break;      // torn or corrupt
+
+                DataInputStream rec = new DataInputStream(new ByteArrayInputStream(body));
+                byte table = rec.readByte();
+                byte op = rec.readByte();
+                String key = rec.readUTF();
+                byte[] payload = rec.readAllBytes();
+                handler.apply(table, op, key, payload);
+
+                good += 8 + length;
+            }
+
+            if (ch.size() > good && !newest) {
+                throw new IOException("Journal segment is corrupt at byte " + good + ": " + file);
+            }
+            // cut off whatever followed the last complete record
+            if (ch.size() > good) {
+                ch.truncate(good);
+                ch.force(true);
+            }
+        } catch (EOFException e) {
+            throw new IOException("Journal record is malformed: " + file, e);
+        }
+    }
+
+    /* ---------- Closing ---------- */
+
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) return;
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (ioLock) {
+            flushPending(); // in case the flusher died before draining
+            channel.close();
+        }
+        synchronized (lock) {
+            if (failure != null) throw failure;
+        }
+    }
+}
@@ -20,10 +20,15 @@ public class Consultation implements Comparable<Consultation> {
     private TreatmentRecord treatmentRecord;
     
     public Consultation(String consultationID, String patientID, String doctorID) {
+        this(consultationID, patientID, doctorID, LocalDateTime.now());
+    }
+    
+    // Used when reloading a saved consultation
+    public Consultation(String consultationID, String patientID, String doctorID, LocalDateTime consultationDateTime) {
         this.consultationID = consultationID;
         this.patientID = patientID;
         this.doctorID = doctorID;
-        this.consultationDateTime = LocalDateTime.now();
+        this.consultationDateTime = consultationDateTime;
         this.symptoms = "";
         this.diagnosis = "";
         this.notes = "";
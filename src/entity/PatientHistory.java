@@ -1,6 +1,6 @@
 package entity;
 
-import adt.LinkedQueue;
+import adt.ArrayQueue;
 import adt.QueueInterface;
 import adt.QueueIterator;
 
@@ -12,7 +12,7 @@ public class PatientHistory implements Comparable<PatientHistory> {
 
     public PatientHistory(Patient patient) {
         this.patient = patient;
-        this.records = new LinkedQueue<>();
+        this.records = new ArrayQueue<>();
     }
 
     public Patient getPatient() { return patient; }
@@ -22,7 +22,7 @@ public class PatientHistory implements Comparable<PatientHistory> {
 
     public int countRecordsOn(LocalDate date) {
         int c = 0;
-        QueueIterator<TreatmentRecord> it = ((LinkedQueue<TreatmentRecord>) records).getIterator();
+        QueueIterator<TreatmentRecord> it = records.getIterator();
         while (it.hasNext()) {
             TreatmentRecord tr = it.getNext();
             if (tr.getDateTime().toLocalDate().equals(date)) c++;
@@ -31,7 +31,7 @@ public class PatientHistory implements Comparable<PatientHistory> {
     }
 
     public TreatmentRecord findRecordByID(String treatmentID) {
-        QueueIterator<TreatmentRecord> it = ((LinkedQueue<TreatmentRecord>) records).getIterator();
+        QueueIterator<TreatmentRecord> it = records.getIterator();
         while (it.hasNext()) {
             TreatmentRecord tr = it.getNext();
             if (treatmentID.equals(tr.getTreatmentID())) return tr;
@@ -15,11 +15,16 @@ public class Prescription implements Iterable<PrescriptionItem>{
     private final QueueInterface<PrescriptionItem> items = new LinkedQueue<>();
 
     public Prescription(String prescriptionID, String patientID, String doctorID) {
+        this(prescriptionID, patientID, doctorID, LocalDateTime.now());
+    }
+
+    // Used when reloading a saved prescription
+    public Prescription(String prescriptionID, String patientID, String doctorID, LocalDateTime createdTime) {
         this.prescriptionID = prescriptionID;
         this.patientID = patientID;
         this.doctorID = doctorID;
         this.status = PrescriptionStatus.PENDING;
-        this.createdTime = LocalDateTime.now();
+        this.createdTime = createdTime;
     }
 
     // Add a prescription item
@@ -1,6 +1,8 @@
 package entity.keys;
 
 import entity.Consultation;
+import entity.ConsultationStatus;
+import utility.IDCodec;
 
 /**
  *
@@ -9,11 +11,15 @@ import entity.Consultation;
 
 public class ConsultationByID implements Comparable<ConsultationByID> {
     private final String consultationID;
+    private final long key; // IDCodec key, INVALID for IDs not from the generator
     private final Consultation consultation;
+    private final ConsultationStatus status; // status when this entry was made; the consultation itself may move on
     
-    public ConsultationByID(String consultationID, Consultation consultation) {
-        this.consultationID = consultationID;
+    public ConsultationByID(Consultation consultation) {
+        this.consultationID = consultation.getConsultationID();
+        this.key = IDCodec.parse(consultationID);
         this.consultation = consultation;
+        this.status = consultation.getStatus();
     }
     
     public String getConsultationID() {
@@ -24,8 +30,16 @@ public class ConsultationByID implements Comparable<ConsultationByID> {
         return consultation;
     }
     
+    public ConsultationStatus getStatus() {
+        return status;
+    }
+    
     @Override
     public int compareTo(ConsultationByID other) {
+        // integer compare for generator IDs; anything else sorts first, by text
+        int c = Long.compare(this.key, other.key);
+        if (c != 0 || key != IDCodec.INVALID)
+            return c;
         return this.consultationID.compareTo(other.consultationID);
     }
     
@@ -11,9 +11,9 @@ public class DutyByDateShift implements Comparable<DutyByDateShift> {
     private int size;
 
     private static class Node {
-        DutyByDoctorDateShift key;
+        DoctorDuty duty;
         Node next;
-        Node(DutyByDoctorDateShift k, Node n) { this.key = k; this.next = n; }
+        Node(DoctorDuty d, Node n) { this.duty = d; this.next = n; }
     }
 
     public DutyByDateShift(LocalDate date, Shift shift) {
@@ -29,30 +29,29 @@ public class DutyByDateShift implements Comparable<DutyByDateShift> {
     public int size() { return size; }
     public boolean isEmpty() { return size == 0; }
 
-    /** Add unique (by doctorID+date+shift). Reject null duty payloads. */
-    public boolean add(DutyByDoctorDateShift k) {
-        if (k == null || k.getDuty() == null) return false;
-        if (!sameSlot(k)) return false;
+    /** Add unique (by doctorID within this date+shift). Reject null duties. */
+    public boolean add(DoctorDuty d) {
+        if (d == null || !sameSlot(d)) return false;
 
         Node curr = head;
         while (curr != null) {
-            if (curr.key.compareTo(k) == 0) return false; // duplicate
+            if (sameDoctor(curr.duty, d)) return false; // duplicate
             curr = curr.next;
         }
-        head = new Node(k, head); // push-front (O(1)). If you prefer stable order, add at tail.
+        head = new Node(d, head); // push-front (O(1)). If you prefer stable order, add at tail.
         size++;
         return true;
     }
 
-    public boolean remove(DutyByDoctorDateShift k) {
-        if (k == null || head == null) return false;
+    public boolean remove(DoctorDuty d) {
+        if (d == null || head == null) return false;
 
-        if (head.key.compareTo(k) == 0) {
+        if (sameDoctor(head.duty, d)) {
             head = head.next; size--; return true;
         }
         Node prev = head, curr = head.next;
         while (curr != null) {
-            if (curr.key.compareTo(k) == 0) {
+            if (sameDoctor(curr.duty, d)) {
                 prev.next = curr.next; size--; return true;
             }
             prev = curr; curr = curr.next;
@@ -61,11 +60,11 @@ public class DutyByDateShift implements Comparable<DutyByDateShift> {
     }
 
     /** Check membership by composite key. */
-    public boolean contains(DutyByDoctorDateShift k) {
-        if (k == null || !sameSlot(k)) return false;
+    public boolean contains(DoctorDuty d) {
+        if (d == null || !sameSlot(d)) return false;
         Node curr = head;
         while (curr != null) {
-            if (curr.key.compareTo(k) == 0) return true;
+            if (sameDoctor(curr.duty, d)) return true;
             curr = curr.next;
         }
         return false;
@@ -75,19 +74,19 @@ public class DutyByDateShift implements Comparable<DutyByDateShift> {
     public DoctorDuty getDutyByDoctor(String doctorID) {
         Node curr = head;
         while (curr != null) {
-            DutyByDoctorDateShift x = curr.key;
+            DoctorDuty x = curr.duty;
             if (x.getDoctorID() != null && x.getDoctorID().equals(doctorID)) {
-                return x.getDuty();
+                return x;
             }
             curr = curr.next;
         }
         return null;
     }
 
-    /** Optional: iterate keys (useful for printing). */
-    public void forEach(java.util.function.Consumer<DutyByDoctorDateShift> action) {
+    /** Optional: iterate duties (useful for printing). */
+    public void forEach(java.util.function.Consumer<DoctorDuty> action) {
         Node curr = head;
-        while (curr != null) { action.accept(curr.key); curr = curr.next; }
+        while (curr != null) { action.accept(curr.duty); curr = curr.next; }
     }
 
     /** Convert to array (current order = reverse insertion). */
@@ -96,7 +95,7 @@ public class DutyByDateShift implements Comparable<DutyByDateShift> {
         int i = 0;
         Node curr = head;
         while (curr != null) {
-            arr[i++] = curr.key.getDuty();
+            arr[i++] = curr.duty;
             curr = curr.next;
         }
         return arr;
@@ -104,10 +103,14 @@ public class DutyByDateShift implements Comparable<DutyByDateShift> {
 
     public void clear() { head = null; size = 0; }
 
-    private boolean sameSlot(DutyByDoctorDateShift k) {
-        if (k.getDate() == null || k.getShift() == null) return false;
-        if (!k.getDate().equals(this.date)) return false;
-        return k.getShift() == this.shift;
+    private boolean sameSlot(DoctorDuty d) {
+        if (d.getDate() == null || d.getShift() == null) return false;
+        if (!d.getDate().equals(this.date)) return false;
+        return d.getShift() == this.shift;
+    }
+
+    private static boolean sameDoctor(DoctorDuty a, DoctorDuty b) {
+        return a.getDoctorID() == null ? b.getDoctorID() == null : a.getDoctorID().equals(b.getDoctorID());
     }
 
     @Override
@@ -0,0 +1,49 @@
+package utility;
+
+/**
+ * A run of consecutive IDs reserved in one go by IDGenerator.nextBlock, so a
+ * bulk import claims its IDs with a single counter update. IDs are built
+ * only when asked for.
+ *
+ * @author Group 3
+ */
+public final class IDBlock {
+    private final IDType type;
+    private final long epochDay;
+    private final int firstSeq;
+    private final int size;
+    private final int padWidth;
+
+    IDBlock(IDType type, long epochDay, int firstSeq, int size, int padWidth) {
+        this.type = type;
+        this.epochDay = epochDay;
+        this.firstSeq = firstSeq;
+        this.size = size;
+        this.padWidth = padWidth;
+    }
+
+    public IDType getType() {
+        return type;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // i-th ID of the block (0-based), e.g. "P202508110001"
+    public String id(int i) {
+        return IDGenerator.format(type, epochDay, seq(i), padWidth);
+    }
+
+    // i-th ID packed by IDCodec
+    public long key(int i) {
+        return IDCodec.encode(type, epochDay, seq(i), padWidth);
+    }
+
+    private int seq(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Block index out of range: " + i);
+        }
+        return firstSeq + i;
+    }
+}
@@ -0,0 +1,176 @@
+package utility;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * Packs an ID of the form prefix + yyyyMMdd + zero-padded sequence
+ * (e.g. "P202508110001") into one non-negative long, so indexes can compare
+ * IDs as numbers and only build the String when it is shown.
+ *
+ * Bit layout, high to low:
+ *   [ type 5 | epoch day 26 | sequence 28 | pad width 4 ]
+ *
+ * Keys of one type sort by date then sequence, which matches the String
+ * order for the usual 4-digit sequences (and stays correct past 9999, where
+ * the String order does not). The pad width is kept so format() gives back
+ * exactly the String that was parsed.
+ *
+ * @author Group 3
+ */
+public final class IDCodec {
+    public static final long INVALID = -1L;
+
+    private static final int PAD_BITS = 4;
+    private static final int SEQ_BITS = 28;
+    private static final int DAY_BITS = 26;
+    private static final int TYPE_BITS = 5;
+
+    private static final int SEQ_SHIFT = PAD_BITS;
+    private static final int DAY_SHIFT = SEQ_SHIFT + SEQ_BITS;
+    private static final int TYPE_SHIFT = DAY_SHIFT + DAY_BITS;
+
+    private static final int MAX_PAD = (1 << PAD_BITS) - 1;
+    private static final int MAX_SEQ = (1 << SEQ_BITS) - 1;
+    private static final long MAX_DAY = (1L << DAY_BITS) - 1;
+    private static final int DEFAULT_PAD = 4;
+
+    private static final IDType[] TYPES = IDType.values();
+
+    static {
+        if (TYPES.length > (1 << TYPE_BITS)) {
+            throw new ExceptionInInitializerError("Too many ID types for the codec.");
+        }
+    }
+
+    private IDCodec() {} // prevent instantiation of this utility class
+
+    /* ---------- Encoding ---------- */
+
+    public static long encode(IDType type, LocalDate date, int seq) {
+        return encode(type, date.toEpochDay(), seq, DEFAULT_PAD);
+    }
+
+    public static long encode(IDType type, long epochDay, int seq, int padWidth) {
+        if (type == null) {
+            throw new IllegalArgumentException("ID type is required.");
+        }
+        if (epochDay < 0 || epochDay > MAX_DAY) {
+            throw new IllegalArgumentException("Date out of range: " + epochDay);
+        }
+        if (seq < 0 || seq > MAX_SEQ) {
+            throw new IllegalArgumentException("Sequence out of range: " + seq);
+        }
+        if (padWidth < 1 || padWidth > MAX_PAD) {
+            throw new IllegalArgumentException("Pad width out of range: " + padWidth);
+        }
+        // store the width the String actually has, so parse(format(k)) == k
+        int width = Math.max(padWidth, digitCount(seq));
+        return ((long) type.ordinal() << TYPE_SHIFT)
+                | (epochDay << DAY_SHIFT)
+                | ((long) seq << SEQ_SHIFT)
+                | width;
+    }
+
+    private static int digitCount(int value) {
+        int digits = 1;
+        for (int v = value; v >= 10; v /= 10) digits++;
+        return digits;
+    }
+
+    // Encoded key for id, or INVALID if it is not in the generator's format
+    public static long parse(String id) {
+        if (id == null) return INVALID;
+
+        IDType type = prefixOf(id);
+        if (type == null) return INVALID;
+
+        int start = type.getPrefix().length();
+        int padWidth = id.length() - start - 8;
+        if (padWidth < 1 || padWidth > MAX_PAD) return INVALID;
+
+        int year = digits(id, start, 4);
+        int month = digits(id, start + 4, 2);
+        int day = digits(id, start + 6, 2);
+        int seq = digits(id, start + 8, padWidth);
+        if (year < 0 || month < 0 || day < 0 || seq < 0) return INVALID;
+
+        long epochDay;
+        try {
+            epochDay = LocalDate.of(year, month, day).toEpochDay();
+        } catch (DateTimeException e) {
+            return INVALID;
+        }
+        if (epochDay < 0 || epochDay > MAX_DAY || seq > MAX_SEQ) return INVALID;
+
+        return encode(type, epochDay, seq, padWidth);
+    }
+
+    // The prefix is followed by a digit, so "P" never swallows "PH..." or "PR..."
+    private static IDType prefixOf(String id) {
+        for (IDType type : TYPES) {
+            String prefix = type.getPrefix();
+            if (id.length() > prefix.length() && id.startsWith(prefix)
+                    && Character.isDigit(id.charAt(prefix.length()))) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    // Value of s[from, from + len) as decimal digits, or -1
+    private static int digits(String s, int from, int len) {
+        long value = 0;
+        for (int i = from; i < from + len; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value > Integer.MAX_VALUE ? -1 : (int) value;
+    }
+
+    /* ---------- Decoding ---------- */
+
+    public static IDType typeOf(long key) {
+        checkKey(key);
+        return TYPES[(int) (key >>> TYPE_SHIFT)];
+    }
+
+    public static LocalDate dateOf(long key) {
+        checkKey(key);
+        return LocalDate.ofEpochDay((key >>> DAY_SHIFT) & MAX_DAY);
+    }
+
+    public static int seqOf(long key) {
+        checkKey(key);
+        return (int) ((key >>> SEQ_SHIFT) & MAX_SEQ);
+    }
+
+    // Builds the display String, e.g. "P202508110001"
+    public static String format(long key) {
+        checkKey(key);
+        LocalDate date = dateOf(key);
+        int padWidth = (int) (key & MAX_PAD);
+
+        StringBuilder sb = new StringBuilder(typeOf(key).getPrefix());
+        sb.append(date.getYear());
+        pad(sb, date.getMonthValue(), 2);
+        pad(sb, date.getDayOfMonth(), 2);
+        pad(sb, seqOf(key), padWidth);
+        return sb.toString();
+    }
+
+    private static void pad(StringBuilder sb, int value, int width) {
+        String s = Integer.toString(value);
+        for (int i = s.length(); i < width; i++) {
+            sb.append('0');
+        }
+        sb.append(s);
+    }
+
+    private static void checkKey(long key) {
+        if (key < 0 || (key >>> TYPE_SHIFT) >= TYPES.length) {
+            throw new IllegalArgumentException("Not an encoded ID: " + key);
+        }
+    }
+}
@@ -1,37 +1,252 @@
 package utility;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 public final class IDGenerator {
-    private static final DateTimeFormatter YMD = DateTimeFormatter.BASIC_ISO_DATE; // yyyyMMdd
     private static final int N = IDType.values().length; // total enum constants
-    
-    // One slot per type
-    private static final LocalDate[] lastDate = new LocalDate[N];
-    private static final int[]       seq      = new int[N];
-    
+    private static final IDType[] TYPES = IDType.values();
+
+    // One counter per type: (epoch day << 32) | last sequence handed out.
+    // A CAS on it both bumps the sequence and does the daily reset, so no lock.
+    private static final AtomicLong[] state = new AtomicLong[N];
+
+    // "P20250811" etc. for the current day, per type; rebuilt when the day moves
+    // (objects are immutable, so a racing rebuild only costs a little garbage)
+    private static final DayPrefix[] prefixes = new DayPrefix[N];
+
+    private static volatile Today today = Today.compute();
+
     private static final int DEFAULT_PAD = 4;
-    
+    private static final long SEQ_MASK = 0xFFFFFFFFL;
+    private static final int MAX_SEQ = (1 << 28) - 1; // what IDCodec can hold
+    private static final int DEFAULT_LEASE = 1000;
+
+    // Optional durable leases (see attachStore). leases holds, per type, the
+    // last packed value already on disk; counters may run up to it lock-free.
+    private static volatile SequenceStore store;
+    private static final AtomicLongArray leases = new AtomicLongArray(N);
+    private static int leaseSize = DEFAULT_LEASE;
+
+    static {
+        for (int i = 0; i < N; i++) {
+            state[i] = new AtomicLong();
+        }
+    }
+
     private IDGenerator() {} // prevent instantiation of this utility class
-    
-    public static synchronized String next(IDType type) { // default 4 digits
+
+    public static String next(IDType type) { // default 4 digits
         return next(type, DEFAULT_PAD);
     }
-    
-    public static synchronized String next(IDType type, int padWidth) {
-        int i = type.ordinal(); // 0 for PATIENT, 1 for PRESCRIPTION, etc
-        LocalDate today = LocalDate.now();
-        
-        // Daily reset (per type)
-        if (lastDate[i] == null || !today.equals(lastDate[i])) {
-            lastDate[i] = today;
-            seq[i] = 0;
-        }
-        seq[i]++; // increment that type's counter
-        
-        String date  = today.format(YMD);                            // "20250811"
-        String count = String.format("%0" + padWidth + "d", seq[i]); // "0001"
-        return type.getPrefix() + date + count;                      // "P202508110001
+
+    public static String next(IDType type, int padWidth) {
+        long packed = reserve(type, 1);
+        return format(type, packed >>> 32, (int) (packed & SEQ_MASK), padWidth); // "P202508110001"
+    }
+
+    // Same ID packed by IDCodec; callers that only index it never build the String
+    public static long nextKey(IDType type) {
+        return nextKey(type, DEFAULT_PAD);
+    }
+
+    public static long nextKey(IDType type, int padWidth) {
+        long packed = reserve(type, 1);
+        return IDCodec.encode(type, packed >>> 32, (int) (packed & SEQ_MASK), padWidth);
+    }
+
+    // Reserves n consecutive IDs in one step, e.g. for a bulk import
+    public static IDBlock nextBlock(IDType type, int n) {
+        return nextBlock(type, n, DEFAULT_PAD);
+    }
+
+    public static IDBlock nextBlock(IDType type, int n, int padWidth) {
+        if (n < 1) {
+            throw new IllegalArgumentException("Block size must be at least 1.");
+        }
+        long packed = reserve(type, n);
+        int first = (int) (packed & SEQ_MASK) - n + 1;
+        return new IDBlock(type, packed >>> 32, first, n, padWidth);
+    }
+
+    /* ---------- Durable Sequences ---------- */
+
+    // Keeps sequences unique across restarts: IDs are leased leaseSize at a time,
+    // each lease forced to the file once, and startup resumes after the last lease.
+    // Call it at startup, before any IDs are generated.
+    public static void attachStore(Path file) throws IOException {
+        attachStore(file, DEFAULT_LEASE);
+    }
+
+    public static synchronized void attachStore(Path file, int leaseIDs) throws IOException {
+        if (leaseIDs < 1) {
+            throw new IllegalArgumentException("Lease size must be at least 1.");
+        }
+        SequenceStore opened = SequenceStore.open(file, N);
+        for (int i = 0; i < N; i++) {
+            long leased = opened.read(i);
+            // recovery: anything up to the stored lease may have been issued already
+            state[i].accumulateAndGet(leased, Math::max);
+            leases.set(i, leased);
+        }
+        leaseSize = leaseIDs;
+        if (store != null) {
+            store.close();
+        }
+        store = opened;
+    }
+
+    public static boolean isDurable() {
+        return store != null;
+    }
+
+    // Moves the counter for the key's type past an ID that is already in use
+    // (e.g. one read back from saved data), so it is never handed out again.
+    // Invalid keys are ignored.
+    public static void skipPast(long key) {
+        if (key < 0) {
+            return;
+        }
+        long packed = (IDCodec.dateOf(key).toEpochDay() << 32) | IDCodec.seqOf(key);
+        state[IDCodec.typeOf(key).ordinal()].accumulateAndGet(packed, Math::max);
+    }
+
+    // Slow path: make sure the lease on disk covers needed before it is handed out
+    private static synchronized void extendLease(int i, long needed) {
+        if (needed <= leases.get(i)) {
+            return; // another thread got there first
+        }
+        long day = needed >>> 32;
+        long limit = Math.min((needed & SEQ_MASK) + leaseSize, MAX_SEQ);
+        long packed = (day << 32) | limit;
+
+        store.write(i, packed);
+        leases.set(i, packed);
+    }
+
+    /* ---------- Counters ---------- */
+
+    // Claims n sequence numbers; returns (day << 32) | last one claimed
+    private static long reserve(IDType type, int n) {
+        AtomicLong counter = state[type.ordinal()];
+        long day = currentEpochDay();
+
+        while (true) {
+            long cur = counter.get();
+            long curDay = cur >>> 32;
+
+            long next;
+            if (curDay < day) {
+                next = (day << 32) | n;            // daily reset (per type)
+            } else {
+                // same day, or the clock stepped back: keep counting on the stored day
+                long seq = (cur & SEQ_MASK) + n;
+                if (seq > MAX_SEQ) {
+                    throw new IllegalStateException("Out of IDs for " + type + " today.");
+                }
+                next = (curDay << 32) | seq;
+            }
+
+            // packed values order by day then sequence, so one compare covers both
+            if (store != null && next > leases.get(type.ordinal())) {
+                extendLease(type.ordinal(), next);
+                continue;
+            }
+            if (counter.compareAndSet(cur, next)) {
+                return next;
+            }
+        }
+    }
+
+    private static long currentEpochDay() {
+        Today t = today;
+        long now = System.currentTimeMillis();
+        if (now < t.startMillis || now >= t.endMillis) {
+            t = Today.compute();
+            today = t;
+        }
+        return t.epochDay;
+    }
+
+    /* ---------- Formatting ---------- */
+
+    static String format(IDType type, long epochDay, int seq, int padWidth) {
+        char[] prefix = prefixFor(type, epochDay);
+
+        int digits = 1;
+        for (int v = seq; v >= 10; v /= 10) digits++;
+        int width = Math.max(digits, padWidth);
+
+        char[] out = new char[prefix.length + width];
+        System.arraycopy(prefix, 0, out, 0, prefix.length);
+
+        // fill digits from the right, then zeros
+        int pos = out.length;
+        for (int v = seq; pos > out.length - digits; v /= 10) {
+            out[--pos] = (char) ('0' + v % 10);
+        }
+        while (pos > prefix.length) {
+            out[--pos] = '0';
+        }
+        return new String(out);
+    }
+
+    private static char[] prefixFor(IDType type, long epochDay) {
+        int i = type.ordinal();
+        DayPrefix p = prefixes[i];
+        if (p == null || p.epochDay != epochDay) {
+            p = new DayPrefix(TYPES[i], epochDay);
+            prefixes[i] = p;
+        }
+        return p.chars;
+    }
+
+    private static final class DayPrefix {
+        final long epochDay;
+        final char[] chars; // prefix + yyyyMMdd
+
+        DayPrefix(IDType type, long epochDay) {
+            this.epochDay = epochDay;
+            LocalDate d = LocalDate.ofEpochDay(epochDay);
+            String prefix = type.getPrefix();
+
+            chars = new char[prefix.length() + 8];
+            prefix.getChars(0, prefix.length(), chars, 0);
+            put(chars, prefix.length(), d.getYear(), 4);
+            put(chars, prefix.length() + 4, d.getMonthValue(), 2);
+            put(chars, prefix.length() + 6, d.getDayOfMonth(), 2);
+        }
+
+        private static void put(char[] a, int from, int value, int width) {
+            for (int i = from + width - 1; i >= from; i--) {
+                a[i] = (char) ('0' + value % 10);
+                value /= 10;
+            }
+        }
+    }
+
+    // Local date plus the millisecond window it covers, so most calls skip LocalDate.now()
+    private static final class Today {
+        final long epochDay;
+        final long startMillis;
+        final long endMillis;
+
+        private Today(long epochDay, long startMillis, long endMillis) {
+            this.epochDay = epochDay;
+            this.startMillis = startMillis;
+            this.endMillis = endMillis;
+        }
+
+        static Today compute() {
+            ZoneId zone = ZoneId.systemDefault();
+            LocalDate d = LocalDate.now(zone);
+            return new Today(d.toEpochDay(),
+                    d.atStartOfDay(zone).toInstant().toEpochMilli(),
+                    d.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli());
+        }
     }
 }
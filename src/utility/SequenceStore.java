@@ -0,0 +1,104 @@
+package utility;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Small memory-mapped file holding one long per ID type: the end of the
+ * range IDGenerator has leased for it, packed as (epoch day << 32) | last
+ * sequence. A slot is written and forced to disk before any ID in the new
+ * range is handed out, so after a crash or restart the generator carries on
+ * after the lease and never reissues an ID (the unused tail is skipped).
+ *
+ * Layout: magic, version, slot count, unused (4 ints), then the slots.
+ *
+ * @author Group 3
+ */
+public final class SequenceStore implements AutoCloseable {
+    private static final int MAGIC = 0x43534551; // "CSEQ"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer map;
+    private final int slots;
+
+    private SequenceStore(FileChannel channel, MappedByteBuffer map, int slots) {
+        this.channel = channel;
+        this.map = map;
+        this.slots = slots;
+    }
+
+    // Opens (or creates) the file with at least the given number of slots
+    public static SequenceStore open(Path file, int slots) throws IOException {
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            boolean fresh = ch.size() == 0;
+            int stored = 0;
+            if (!fresh) {
+                if (ch.size() < HEADER_BYTES) {
+                    throw new IOException("Not a sequence file: " + file);
+                }
+                MappedByteBuffer header = ch.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+                header.order(ByteOrder.BIG_ENDIAN);
+                if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                    throw new IOException("Not a sequence file: " + file);
+                }
+                stored = header.getInt(8);
+            }
+
+            // a newer build may have more ID types: grow, keeping existing slots
+            int count = Math.max(slots, stored);
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + 8L * count);
+            map.order(ByteOrder.BIG_ENDIAN);
+            if (fresh || count != stored) {
+                map.putInt(0, MAGIC);
+                map.putInt(4, VERSION);
+                map.putInt(8, count);
+                map.force();
+            }
+            return new SequenceStore(ch, map, count);
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    public int slots() {
+        return slots;
+    }
+
+    public synchronized long read(int slot) {
+        return map.getLong(offset(slot));
+    }
+
+    // Writes the slot and waits until it is on disk
+    public synchronized void write(int slot, long value) {
+        int at = offset(slot);
+        map.putLong(at, value);
+        try {
+            map.force(at, 8);
+        } catch (UncheckedIOException e) {
+            throw new IllegalStateException("Could not persist ID lease.", e);
+        }
+    }
+
+    private int offset(int slot) {
+        if (slot < 0 || slot >= slots) {
+            throw new IndexOutOfBoundsException("No such slot: " + slot);
+        }
+        return HEADER_BYTES + 8 * slot;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        map.force();
+        channel.close();
+    }
+}
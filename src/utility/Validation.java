@@ -2,6 +2,7 @@ package utility;
 
 import java.time.*;
 import java.time.format.*;
+import java.util.regex.Pattern;
 import entity.Gender;
 
 public final class Validation {
@@ -9,12 +10,19 @@ public final class Validation {
     
     private static final DateTimeFormatter STRICT_ISO = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     
+    // Compiled once; String.matches would recompile the pattern on every call,
+    // which is most of the cost of validating a bulk import
+    private static final Pattern NAME = Pattern.compile("[A-Za-z ]+");
+    private static final Pattern PHONE = Pattern.compile("^011-[0-9]{8}$|^01(0|2|3|4|5|6|7|8|9)-[0-9]{7}$");
+    private static final Pattern EMAIL = Pattern.compile("^[a-z0-9._%+-]+@[a-z0-9.-]+\\.[a-z]{2,6}$");
+    private static final Pattern PHONE_SEPARATORS = Pattern.compile("[-\\s]");
+    
     // Validation
     public static boolean validName(String name){
         if (name == null)
             return false;
         
-        return name.matches("[A-Za-z ]+");
+        return NAME.matcher(name).matches();
     }
     
     public static boolean validPhone(String phone) {
@@ -22,14 +30,14 @@ public final class Validation {
             return false;
         
         phone = standardizedPhone(phone);
-        return phone.matches("^011-[0-9]{8}$|^01(0|2|3|4|5|6|7|8|9)-[0-9]{7}$");
+        return PHONE.matcher(phone).matches();
     }
     
     public static boolean validEmail(String email){
         if (email == null)
             return false;
         
-        return email.matches("^[a-z0-9._%+-]+@[a-z0-9.-]+\\.[a-z]{2,6}$");
+        return EMAIL.matcher(email).matches();
     }
     
     public static boolean validGender(String gender) {
@@ -99,7 +107,7 @@ public final class Validation {
     
     // Formatting
     public static String standardizedPhone(String phoneNo) {
-        phoneNo = phoneNo.replaceAll("[-\\s]", "");
+        phoneNo = PHONE_SEPARATORS.matcher(phoneNo).replaceAll("");
         
         if (phoneNo.length() >= 3)
             phoneNo = phoneNo.substring(0, 3) + "-" + phoneNo.substring(3);